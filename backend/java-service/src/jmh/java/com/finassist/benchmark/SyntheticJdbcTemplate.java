@@ -0,0 +1,39 @@
+package com.finassist.benchmark;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JdbcTemplate that answers every row query from a fixed set of synthetic rows.
+ *
+ * Lets benchmarks drive a repository's public finders, and therefore its private
+ * RowMapper, exactly as the service does. Batch updates are accepted and dropped.
+ */
+public class SyntheticJdbcTemplate extends JdbcTemplate {
+
+    private volatile List<Map<String, Object>> rows = List.of();
+
+    public void setRows(List<Map<String, Object>> rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+        try {
+            return new RowMapperResultSetExtractor<>(rowMapper, rows.size()).extractData(SyntheticResultSet.of(rows));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+        return new int[pss.getBatchSize()];
+    }
+}
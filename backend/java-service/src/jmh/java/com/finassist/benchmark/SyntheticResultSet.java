@@ -0,0 +1,66 @@
+package com.finassist.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory ResultSet over pre-built rows, for benchmarking RowMappers without a database.
+ *
+ * Only the getters the repositories use are supported; column values are stored
+ * already in their JDBC types so the mapper, not the fake, dominates the cost.
+ */
+public final class SyntheticResultSet {
+
+    private SyntheticResultSet() {}
+
+    public static ResultSet of(List<Map<String, Object>> rows) {
+        int[] cursor = {-1};
+        Object[] last = {null};
+        return (ResultSet) Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++cursor[0] < rows.size();
+                    case "getRow":
+                        return cursor[0] + 1;
+                    case "wasNull":
+                        return last[0] == null;
+                    case "close":
+                        return null;
+                    case "isClosed":
+                        return false;
+                    default:
+                        break;
+                }
+                if (args == null || args.length != 1 || !(args[0] instanceof String)) {
+                    throw new SQLFeatureNotSupportedException(method.getName());
+                }
+                Object value = rows.get(cursor[0]).get((String) args[0]);
+                last[0] = value;
+                switch (method.getName()) {
+                    case "getLong":
+                        return value == null ? 0L : ((Number) value).longValue();
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getString":
+                        return value == null ? null : value.toString();
+                    case "getBigDecimal":
+                        return (BigDecimal) value;
+                    case "getDate":
+                        return (Date) value;
+                    case "getTimestamp":
+                        return (Timestamp) value;
+                    case "getObject":
+                        return value;
+                    default:
+                        throw new SQLFeatureNotSupportedException(method.getName());
+                }
+            });
+    }
+}
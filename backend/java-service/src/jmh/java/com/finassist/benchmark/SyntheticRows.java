@@ -0,0 +1,163 @@
+package com.finassist.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic rows shaped like the tables in database/schema.sql.
+ */
+public final class SyntheticRows {
+
+    private static final String[] ASSET_TYPES = {"stock", "mutual_fund", "etf", "crypto", "bond"};
+    private static final String[] CATEGORIES = {"Food", "Rent", "Transport", "Shopping", "Salary", "Utilities"};
+    private static final Timestamp NOW = Timestamp.valueOf(LocalDateTime.of(2025, 1, 15, 10, 30));
+
+    private SyntheticRows() {}
+
+    public static List<Map<String, Object>> holdings(int count) {
+        Random random = new Random(42);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal quantity = amount(random, 1, 500, 4);
+            BigDecimal buyPrice = amount(random, 10, 5000, 2);
+            BigDecimal currentPrice = amount(random, 10, 5000, 2);
+            BigDecimal invested = quantity.multiply(buyPrice).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal value = quantity.multiply(currentPrice).setScale(2, RoundingMode.HALF_UP);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("user_id", 1L);
+            row.put("asset_type", ASSET_TYPES[i % ASSET_TYPES.length]);
+            row.put("symbol", "SYM" + i);
+            row.put("name", "Synthetic holding " + i);
+            row.put("exchange", "NSE");
+            row.put("quantity", quantity);
+            row.put("average_buy_price", buyPrice);
+            row.put("total_invested", invested);
+            row.put("current_price", currentPrice);
+            row.put("current_value", value);
+            row.put("unrealized_pnl", value.subtract(invested));
+            row.put("unrealized_pnl_percentage", new BigDecimal("1.25"));
+            row.put("broker", "Zerodha");
+            row.put("notes", null);
+            row.put("last_price_update", NOW);
+            row.put("created_at", NOW);
+            row.put("updated_at", NOW);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static List<Map<String, Object>> transactions(int count) {
+        Random random = new Random(42);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal quantity = amount(random, 1, 100, 4);
+            BigDecimal price = amount(random, 10, 5000, 2);
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("user_id", 1L);
+            row.put("holding_id", (long) (i % 50) + 1);
+            row.put("transaction_type", i % 3 == 0 ? "sell" : "buy");
+            row.put("asset_type", ASSET_TYPES[i % ASSET_TYPES.length]);
+            row.put("symbol", "SYM" + (i % 50));
+            row.put("quantity", quantity);
+            row.put("price", price);
+            row.put("total_amount", quantity.multiply(price).setScale(2, RoundingMode.HALF_UP));
+            row.put("fees", new BigDecimal("20.00"));
+            row.put("transaction_date", Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i % 365)));
+            row.put("broker", "Zerodha");
+            row.put("notes", null);
+            row.put("created_at", NOW);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static List<Map<String, Object>> budgetEntries(int count) {
+        Random random = new Random(42);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("user_id", 1L);
+            row.put("category", category);
+            row.put("amount", amount(random, 50, 50000, 2));
+            row.put("type", "Salary".equals(category) ? "income" : "expense");
+            row.put("description", category + " payment " + i);
+            row.put("entry_date", Date.valueOf(LocalDate.of(2024, 1, 1).plusDays(i % 365)));
+            row.put("created_at", NOW);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static List<Map<String, Object>> goals(int count) {
+        Random random = new Random(42);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("user_id", 1L);
+            row.put("goal_name", "Goal " + i);
+            row.put("goal_type", "savings");
+            row.put("target_amount", amount(random, 100000, 5000000, 2));
+            row.put("current_amount", amount(random, 0, 100000, 2));
+            row.put("target_date", Date.valueOf(LocalDate.of(2030, 1, 1)));
+            row.put("start_date", Date.valueOf(LocalDate.of(2024, 1, 1)));
+            row.put("months_remaining", 60);
+            row.put("monthly_saving_required", amount(random, 1000, 50000, 2));
+            row.put("investment_strategy", "Equity Mutual Funds: 50%");
+            row.put("risk_profile", "moderate");
+            row.put("progress_percentage", new BigDecimal("12.50"));
+            row.put("status", "active");
+            row.put("icon", "target");
+            row.put("color", "#4CAF50");
+            row.put("priority", i % 5);
+            row.put("notes", null);
+            row.put("created_at", NOW);
+            row.put("updated_at", NOW);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    public static List<Map<String, Object>> taxCalculations(int count) {
+        Random random = new Random(42);
+        String[] moneyColumns = {
+            "salary_income", "house_property_income", "business_income", "capital_gains_short",
+            "capital_gains_long", "other_income", "total_income", "deduction_80c", "deduction_80d",
+            "deduction_80ccd1b", "deduction_80e", "deduction_80g", "other_deductions", "total_deductions",
+            "taxable_income", "tax_old_regime", "tax_new_regime"
+        };
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", (long) i + 1);
+            row.put("user_id", 1L);
+            row.put("financial_year", "2024-25");
+            for (String column : moneyColumns) {
+                row.put(column, amount(random, 0, 2000000, 2));
+            }
+            row.put("recommended_regime", "New Regime");
+            row.put("tax_saving_tips", "Invest in ELSS under 80C");
+            row.put("calculation_date", NOW);
+            row.put("created_at", NOW);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static BigDecimal amount(Random random, int min, int max, int scale) {
+        return BigDecimal.valueOf(min + random.nextDouble() * (max - min)).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
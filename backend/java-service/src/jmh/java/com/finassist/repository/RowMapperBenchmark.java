@@ -0,0 +1,88 @@
+package com.finassist.repository;
+
+import com.finassist.benchmark.SyntheticJdbcTemplate;
+import com.finassist.benchmark.SyntheticRows;
+import com.finassist.model.BudgetEntry;
+import com.finassist.model.FinancialGoal;
+import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.TaxCalculation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning result rows into models, per repository finder.
+ *
+ * Rows come from an in-memory ResultSet, so the numbers cover the RowMapper and
+ * JdbcTemplate's extraction loop but not the driver or the network.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int rows;
+
+    private PortfolioRepository holdingRepository;
+    private PortfolioRepository transactionRepository;
+    private BudgetRepository budgetRepository;
+    private GoalRepository goalRepository;
+    private TaxRepository taxRepository;
+
+    @Setup
+    public void setUp() {
+        holdingRepository = new PortfolioRepository(template(SyntheticRows.holdings(rows)));
+        transactionRepository = new PortfolioRepository(template(SyntheticRows.transactions(rows)));
+        budgetRepository = new BudgetRepository(template(SyntheticRows.budgetEntries(rows)));
+        goalRepository = new GoalRepository(template(SyntheticRows.goals(rows)));
+        taxRepository = new TaxRepository(template(SyntheticRows.taxCalculations(rows)));
+    }
+
+    private static SyntheticJdbcTemplate template(List<Map<String, Object>> data) {
+        SyntheticJdbcTemplate template = new SyntheticJdbcTemplate();
+        template.setRows(data);
+        return template;
+    }
+
+    @Benchmark
+    public List<PortfolioHolding> holdings() {
+        return holdingRepository.findHoldingsByUserId(1L);
+    }
+
+    @Benchmark
+    public List<PortfolioTransaction> transactions() {
+        return transactionRepository.findTransactionsByUserId(1L);
+    }
+
+    @Benchmark
+    public List<BudgetEntry> budgetEntries() {
+        return budgetRepository.findByUserId(1L, rows);
+    }
+
+    @Benchmark
+    public List<FinancialGoal> goals() {
+        return goalRepository.findByUserId(1L);
+    }
+
+    @Benchmark
+    public List<TaxCalculation> taxCalculations() {
+        return taxRepository.findByUserId(1L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.finassist.service;
+
+import com.finassist.model.FinancialGoal;
+import com.finassist.repository.GoalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Investment strategy text per timeline bucket, and createGoal with persistence stubbed out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoalServiceBenchmark {
+
+    @Param({"6", "24", "120"})
+    private int months;
+
+    @Param({"conservative", "aggressive"})
+    private String riskProfile;
+
+    private GoalService goalService;
+    private FinancialGoal goal;
+
+    @Setup
+    public void setUp() {
+        goalService = new GoalService(new GoalRepository(null) {
+            @Override
+            public FinancialGoal save(FinancialGoal goal) {
+                return goal;
+            }
+        }, new UserReadCache(false, 1000, 300, new SimpleMeterRegistry()));
+        
+        goal = new FinancialGoal();
+        goal.setUserId(1L);
+        goal.setGoalName("Benchmark goal");
+        goal.setTargetAmount(new BigDecimal("2500000"));
+        goal.setCurrentAmount(new BigDecimal("150000"));
+        goal.setStartDate(LocalDate.now());
+        goal.setTargetDate(LocalDate.now().plusMonths(months).plusDays(1));
+        goal.setMonthsRemaining(months);
+        goal.setRiskProfile(riskProfile);
+    }
+
+    @Benchmark
+    public String generateInvestmentStrategy() {
+        return goalService.generateInvestmentStrategy(goal);
+    }
+
+    @Benchmark
+    public FinancialGoal createGoal() {
+        return goalService.createGoal(goal);
+    }
+}
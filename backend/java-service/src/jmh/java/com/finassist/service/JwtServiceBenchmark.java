@@ -0,0 +1,57 @@
+package com.finassist.service;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing, a full signature check (claims cache disabled) and a cached lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-0123456789";
+    private static final long EXPIRATION = 86_400_000L;
+
+    private JwtService uncached;
+    private JwtService cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = new JwtService(SECRET, EXPIRATION, 0);
+        cached = new JwtService(SECRET, EXPIRATION, 10_000);
+        token = cached.generateToken(42L, "bench@example.com");
+        cached.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return uncached.generateToken(42L, "bench@example.com");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return uncached.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.extractAllClaims(token);
+    }
+}
@@ -0,0 +1,72 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioLot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lot matching on one holding with many open lots: each call buys one lot and sells
+ * one lot's worth, so the book stays at its starting size. Should stay flat as lots grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LotBookBenchmark {
+
+    private static final BigDecimal QUANTITY = new BigDecimal("10");
+    private static final LocalDate START = LocalDate.of(2015, 4, 1);
+
+    @Param({"100", "10000", "100000"})
+    private int lots;
+
+    @Param({"FIFO", "HIFO"})
+    private String method;
+
+    private LotBook book;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        List<PortfolioLot> open = new ArrayList<>(lots);
+        for (nextId = 1; nextId <= lots; nextId++) {
+            open.add(lot(nextId));
+        }
+        book = new LotBook(LotBook.Method.valueOf(method), open);
+    }
+
+    @Benchmark
+    public BigDecimal buyThenSell() {
+        book.add(lot(nextId++));
+        PortfolioLot matched = book.next();
+        book.consume(matched, matched.getRemainingQuantity());
+        return book.openQuantity();
+    }
+
+    private static PortfolioLot lot(long id) {
+        PortfolioLot lot = new PortfolioLot();
+        lot.setId(id);
+        lot.setAcquiredDate(START.plusDays(id / 4));
+        lot.setQuantity(QUANTITY);
+        lot.setRemainingQuantity(QUANTITY);
+        lot.setUnitCost(BigDecimal.valueOf(100 + id % 97));
+        return lot;
+    }
+}
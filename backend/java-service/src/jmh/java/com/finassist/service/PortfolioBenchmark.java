@@ -0,0 +1,115 @@
+package com.finassist.service;
+
+import com.finassist.benchmark.SyntheticJdbcTemplate;
+import com.finassist.benchmark.SyntheticRows;
+import com.finassist.dto.PortfolioSummary;
+import com.finassist.model.PortfolioHolding;
+import com.finassist.repository.PortfolioRepository;
+import com.finassist.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * P&L recalculation and portfolio aggregation for one user, persistence stubbed out.
+ *
+ * reprice alternates between two price maps so every holding really changes on
+ * every call instead of hitting the unchanged-price short cut.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int holdings;
+
+    private List<PortfolioHolding> userHoldings;
+    private PortfolioService portfolioService;
+    private PortfolioAggregate aggregate;
+    private Map<String, BigDecimal> pricesUp;
+    private Map<String, BigDecimal> pricesDown;
+    private boolean up;
+    private long[] quantityUnits;
+    private long[] pricePaise;
+    private long[] investedPaise;
+
+    @Setup
+    public void setUp() {
+        SyntheticJdbcTemplate template = new SyntheticJdbcTemplate();
+        template.setRows(SyntheticRows.holdings(holdings));
+        userHoldings = new PortfolioRepository(template).findHoldingsByUserId(1L);
+        
+        PortfolioRepository repository = new PortfolioRepository(template) {
+            @Override
+            public List<PortfolioHolding> findHoldingsByUserId(Long userId) {
+                return userHoldings;
+            }
+        };
+        portfolioService = new PortfolioService(repository, new PortfolioAggregateCache(repository, 1000), new UserReadCache(false, 1000, 300, new SimpleMeterRegistry()), null, 50, 200, 5, 5000);
+        portfolioService.getSummary(1L);
+        aggregate = new PortfolioAggregate(userHoldings);
+        
+        pricesUp = new HashMap<>();
+        pricesDown = new HashMap<>();
+        quantityUnits = new long[holdings];
+        pricePaise = new long[holdings];
+        investedPaise = new long[holdings];
+        for (int i = 0; i < holdings; i++) {
+            PortfolioHolding holding = userHoldings.get(i);
+            pricesUp.put(holding.getSymbol(), holding.getCurrentPrice().add(BigDecimal.ONE));
+            pricesDown.put(holding.getSymbol(), holding.getCurrentPrice());
+            quantityUnits[i] = Money.toQuantityUnits(holding.getQuantity());
+            pricePaise[i] = Money.toPaise(holding.getCurrentPrice());
+            investedPaise[i] = Money.toPaise(holding.getTotalInvested());
+        }
+    }
+
+    @Benchmark
+    public int reprice() {
+        up = !up;
+        return portfolioService.updateAllHoldingPrices(1L, up ? pricesUp : pricesDown);
+    }
+
+    @Benchmark
+    public void fixedPointPnl(Blackhole blackhole) {
+        for (int i = 0; i < quantityUnits.length; i++) {
+            blackhole.consume(Money.pnl(quantityUnits[i], pricePaise[i], investedPaise[i]));
+            blackhole.consume(Money.pnlBasisPoints(quantityUnits[i], pricePaise[i], investedPaise[i]));
+        }
+    }
+
+    @Benchmark
+    public PortfolioAggregate buildAggregate() {
+        return new PortfolioAggregate(userHoldings);
+    }
+
+    @Benchmark
+    public PortfolioSummary summary() {
+        return aggregate.toSummary(1L, 5);
+    }
+
+    @Benchmark
+    public PortfolioSummary cachedSummary() {
+        return portfolioService.getSummary(1L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.finassist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finassist.model.TaxCalculation;
+import com.finassist.repository.TaxRepository;
+import com.finassist.util.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slab computation on its own and the full calculateTax path with persistence stubbed out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaxServiceBenchmark {
+
+    // Below the rebate, middle slabs, and into the surcharge bands
+    @Param({"650000", "1850000", "7500000"})
+    private String income;
+
+    private TaxSlabTable oldRegime;
+    private TaxSlabTable newRegime;
+    private TaxService taxService;
+    private BigDecimal incomeAmount;
+    private long incomePaise;
+    private TaxCalculation calculation;
+
+    @Setup
+    public void setUp() {
+        TaxSlabRegistry registry = new TaxSlabRegistry(new ObjectMapper());
+        oldRegime = registry.oldRegime("2024-25");
+        newRegime = registry.newRegime("2024-25");
+        taxService = new TaxService(new TaxRepository(null) {
+            @Override
+            public TaxCalculation save(TaxCalculation tax) {
+                return tax;
+            }
+        }, registry, new UserReadCache(false, 1000, 300, new SimpleMeterRegistry()),
+            null); // capital gains are set below, so realised gains are never looked up
+        
+        incomeAmount = new BigDecimal(income);
+        incomePaise = Money.toPaise(incomeAmount);
+        
+        calculation = new TaxCalculation();
+        calculation.setUserId(1L);
+        calculation.setFinancialYear("2024-25");
+        calculation.setSalaryIncome(incomeAmount);
+        calculation.setHousePropertyIncome(BigDecimal.ZERO);
+        calculation.setBusinessIncome(BigDecimal.ZERO);
+        calculation.setCapitalGainsShort(new BigDecimal("25000"));
+        calculation.setCapitalGainsLong(new BigDecimal("80000"));
+        calculation.setOtherIncome(new BigDecimal("12000"));
+        calculation.setDeduction80c(new BigDecimal("150000"));
+        calculation.setDeduction80d(new BigDecimal("25000"));
+        calculation.setDeduction80ccd1b(new BigDecimal("50000"));
+        calculation.setDeduction80e(BigDecimal.ZERO);
+        calculation.setDeduction80g(BigDecimal.ZERO);
+        calculation.setOtherDeductions(BigDecimal.ZERO);
+    }
+
+    @Benchmark
+    public long slabTaxPaise() {
+        return oldRegime.taxPaise(incomePaise) + newRegime.taxPaise(incomePaise);
+    }
+
+    @Benchmark
+    public BigDecimal slabTax() {
+        return oldRegime.tax(incomeAmount).add(newRegime.tax(incomeAmount));
+    }
+
+    @Benchmark
+    public TaxCalculation calculateTax() {
+        return taxService.calculateTax(calculation);
+    }
+}
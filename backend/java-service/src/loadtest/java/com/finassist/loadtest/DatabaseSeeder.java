@@ -0,0 +1,158 @@
+package com.finassist.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Recreates the schema from database/schema.sql and fills it with synthetic users and their data.
+ *
+ * Rows are generated server-side with generate_series, one INSERT ... SELECT per table
+ * per batch of users, so tens of millions of rows never cross the wire. Every seeded
+ * user is lt_user_&lt;n&gt; / lt_user_&lt;n&gt;@loadtest.local with the same password.
+ */
+public class DatabaseSeeder {
+
+    private static final int SYMBOL_POOL = 500;
+
+    private static final String BUDGET_SQL =
+        "INSERT INTO budget_entries (user_id, category, amount, type, entry_date, description) " +
+        "SELECT u.id, c.category, " +
+        "       CASE WHEN c.category = 'Salary' THEN round((50000 + random() * 150000)::numeric, 2) " +
+        "            ELSE round((50 + random() * 20000)::numeric, 2) END, " +
+        "       CASE WHEN c.category = 'Salary' THEN 'income' ELSE 'expense' END, " +
+        "       CURRENT_DATE - (n % 730), c.category || ' payment ' || n " +
+        "FROM users u CROSS JOIN generate_series(1, ?) n " +
+        "CROSS JOIN LATERAL (SELECT (ARRAY['Food','Rent','Transport','Shopping','Utilities'," +
+        "                              'Entertainment','Healthcare','Salary'])[1 + n % 8] AS category) c " +
+        "WHERE u.id BETWEEN ? AND ?";
+
+    private static final String ROLLUP_SQL =
+        "INSERT INTO budget_monthly_rollups (user_id, month, category, type, total_amount, entry_count) " +
+        "SELECT user_id, date_trunc('month', entry_date)::date, category, type, SUM(amount), COUNT(*) " +
+        "FROM budget_entries WHERE user_id BETWEEN ? AND ? GROUP BY 1, 2, 3, 4";
+
+    private static final String HOLDING_SQL =
+        "INSERT INTO portfolio_holdings (user_id, asset_type, symbol, name, exchange, quantity, " +
+        "       average_buy_price, total_invested, current_price, current_value, unrealized_pnl, " +
+        "       unrealized_pnl_percentage, broker, last_price_update) " +
+        "SELECT user_id, asset_type, symbol, symbol || ' Ltd', 'NSE', quantity, buy, " +
+        "       round(quantity * buy, 2), cur, round(quantity * cur, 2), " +
+        "       round(quantity * cur, 2) - round(quantity * buy, 2), round((cur - buy) / buy * 100, 2), " +
+        "       'Zerodha', CURRENT_TIMESTAMP " +
+        "FROM (SELECT user_id, asset_type, symbol, quantity, buy, round((buy * (0.7 + random() * 0.6))::numeric, 2) AS cur " +
+        "      FROM (SELECT u.id AS user_id, " +
+        "                   (ARRAY['stock','mutual_fund','crypto','gold','etf'])[1 + n % 5] AS asset_type, " +
+        "                   'SYM' || ((u.id * 31 + n) % " + SYMBOL_POOL + ") AS symbol, " +
+        "                   round((1 + random() * 499)::numeric, 4) AS quantity, " +
+        "                   round((10 + random() * 4990)::numeric, 2) AS buy " +
+        "            FROM users u CROSS JOIN generate_series(1, ?) n WHERE u.id BETWEEN ? AND ?) raw) priced";
+
+    private static final String TRANSACTION_SQL =
+        "INSERT INTO portfolio_transactions (user_id, holding_id, transaction_type, asset_type, symbol, " +
+        "       quantity, price, total_amount, fees, transaction_date, broker, created_at) " +
+        "SELECT user_id, id, 'buy', asset_type, symbol, quantity, average_buy_price, total_invested, 20, " +
+        "       CURRENT_DATE - (id % 730), broker, created_at " +
+        "FROM portfolio_holdings WHERE user_id BETWEEN ? AND ?";
+
+    private static final String GOAL_SQL =
+        "INSERT INTO financial_goals (user_id, goal_name, goal_type, target_amount, current_amount, " +
+        "       target_date, months_remaining, monthly_saving_required, investment_strategy, risk_profile, priority) " +
+        "SELECT u.id, 'Goal ' || n, (ARRAY['retirement','house','car','education','emergency_fund'])[1 + n % 5], " +
+        "       500000 * n, round((random() * 400000)::numeric, 2), CURRENT_DATE + 180 * n, 6 * n, " +
+        "       round((500000 * n / (6.0 * n))::numeric, 2), 'Balanced', " +
+        "       (ARRAY['conservative','moderate','aggressive'])[1 + n % 3], n % 5 " +
+        "FROM users u CROSS JOIN generate_series(1, ?) n WHERE u.id BETWEEN ? AND ?";
+
+    private static final String TAX_SQL =
+        "INSERT INTO tax_calculations (user_id, financial_year, salary_income, other_income, " +
+        "       deduction_80c, deduction_80d, taxable_income, tax_old_regime, tax_new_regime, recommended_regime) " +
+        "SELECT u.id, (ARRAY['2025-26','2024-25','2023-24'])[1 + (y - 1) % 3], salary, 10000, 150000, 25000, " +
+        "       salary - 165000, round(salary * 0.12, 2), round(salary * 0.10, 2), 'New Regime' " +
+        "FROM users u CROSS JOIN generate_series(1, ?) y " +
+        "CROSS JOIN LATERAL (SELECT round((400000 + random() * 3000000)::numeric, 2) AS salary) s " +
+        "WHERE u.id BETWEEN ? AND ?";
+
+    private final LoadTestConfig config;
+
+    public DatabaseSeeder(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public void seed(String jdbcUrl, String username, String password) throws SQLException, IOException {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password)) {
+            connection.setAutoCommit(true);
+            applySchema(connection);
+            long[] ids = insertUsers(connection);
+            
+            long started = System.nanoTime();
+            for (long from = ids[0]; from <= ids[1]; from += config.seedBatchUsers) {
+                long to = Math.min(ids[1], from + config.seedBatchUsers - 1);
+                insertRange(connection, BUDGET_SQL, config.budgetEntriesPerUser, from, to);
+                insertRange(connection, ROLLUP_SQL, -1, from, to);
+                insertRange(connection, HOLDING_SQL, Math.min(config.holdingsPerUser, SYMBOL_POOL), from, to);
+                insertRange(connection, TRANSACTION_SQL, -1, from, to);
+                insertRange(connection, GOAL_SQL, config.goalsPerUser, from, to);
+                insertRange(connection, TAX_SQL, config.taxYearsPerUser, from, to);
+                System.out.printf("Seeded users %d-%d of %d (%.0fs)%n",
+                    from - ids[0] + 1, to - ids[0] + 1, config.users, (System.nanoTime() - started) / 1e9);
+            }
+            
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE");
+            }
+        }
+    }
+
+    private void applySchema(Connection connection) throws SQLException, IOException {
+        // The PostgreSQL driver splits the script itself and understands the $$-quoted trigger function
+        String script = Files.readString(Path.of(config.schemaFile), StandardCharsets.UTF_8);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(script);
+        }
+    }
+
+    private long[] insertUsers(Connection connection) throws SQLException {
+        String hash = new BCryptPasswordEncoder(config.bcryptStrength).encode(config.password);
+        String sql = "INSERT INTO users (username, email, password_hash, full_name, annual_income) " +
+                     "SELECT 'lt_user_' || n, 'lt_user_' || n || '@loadtest.local', ?, 'Load Test ' || n, " +
+                     "       300000 + (n % 50) * 50000 " +
+                     "FROM generate_series(1, ?) n";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, hash);
+            ps.setInt(2, config.users);
+            ps.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                 "SELECT MIN(id), MAX(id) FROM users WHERE username LIKE 'lt\\_user\\_%'")) {
+            rs.next();
+            return new long[] {rs.getLong(1), rs.getLong(2)};
+        }
+    }
+
+    private static void insertRange(Connection connection, String sql, int perUser, long from, long to)
+            throws SQLException {
+        if (perUser == 0) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (perUser > 0) {
+                ps.setInt(index++, perUser);
+            }
+            ps.setLong(index++, from);
+            ps.setLong(index, to);
+            ps.executeUpdate();
+        }
+    }
+}
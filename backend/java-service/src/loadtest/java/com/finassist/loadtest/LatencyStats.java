@@ -0,0 +1,73 @@
+package com.finassist.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and status codes for one endpoint, recorded by a single worker and merged at the end.
+ *
+ * Every sample is kept, so percentiles are exact; a 60s run at 10k req/s is ~5MB.
+ */
+class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    /** status is the HTTP code, or -1 when the request failed before a response */
+    void record(long nanos, int status) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    void merge(LatencyStats other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, count + other.count);
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+    }
+
+    int count() {
+        return count;
+    }
+
+    Map<String, Object> summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long errors = statuses.entrySet().stream()
+            .filter(e -> e.getKey() < 200 || e.getKey() >= 400)
+            .mapToLong(Map.Entry::getValue).sum();
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / seconds));
+        summary.put("meanMs", round(count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0) / 1e6));
+        summary.put("p50Ms", percentile(sorted, 50));
+        summary.put("p90Ms", percentile(sorted, 90));
+        summary.put("p99Ms", percentile(sorted, 99));
+        summary.put("p999Ms", percentile(sorted, 99.9));
+        summary.put("maxMs", count == 0 ? 0 : round(sorted[count - 1] / 1e6));
+        summary.put("statuses", statuses);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.finassist.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Harness settings, read from -Dloadtest.* system properties.
+ *
+ * Properties named loadtest.app.&lt;key&gt; are passed to the booted application
+ * as --&lt;key&gt;=value, e.g. -Dloadtest.app.app.threads.virtual.enabled=true.
+ */
+public class LoadTestConfig {
+
+    private static final String APP_PREFIX = "loadtest.app.";
+
+    // Database: blank url starts an embedded PostgreSQL
+    final String dbUrl = string("loadtest.db.url", "");
+    final String dbUsername = string("loadtest.db.username", "postgres");
+    final String dbPassword = string("loadtest.db.password", "postgres");
+    final String dbDataDir = string("loadtest.db.data-dir", "");
+    final String schemaFile = string("loadtest.schema", "../../database/schema.sql");
+    final boolean seed = bool("loadtest.seed", true);
+
+    // Seed volumes (100k users x 500 entries = 50M budget entries, x 50 = 5M holdings)
+    final int users = integer("loadtest.seed.users", 1000);
+    final int budgetEntriesPerUser = integer("loadtest.seed.budget-entries-per-user", 500);
+    final int holdingsPerUser = integer("loadtest.seed.holdings-per-user", 50);
+    final int goalsPerUser = integer("loadtest.seed.goals-per-user", 3);
+    final int taxYearsPerUser = integer("loadtest.seed.tax-years-per-user", 2);
+    final int seedBatchUsers = integer("loadtest.seed.batch-users", 500);
+    final String password = string("loadtest.seed.password", "loadtest-password");
+    final int bcryptStrength = integer("loadtest.seed.bcrypt-strength", 10);
+
+    // Target: blank url boots the application in this JVM
+    final String targetUrl = string("loadtest.target-url", "");
+
+    // Traffic
+    final int sessions = integer("loadtest.sessions", 200);
+    final int concurrency = integer("loadtest.concurrency", 32);
+    final int warmupSeconds = integer("loadtest.warmup-seconds", 10);
+    final int durationSeconds = integer("loadtest.duration-seconds", 60);
+    final String mix = string("loadtest.mix", TrafficMix.DEFAULT_MIX);
+    final long randomSeed = Long.getLong("loadtest.random-seed", 42L);
+    final String reportFile = string("loadtest.report", "target/loadtest-report.json");
+
+    // Scenario: "mix" drives the traffic mix, "trade-stress" checks concurrent trades for lost updates
+    final String scenario = string("loadtest.scenario", "mix");
+    final int stressUsers = integer("loadtest.stress.users", 4);
+    final int stressTradesPerWorker = integer("loadtest.stress.trades-per-worker", 250);
+
+    List<String> applicationArgs() {
+        List<String> args = new ArrayList<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(APP_PREFIX)) {
+                args.add("--" + name.substring(APP_PREFIX.length()) + "=" + System.getProperty(name));
+            }
+        }
+        return args;
+    }
+
+    private static String string(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue).trim();
+    }
+
+    private static int integer(String name, int defaultValue) {
+        return Integer.getInteger(name, defaultValue);
+    }
+
+    private static boolean bool(String name, boolean defaultValue) {
+        return Boolean.parseBoolean(System.getProperty(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,260 @@
+package com.finassist.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.finassist.FinancialAssistantApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * End-to-end load test: seed PostgreSQL, boot the app, log users in, drive a weighted
+ * request mix from loadtest.concurrency closed-loop workers, report per-endpoint
+ * throughput and latency percentiles.
+ *
+ * Comparing thread models: run once as-is and once with -Pjava21 and
+ * -Dloadtest.app.app.threads.virtual.enabled=true against the same seeded data
+ * (-Dloadtest.db.data-dir=... -Dloadtest.seed=false), then diff the two reports.
+ *
+ * -Dloadtest.scenario=trade-stress runs {@link TradeStress} instead of the mix.
+ */
+public class LoadTestRunner {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    public LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        EmbeddedPostgres embedded = null;
+        ConfigurableApplicationContext app = null;
+        try {
+            String jdbcUrl = config.dbUrl;
+            if (jdbcUrl.isEmpty()) {
+                embedded = startEmbedded(config);
+                jdbcUrl = embedded.getJdbcUrl("postgres", "postgres");
+            }
+            if (config.seed) {
+                new DatabaseSeeder(config).seed(jdbcUrl, config.dbUsername, config.dbPassword);
+            }
+            
+            String baseUrl = config.targetUrl;
+            if (baseUrl.isEmpty()) {
+                app = startApplication(config, jdbcUrl);
+                baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            }
+            
+            new LoadTestRunner(config).run(baseUrl, jdbcUrl);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static EmbeddedPostgres startEmbedded(LoadTestConfig config) throws IOException {
+        EmbeddedPostgres.Builder builder = EmbeddedPostgres.builder()
+            .setServerConfig("max_connections", "300")
+            .setServerConfig("synchronous_commit", "off");
+        if (!config.dbDataDir.isEmpty()) {
+            builder.setDataDirectory(Path.of(config.dbDataDir)).setCleanDataDirectory(false);
+        }
+        return builder.start();
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config, String jdbcUrl) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> args = new ArrayList<>(List.of(
+            "--server.port=0",
+            "--management.server.port=0",
+            "--spring.datasource.url=" + jdbcUrl,
+            "--spring.datasource.username=" + config.dbUsername,
+            "--spring.datasource.password=" + config.dbPassword,
+            "--market.prices.enabled=false"));
+        args.addAll(config.applicationArgs());
+        return SpringApplication.run(FinancialAssistantApplication.class, args.toArray(new String[0]));
+    }
+
+    void run(String baseUrl, String jdbcUrl) throws Exception {
+        TrafficMix mix = new TrafficMix(config.mix);
+        ExecutorService workers = Executors.newFixedThreadPool(config.concurrency);
+        try {
+            List<TrafficMix.Session> sessions = login(baseUrl, workers);
+            if ("trade-stress".equals(config.scenario)) {
+                new TradeStress(config, client).run(baseUrl, jdbcUrl, sessions, workers);
+                return;
+            }
+            System.out.printf("Logged in %d sessions; warming up %ds, measuring %ds with %d workers%n",
+                sessions.size(), config.warmupSeconds, config.durationSeconds, config.concurrency);
+            
+            long measureFrom = System.nanoTime() + Duration.ofSeconds(config.warmupSeconds).toNanos();
+            long measureTo = measureFrom + Duration.ofSeconds(config.durationSeconds).toNanos();
+            List<Future<LatencyStats[]>> results = new ArrayList<>();
+            for (int i = 0; i < config.concurrency; i++) {
+                SplittableRandom random = new SplittableRandom(config.randomSeed + i);
+                results.add(workers.submit(() -> drive(baseUrl, mix, sessions, random, measureFrom, measureTo)));
+            }
+            
+            Map<String, LatencyStats> byEndpoint = new LinkedHashMap<>();
+            LatencyStats total = new LatencyStats();
+            for (Future<LatencyStats[]> result : results) {
+                LatencyStats[] stats = result.get();
+                for (int i = 0; i < stats.length; i++) {
+                    byEndpoint.computeIfAbsent(mix.name(i), name -> new LatencyStats()).merge(stats[i]);
+                    total.merge(stats[i]);
+                }
+            }
+            report(byEndpoint, total);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private LatencyStats[] drive(String baseUrl, TrafficMix mix, List<TrafficMix.Session> sessions,
+                                 SplittableRandom random, long measureFrom, long measureTo) {
+        LatencyStats[] stats = new LatencyStats[mix.size()];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new LatencyStats();
+        }
+        
+        long now;
+        while ((now = System.nanoTime()) < measureTo && !Thread.currentThread().isInterrupted()) {
+            int endpoint = mix.pick(random);
+            TrafficMix.Session session = sessions.get(random.nextInt(sessions.size()));
+            int status;
+            try {
+                status = client.send(mix.request(endpoint, baseUrl, session, random, config.password),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (now >= measureFrom) {
+                stats[endpoint].record(System.nanoTime() - now, status);
+            }
+        }
+        return stats;
+    }
+
+    /** Log in a random sample of seeded users and note their goal ids */
+    private List<TrafficMix.Session> login(String baseUrl, ExecutorService executor) throws Exception {
+        SplittableRandom random = new SplittableRandom(config.randomSeed);
+        Set<Integer> userNumbers = new LinkedHashSet<>();
+        while (userNumbers.size() < Math.min(config.sessions, config.users)) {
+            userNumbers.add(1 + random.nextInt(config.users));
+        }
+        
+        List<Future<TrafficMix.Session>> futures = new ArrayList<>();
+        for (int n : userNumbers) {
+            String email = "lt_user_" + n + "@loadtest.local";
+            futures.add(executor.submit(() -> login(baseUrl, email)));
+        }
+        List<TrafficMix.Session> sessions = new ArrayList<>();
+        for (Future<TrafficMix.Session> future : futures) {
+            sessions.add(future.get());
+        }
+        return sessions;
+    }
+
+    private TrafficMix.Session login(String baseUrl, String email) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response = client.send(
+                TrafficMix.post(baseUrl + "/api/auth/login", null, Map.of("email", email, "password", config.password)),
+                HttpResponse.BodyHandlers.ofString());
+            // The hashing pool sheds load with 429 while many sessions log in at once
+            if (response.statusCode() == 429 && attempt < 20) {
+                Thread.sleep(100L * attempt);
+                continue;
+            }
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + email + ": HTTP " + response.statusCode());
+            }
+            JsonNode auth = JSON.readTree(response.body());
+            TrafficMix.Session session = new TrafficMix.Session(
+                auth.path("userId").asLong(), email, auth.path("token").asText(), List.of());
+            
+            HttpResponse<String> goals = client.send(
+                TrafficMix.get(baseUrl + "/api/goals/user/" + session.userId, session),
+                HttpResponse.BodyHandlers.ofString());
+            List<Long> goalIds = new ArrayList<>();
+            if (goals.statusCode() == 200) {
+                JSON.readTree(goals.body()).forEach(goal -> goalIds.add(goal.path("id").asLong()));
+            }
+            return new TrafficMix.Session(session.userId, email, session.token, goalIds);
+        }
+    }
+
+    private void report(Map<String, LatencyStats> byEndpoint, LatencyStats total) throws IOException {
+        double seconds = config.durationSeconds;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-30s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Map.Entry<String, LatencyStats> entry : byEndpoint.entrySet()) {
+            Map<String, Object> summary = entry.getValue().summarize(seconds);
+            endpoints.put(entry.getKey(), summary);
+            printRow(entry.getKey(), summary);
+        }
+        Map<String, Object> overall = total.summarize(seconds);
+        printRow("TOTAL", overall);
+        
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("concurrency", config.concurrency);
+        settings.put("warmupSeconds", config.warmupSeconds);
+        settings.put("durationSeconds", config.durationSeconds);
+        settings.put("sessions", config.sessions);
+        settings.put("mix", config.mix);
+        settings.put("users", config.users);
+        settings.put("budgetEntriesPerUser", config.budgetEntriesPerUser);
+        settings.put("holdingsPerUser", config.holdingsPerUser);
+        settings.put("applicationArgs", config.applicationArgs());
+        
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("total", overall);
+        report.put("endpoints", endpoints);
+        File file = new File(config.reportFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        JSON.writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+
+    private static void printRow(String name, Map<String, Object> summary) {
+        System.out.printf("%-30s %9s %9s %9s %9s %9s %9s %9s %7s%n", name,
+            summary.get("requests"), summary.get("throughputPerSecond"), summary.get("p50Ms"),
+            summary.get("p90Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"),
+            summary.get("errors"));
+    }
+}
@@ -0,0 +1,225 @@
+package com.finassist.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lost-update check for portfolio trades: loadtest.concurrency workers fire buys and sells
+ * of one symbol for a handful of users as fast as they can, then each user's holding is
+ * compared with the trades the API accepted, with the transaction ledger and with the
+ * quantity left in its open tax lots.
+ *
+ * Every trade is at one fixed price, so total_invested must also equal quantity x price.
+ * Any mismatch fails the run. Select with -Dloadtest.scenario=trade-stress.
+ */
+class TradeStress {
+
+    static final String SYMBOL = "LT_STRESS";
+    private static final String ASSET_TYPE = "stock";
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+
+    TradeStress(LoadTestConfig config, HttpClient client) {
+        this.config = config;
+        this.client = client;
+    }
+
+    void run(String baseUrl, String jdbcUrl, List<TrafficMix.Session> sessions, ExecutorService workers) throws Exception {
+        List<TrafficMix.Session> traders = sessions.subList(0, Math.min(config.stressUsers, sessions.size()));
+        clear(jdbcUrl, traders);
+        System.out.printf("Trade stress: %d workers x %d trades on %s for %d users%n",
+            config.concurrency, config.stressTradesPerWorker, SYMBOL, traders.size());
+
+        // Net quantity and count of accepted trades per trader, as the clients saw them
+        AtomicLongArray acceptedQuantity = new AtomicLongArray(traders.size());
+        AtomicLongArray acceptedTrades = new AtomicLongArray(traders.size());
+        long started = System.nanoTime();
+        List<Future<LatencyStats[]>> results = new ArrayList<>();
+        for (int i = 0; i < config.concurrency; i++) {
+            SplittableRandom random = new SplittableRandom(config.randomSeed + i);
+            results.add(workers.submit(() -> trade(baseUrl, traders, random, acceptedQuantity, acceptedTrades)));
+        }
+        LatencyStats buys = new LatencyStats();
+        LatencyStats sells = new LatencyStats();
+        for (Future<LatencyStats[]> result : results) {
+            LatencyStats[] stats = result.get();
+            buys.merge(stats[0]);
+            sells.merge(stats[1]);
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<Map<String, Object>> users = new ArrayList<>();
+        int mismatches = 0;
+        System.out.printf("%n%-10s %10s %10s %10s %10s %14s %10s%n", "user", "accepted", "holding", "ledger", "lots",
+            "invested", "status");
+        for (int i = 0; i < traders.size(); i++) {
+            Map<String, Object> check = verify(jdbcUrl, traders.get(i).userId, acceptedQuantity.get(i), acceptedTrades.get(i));
+            if (!Boolean.TRUE.equals(check.get("consistent"))) {
+                mismatches++;
+            }
+            users.add(check);
+            System.out.printf("%-10s %10s %10s %10s %10s %14s %10s%n", check.get("userId"), check.get("acceptedQuantity"),
+                check.get("holdingQuantity"), check.get("ledgerQuantity"), check.get("lotQuantity"), check.get("totalInvested"),
+                Boolean.TRUE.equals(check.get("consistent")) ? "ok" : "LOST");
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", "trade-stress");
+        report.put("concurrency", config.concurrency);
+        report.put("tradesPerWorker", config.stressTradesPerWorker);
+        report.put("buys", buys.summarize(seconds));
+        report.put("sells", sells.summarize(seconds));
+        report.put("users", users);
+        report.put("mismatches", mismatches);
+        File file = new File(config.reportFile);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        JSON.writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+
+        if (mismatches > 0) {
+            throw new IllegalStateException(mismatches + " of " + traders.size() + " holdings lost updates");
+        }
+    }
+
+    private LatencyStats[] trade(String baseUrl, List<TrafficMix.Session> traders, SplittableRandom random,
+                                 AtomicLongArray acceptedQuantity, AtomicLongArray acceptedTrades) {
+        LatencyStats[] stats = {new LatencyStats(), new LatencyStats()};
+        for (int n = 0; n < config.stressTradesPerWorker && !Thread.currentThread().isInterrupted(); n++) {
+            int trader = random.nextInt(traders.size());
+            // Lean towards buys so sells usually have something to sell
+            boolean buy = random.nextInt(10) < 6;
+            int quantity = 1 + random.nextInt(3);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("transactionType", buy ? "buy" : "sell");
+            body.put("assetType", ASSET_TYPE);
+            body.put("symbol", SYMBOL);
+            body.put("quantity", quantity);
+            body.put("price", PRICE);
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(TrafficMix.post(baseUrl + "/api/portfolio/transaction", traders.get(trader), body),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            stats[buy ? 0 : 1].record(System.nanoTime() - start, status);
+            // 400 is an oversell the API refused; it must not have touched the holding
+            if (status == 200) {
+                acceptedQuantity.addAndGet(trader, buy ? quantity : -quantity);
+                acceptedTrades.incrementAndGet(trader);
+            }
+        }
+        return stats;
+    }
+
+    private void clear(String jdbcUrl, List<TrafficMix.Session> traders) throws SQLException {
+        try (Connection connection = connect(jdbcUrl)) {
+            for (String table : List.of("portfolio_realized_gains", "portfolio_lots",
+                    "portfolio_transactions", "portfolio_holdings")) {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "DELETE FROM " + table + " WHERE user_id = ? AND symbol = ?")) {
+                    for (TrafficMix.Session trader : traders) {
+                        ps.setLong(1, trader.userId);
+                        ps.setString(2, SYMBOL);
+                        ps.executeUpdate();
+                    }
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> verify(String jdbcUrl, long userId, long accepted, long trades) throws SQLException {
+        BigDecimal holding = BigDecimal.ZERO;
+        BigDecimal invested = BigDecimal.ZERO;
+        BigDecimal ledger;
+        long ledgerTrades;
+        BigDecimal lots;
+        try (Connection connection = connect(jdbcUrl)) {
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT quantity, total_invested FROM portfolio_holdings " +
+                    "WHERE user_id = ? AND symbol = ? AND asset_type = ?")) {
+                ps.setLong(1, userId);
+                ps.setString(2, SYMBOL);
+                ps.setString(3, ASSET_TYPE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        holding = rs.getBigDecimal(1);
+                        invested = rs.getBigDecimal(2);
+                    }
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'buy' THEN quantity ELSE -quantity END), 0), " +
+                    "COUNT(*) FROM portfolio_transactions WHERE user_id = ? AND symbol = ?")) {
+                ps.setLong(1, userId);
+                ps.setString(2, SYMBOL);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    ledger = rs.getBigDecimal(1);
+                    ledgerTrades = rs.getLong(2);
+                }
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "SELECT COALESCE(SUM(remaining_quantity), 0) FROM portfolio_lots WHERE user_id = ? AND symbol = ?")) {
+                ps.setLong(1, userId);
+                ps.setString(2, SYMBOL);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    lots = rs.getBigDecimal(1);
+                }
+            }
+        }
+
+        BigDecimal expected = BigDecimal.valueOf(accepted);
+        boolean consistent = holding.compareTo(expected) == 0
+            && ledger.compareTo(expected) == 0
+            && ledgerTrades == trades
+            && lots.compareTo(expected) == 0
+            && invested.compareTo(expected.multiply(PRICE)) == 0;
+
+        Map<String, Object> check = new LinkedHashMap<>();
+        check.put("userId", userId);
+        check.put("acceptedQuantity", accepted);
+        check.put("acceptedTrades", trades);
+        check.put("holdingQuantity", holding.stripTrailingZeros().toPlainString());
+        check.put("ledgerQuantity", ledger.stripTrailingZeros().toPlainString());
+        check.put("ledgerTrades", ledgerTrades);
+        check.put("lotQuantity", lots.stripTrailingZeros().toPlainString());
+        check.put("totalInvested", invested.toPlainString());
+        check.put("consistent", consistent);
+        return check;
+    }
+
+    private Connection connect(String jdbcUrl) throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, config.dbUsername, config.dbPassword);
+    }
+}
@@ -0,0 +1,208 @@
+package com.finassist.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * The endpoints the harness can call and how often, parsed from "name:weight,name:weight".
+ *
+ * Login-storm run: -Dloadtest.mix=auth.login:1 with a high loadtest.concurrency;
+ * the report counts 429 responses separately from successes.
+ */
+public class TrafficMix {
+
+    static final String DEFAULT_MIX =
+        "budget.entries.page:15,budget.summary:10,budget.add:5,budget.by-type:3," +
+        "portfolio.summary:15,portfolio.holdings:10,portfolio.transactions.page:5,portfolio.holding.upsert:3," +
+        "goals.list:8,goals.progress:3,tax.history:5,tax.calculate:4,tax.what-if:1,auth.login:1";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /** One logged-in user the workers act as */
+    static class Session {
+        final long userId;
+        final String email;
+        final String token;
+        final List<Long> goalIds;
+
+        Session(long userId, String email, String token, List<Long> goalIds) {
+            this.userId = userId;
+            this.email = email;
+            this.token = token;
+            this.goalIds = goalIds;
+        }
+    }
+
+    @FunctionalInterface
+    interface RequestFactory {
+        HttpRequest create(String baseUrl, Session session, SplittableRandom random, String password);
+    }
+
+    private static final Map<String, RequestFactory> ENDPOINTS = new LinkedHashMap<>();
+
+    static {
+        ENDPOINTS.put("auth.login", (base, s, r, password) ->
+            post(base + "/api/auth/login", null, Map.of("email", s.email, "password", password)));
+        
+        ENDPOINTS.put("budget.entries.page", (base, s, r, p) ->
+            get(base + "/api/budget/entries/" + s.userId + "/page?limit=50", s));
+        ENDPOINTS.put("budget.summary", (base, s, r, p) ->
+            get(base + "/api/budget/summary/" + s.userId, s));
+        ENDPOINTS.put("budget.by-type", (base, s, r, p) ->
+            get(base + "/api/budget/entries/" + s.userId + "/page?type=income&limit=50", s));
+        ENDPOINTS.put("budget.add", (base, s, r, p) ->
+            post(base + "/api/budget/entry", s, Map.of(
+                "category", "Food",
+                "amount", 100 + r.nextInt(5000),
+                "type", "expense",
+                "description", "Load test entry",
+                "entryDate", LocalDate.now().minusDays(r.nextInt(60)).toString())));
+        
+        ENDPOINTS.put("portfolio.summary", (base, s, r, p) ->
+            get(base + "/api/portfolio/summary/" + s.userId, s));
+        ENDPOINTS.put("portfolio.holdings", (base, s, r, p) ->
+            get(base + "/api/portfolio/holdings/" + s.userId, s));
+        ENDPOINTS.put("portfolio.transactions.page", (base, s, r, p) ->
+            get(base + "/api/portfolio/transactions/" + s.userId + "/page?limit=50", s));
+        ENDPOINTS.put("portfolio.holding.upsert", (base, s, r, p) -> {
+            int quantity = 1 + r.nextInt(100);
+            int price = 100 + r.nextInt(2000);
+            return post(base + "/api/portfolio/holding", s, Map.of(
+                "assetType", "stock",
+                "symbol", "LT" + r.nextInt(20),
+                "name", "Load test holding",
+                "quantity", quantity,
+                "averageBuyPrice", price,
+                "totalInvested", quantity * price,
+                "currentPrice", price + r.nextInt(200) - 100));
+        });
+        
+        ENDPOINTS.put("goals.list", (base, s, r, p) ->
+            get(base + "/api/goals/user/" + s.userId, s));
+        ENDPOINTS.put("goals.progress", (base, s, r, p) -> s.goalIds.isEmpty()
+            ? get(base + "/api/goals/user/" + s.userId + "/active", s)
+            : put(base + "/api/goals/" + s.goalIds.get(r.nextInt(s.goalIds.size())) + "/progress", s,
+                  Map.of("amount", 1 + r.nextInt(1000))));
+        
+        ENDPOINTS.put("tax.history", (base, s, r, p) ->
+            get(base + "/api/tax/user/" + s.userId, s));
+        ENDPOINTS.put("tax.calculate", (base, s, r, p) ->
+            post(base + "/api/tax/calculate", s, taxInput(r)));
+        ENDPOINTS.put("tax.what-if", (base, s, r, p) ->
+            post(base + "/api/tax/what-if", s, Map.of(
+                "base", taxInput(r),
+                "salaryIncome", Map.of("from", 600000, "to", 3000000, "step", 100000),
+                "deduction80c", Map.of("from", 0, "to", 150000, "step", 50000),
+                "nps", List.of(false, true))));
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final List<RequestFactory> factories = new ArrayList<>();
+    private final int[] cumulativeWeights;
+
+    public TrafficMix(String mix) {
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            RequestFactory factory = ENDPOINTS.get(nameAndWeight[0]);
+            if (factory == null || nameAndWeight.length != 2) {
+                throw new IllegalArgumentException(
+                    "Bad mix entry '" + part + "'; expected name:weight with name in " + ENDPOINTS.keySet());
+            }
+            int weight = Integer.parseInt(nameAndWeight[1]);
+            if (weight > 0) {
+                total += weight;
+                names.add(nameAndWeight[0]);
+                factories.add(factory);
+                cumulative.add(total);
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no endpoints with a positive weight");
+        }
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Index of a weighted-random endpoint */
+    int pick(SplittableRandom random) {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    int size() {
+        return names.size();
+    }
+
+    String name(int index) {
+        return names.get(index);
+    }
+
+    HttpRequest request(int index, String baseUrl, Session session, SplittableRandom random, String password) {
+        return factories.get(index).create(baseUrl, session, random, password);
+    }
+
+    private static Map<String, Object> taxInput(SplittableRandom random) {
+        Map<String, Object> tax = new LinkedHashMap<>();
+        tax.put("financialYear", "2024-25");
+        tax.put("salaryIncome", 500000 + random.nextInt(3000000));
+        tax.put("housePropertyIncome", 0);
+        tax.put("businessIncome", 0);
+        tax.put("capitalGainsShort", random.nextInt(50000));
+        tax.put("capitalGainsLong", random.nextInt(100000));
+        tax.put("otherIncome", 10000);
+        tax.put("deduction80c", random.nextInt(150001));
+        tax.put("deduction80d", 25000);
+        tax.put("deduction80ccd1b", 0);
+        tax.put("deduction80e", 0);
+        tax.put("deduction80g", 0);
+        tax.put("otherDeductions", 0);
+        return tax;
+    }
+
+    static HttpRequest get(String url, Session session) {
+        return builder(url, session).GET().build();
+    }
+
+    static HttpRequest post(String url, Session session, Object body) {
+        return builder(url, session).POST(json(body)).build();
+    }
+
+    private static HttpRequest put(String url, Session session, Object body) {
+        return builder(url, session).PUT(json(body)).build();
+    }
+
+    private static HttpRequest.Builder builder(String url, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(TIMEOUT)
+            .header("Content-Type", "application/json");
+        if (session != null && session.token != null) {
+            builder.header("Authorization", "Bearer " + session.token);
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class FinancialAssistantApplication {
                         .allowedOrigins("http://localhost:8000", "http://127.0.0.1:8000", "http://localhost:3000")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("Deprecation", "Link", "X-Truncated")
                         .allowCredentials(true);
             }
         };
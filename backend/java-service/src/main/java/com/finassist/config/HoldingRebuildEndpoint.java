@@ -0,0 +1,47 @@
+package com.finassist.config;
+
+import com.finassist.dto.RebuildReport;
+import com.finassist.service.HoldingRebuildService;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operator access to the holding rebuild as the org.springframework.boot:type=Endpoint,
+ * name=Holdingsrebuild MBean (spring.jmx.enabled), from jconsole or a JMX client on the host.
+ *
+ * The drift operations are dry runs (drift report only); rebuild with apply=true rewrites
+ * drifted holdings. Each has an all-users and a one-user form. It is JMX only and never
+ * served over HTTP, which carries no bearer token on the management port.
+ */
+@Component
+@JmxEndpoint(id = "holdingsrebuild")
+public class HoldingRebuildEndpoint {
+
+    private final HoldingRebuildService holdingRebuildService;
+
+    public HoldingRebuildEndpoint(HoldingRebuildService holdingRebuildService) {
+        this.holdingRebuildService = holdingRebuildService;
+    }
+
+    @ReadOperation
+    public RebuildReport drift() {
+        return holdingRebuildService.rebuildAll(false);
+    }
+
+    @ReadOperation
+    public RebuildReport driftUser(Long userId) {
+        return holdingRebuildService.rebuildUser(userId, false);
+    }
+
+    @WriteOperation
+    public RebuildReport rebuild(boolean apply) {
+        return holdingRebuildService.rebuildAll(apply);
+    }
+
+    @WriteOperation
+    public RebuildReport rebuildUser(Long userId, boolean apply) {
+        return holdingRebuildService.rebuildUser(userId, apply);
+    }
+}
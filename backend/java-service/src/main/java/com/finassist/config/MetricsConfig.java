@@ -0,0 +1,83 @@
+package com.finassist.config;
+
+import com.finassist.service.JwtService;
+import com.finassist.service.PasswordHashingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Application meters published next to the actuator's HTTP, JVM and Hikari metrics
+ * on /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new RepositoryMetricsPostProcessor(registry);
+    }
+
+    /**
+     * Verified-claims cache counters; verify latency is timed in JwtAuthenticationFilter
+     */
+    @Bean
+    public MeterBinder jwtClaimsCacheMetrics(JwtService jwtService) {
+        return registry -> {
+            FunctionCounter.builder("finassist.jwt.claims_cache.requests", jwtService, s -> s.getClaimsCacheStats().hitCount())
+                    .description("Token verifications served from the claims cache")
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("finassist.jwt.claims_cache.requests", jwtService, s -> s.getClaimsCacheStats().missCount())
+                    .description("Token verifications that checked the signature")
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("finassist.jwt.claims_cache.evictions", jwtService, s -> s.getClaimsCacheStats().evictionCount())
+                    .description("Claims evicted for size or because the token expired")
+                    .register(registry);
+            Gauge.builder("finassist.jwt.claims_cache.size", jwtService, JwtService::getClaimsCacheSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService hashingService) {
+        return registry -> {
+            Gauge.builder("finassist.bcrypt.queue.depth", hashingService, PasswordHashingService::getQueueDepth)
+                    .description("Hash requests waiting for a hashing thread")
+                    .register(registry);
+            Gauge.builder("finassist.bcrypt.active", hashingService, PasswordHashingService::getActiveCount)
+                    .description("Hashing threads currently busy")
+                    .register(registry);
+            FunctionCounter.builder("finassist.bcrypt.rejected", hashingService, PasswordHashingService::getRejectedCount)
+                    .description("Hash requests rejected because the queue was full (HTTP 429)")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Semaphore in front of the pool in virtual-thread mode; Hikari's own gauges
+     * (hikaricp.connections.active/pending/...) are bound by the actuator
+     */
+    @Bean
+    public MeterBinder databaseConcurrencyMetrics(DataSource dataSource) {
+        return registry -> {
+            if (VirtualThreadConfig.wraps(dataSource, ConcurrencyLimitingDataSource.class)) {
+                ConcurrencyLimitingDataSource limited =
+                        VirtualThreadConfig.unwrap(dataSource, ConcurrencyLimitingDataSource.class);
+                Gauge.builder("finassist.db.permits.available", limited, ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .register(registry);
+                Gauge.builder("finassist.db.permits.waiting", limited, ConcurrencyLimitingDataSource::getQueueLength)
+                        .description("Threads waiting for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.finassist.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Reports every statement execution, with its SQL and duration, to a {@link QueryInspector}.
+ *
+ * Connections and statements are wrapped in JDK proxies; the SQL of a prepared
+ * statement is taken when it is prepared, so bind values are never seen.
+ * A JDBC batch counts as one execution because it is one round trip. The
+ * inspector is looked up lazily so the DataSource does not pull the meter
+ * registry into early bean creation.
+ */
+public class QueryInspectingDataSource extends DelegatingDataSource {
+
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+        "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<QueryInspector> inspector;
+
+    public QueryInspectingDataSource(DataSource target, ObjectProvider<QueryInspector> inspector) {
+        super(target);
+        this.inspector = inspector;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return inspect(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return inspect(super.getConnection(username, password));
+    }
+
+    private Connection inspect(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (PREPARE_METHODS.contains(method.getName())) {
+                    Class<?> type = result instanceof CallableStatement ? CallableStatement.class : PreparedStatement.class;
+                    return inspect((Statement) result, type, (String) args[0]);
+                }
+                if ("createStatement".equals(method.getName())) {
+                    return inspect((Statement) result, Statement.class, null);
+                }
+                return result;
+            });
+    }
+
+    private Statement inspect(Statement statement, Class<?> type, String preparedSql) {
+        String[] batchSql = {null};
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if ("addBatch".equals(name) && args != null && args.length == 1 && batchSql[0] == null) {
+                    batchSql[0] = (String) args[0];
+                }
+                if (!EXECUTE_METHODS.contains(name)) {
+                    return invoke(statement, method, args);
+                }
+                
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                        : preparedSql != null ? preparedSql : batchSql[0];
+                long started = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    QueryInspector current = inspector.getIfAvailable();
+                    if (current != null) {
+                        current.record(sql, System.nanoTime() - started);
+                    }
+                }
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
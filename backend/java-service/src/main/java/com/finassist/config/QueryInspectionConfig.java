@@ -0,0 +1,53 @@
+package com.finassist.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Slow-query and N+1 detection (app.sql.inspection.enabled, on by default).
+ *
+ * The DataSource is wrapped in a {@link QueryInspectingDataSource} and every
+ * request is bracketed by a {@link QueryInspectionFilter}; see {@link QueryInspector}
+ * for what is logged and the finassist.sql.* meters.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.inspection.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInspectionConfig {
+
+    @Bean
+    public QueryInspector queryInspector(MeterRegistry registry,
+                                         @Value("${app.sql.repeat-threshold:10}") int repeatThreshold,
+                                         @Value("${app.sql.slow-threshold-ms:500}") long slowThresholdMillis) {
+        return new QueryInspector(registry, repeatThreshold, slowThresholdMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryInspectionFilter> queryInspectionFilter(QueryInspector inspector) {
+        FilterRegistrationBean<QueryInspectionFilter> registration =
+                new FilterRegistrationBean<>(new QueryInspectionFilter(inspector));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public static BeanPostProcessor queryInspectingDataSourcePostProcessor(ObjectProvider<QueryInspector> inspector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof QueryInspectingDataSource)) {
+                    return new QueryInspectingDataSource(dataSource, inspector);
+                }
+                return bean;
+            }
+        };
+    }
+}
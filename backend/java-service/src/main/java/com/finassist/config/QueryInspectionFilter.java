@@ -0,0 +1,37 @@
+package com.finassist.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Brackets each request so the {@link QueryInspector} can count the statements it issues.
+ *
+ * Registered ahead of the JWT filter so the user lookups it triggers are counted too.
+ * The route is the matched pattern (/api/portfolio/holdings/{userId}), never the raw path.
+ */
+public class QueryInspectionFilter extends OncePerRequestFilter {
+
+    private final QueryInspector inspector;
+
+    public QueryInspectionFilter(QueryInspector inspector) {
+        this.inspector = inspector;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        inspector.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            inspector.endRequest(request.getMethod(), route != null ? route.toString() : "UNKNOWN");
+        }
+    }
+}
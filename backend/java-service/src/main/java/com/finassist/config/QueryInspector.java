@@ -0,0 +1,120 @@
+package com.finassist.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-request statement bookkeeping for N+1 and slow-query detection.
+ *
+ * Statements are reduced to fingerprints (literals and IN lists replaced by ?),
+ * counted per request on the request thread, and any fingerprint seen more
+ * than the repeat threshold is logged with the request's route. Statements
+ * slower than the slow threshold are logged as fingerprints too, so bind
+ * parameters and literals never reach the log.
+ */
+public class QueryInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryInspector.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int FINGERPRINT_CACHE_SIZE = 2000;
+
+    private final ThreadLocal<Map<String, Integer>> currentRequest = new ThreadLocal<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final int repeatThreshold;
+    private final long slowThresholdNanos;
+    private final Counter executions;
+    private final Counter slowStatements;
+
+    public QueryInspector(MeterRegistry registry, int repeatThreshold, long slowThresholdMillis) {
+        this.registry = registry;
+        this.repeatThreshold = repeatThreshold;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.executions = Counter.builder("finassist.sql.executions")
+                .description("JDBC statement executions (a batch counts once)")
+                .register(registry);
+        this.slowStatements = Counter.builder("finassist.sql.slow")
+                .description("Statements slower than app.sql.slow-threshold-ms")
+                .register(registry);
+    }
+
+    /** Start counting statements issued by this thread */
+    void beginRequest() {
+        currentRequest.set(new HashMap<>());
+    }
+
+    /** Stop counting and report repeated fingerprints against the request's route */
+    void endRequest(String method, String route) {
+        Map<String, Integer> counts = currentRequest.get();
+        currentRequest.remove();
+        if (counts == null) {
+            return;
+        }
+        
+        int statements = counts.values().stream().mapToInt(Integer::intValue).sum();
+        DistributionSummary.builder("finassist.sql.statements.per_request")
+                .description("Statements issued while serving one request")
+                .tag("uri", route)
+                .register(registry)
+                .record(statements);
+        
+        counts.forEach((fingerprint, count) -> {
+            if (count > repeatThreshold) {
+                log.warn("Possible N+1: {} {} ran the same statement {} times: {}", method, route, count, fingerprint);
+                Counter.builder("finassist.sql.repeated")
+                        .description("Requests that repeated one statement more than app.sql.repeat-threshold times")
+                        .tag("uri", route)
+                        .register(registry)
+                        .increment();
+            }
+        });
+    }
+
+    void record(String sql, long nanos) {
+        executions.increment();
+        if (sql == null) {
+            return;
+        }
+        
+        String fingerprint = fingerprint(sql);
+        Map<String, Integer> counts = currentRequest.get();
+        if (counts != null) {
+            counts.merge(fingerprint, 1, Integer::sum);
+        }
+        if (nanos > slowThresholdNanos) {
+            slowStatements.increment();
+            log.warn("Slow statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(nanos), fingerprint);
+        }
+    }
+
+    String fingerprint(String sql) {
+        String cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        String fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = PLACEHOLDER_LIST.matcher(fingerprint).replaceAll("(?)");
+        fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+        
+        // Statements are mostly constants, but literal-built SQL could grow the map without bound
+        if (fingerprints.size() >= FINGERPRINT_CACHE_SIZE) {
+            fingerprints.clear();
+        }
+        fingerprints.put(sql, fingerprint);
+        return fingerprint;
+    }
+}
@@ -0,0 +1,130 @@
+package com.finassist.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps every @Repository bean in a proxy that times each public method call.
+ *
+ * finassist.repository.calls is a timer tagged repository/method/outcome and
+ * finassist.repository.rows counts the rows a finder returned (collections and
+ * Optionals), so a p99 spike can be traced to the repository call behind it.
+ */
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> type = ClassUtils.getUserClass(AopUtils.getTargetClass(bean));
+        if (AnnotationUtils.findAnnotation(type, Repository.class) == null) {
+            return bean;
+        }
+        TimingInterceptor interceptor = new TimingInterceptor(type.getSimpleName());
+        // Repositories usually already carry the exception-translation proxy; join it instead of nesting
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(interceptor);
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return factory.getProxy();
+    }
+
+    private final class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+        private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+        TimingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = registryProvider.getIfAvailable();
+            if (registry == null || invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            
+            Meters methodMeters = meters.computeIfAbsent(invocation.getMethod(),
+                method -> new Meters(registry, repository, method.getName()));
+            Timer.Sample sample = Timer.start(registry);
+            Object result;
+            try {
+                result = invocation.proceed();
+            } catch (Throwable e) {
+                sample.stop(methodMeters.failure);
+                throw e;
+            }
+            sample.stop(methodMeters.success);
+            
+            if (result instanceof Collection<?> rows) {
+                methodMeters.rows(registry).increment(rows.size());
+            } else if (result instanceof Optional<?> row) {
+                methodMeters.rows(registry).increment(row.isPresent() ? 1 : 0);
+            }
+            return result;
+        }
+    }
+
+    private static final class Meters {
+        private final String repository;
+        private final String method;
+        private final Timer success;
+        private final Timer failure;
+        private volatile Counter rows;
+
+        Meters(MeterRegistry registry, String repository, String method) {
+            this.repository = repository;
+            this.method = method;
+            this.success = timer(registry, repository, method, "success");
+            this.failure = timer(registry, repository, method, "error");
+        }
+
+        // Registered on first use so only finders get a rows series
+        Counter rows(MeterRegistry registry) {
+            Counter counter = rows;
+            if (counter == null) {
+                counter = Counter.builder("finassist.repository.rows")
+                        .description("Rows returned by repository finders")
+                        .tag("repository", repository)
+                        .tag("method", method)
+                        .register(registry);
+                rows = counter;
+            }
+            return counter;
+        }
+
+        private static Timer timer(MeterRegistry registry, String repository, String method, String outcome) {
+            return Timer.builder("finassist.repository.calls")
+                    .description("Repository method latency")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.finassist.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Opt-in virtual-thread mode (app.threads.virtual.enabled=true, Java 21+).
+ *
+ * Tomcat requests, @Scheduled jobs and the application task executor run on
+ * virtual threads. Because request concurrency is then unbounded, the Hikari
+ * pool gets a fixed size and the DataSource is wrapped in a
+ * {@link ConcurrencyLimitingDataSource} with the same number of permits. The
+ * Java 21 APIs are looked up reflectively so the default build still targets
+ * Java 17; build with -Pjava21 to target 21.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    @Bean
+    public TaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadFactory(virtualThreadFactory("scheduling-"));
+        scheduler.setPoolSize(4);
+        return scheduler;
+    }
+
+    /**
+     * Replaces Spring Boot's pooled applicationTaskExecutor, which backs off once
+     * the scheduler above is an Executor bean
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Fixes the Hikari pool size (cores * 2 + 1 unless app.db.pool-size is set)
+     * and puts a semaphore of the same size in front of it
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceConcurrencyGuard(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    int poolSize = environment.getProperty("app.db.pool-size", Integer.class, 0);
+                    if (poolSize <= 0) {
+                        poolSize = Runtime.getRuntime().availableProcessors() * 2 + 1;
+                    }
+                    hikari.setMaximumPoolSize(poolSize);
+                    hikari.setMinimumIdle(poolSize);
+                }
+                return bean;
+            }
+
+            // Other post-processors (query inspection) may already have wrapped the pool
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && wraps(dataSource, HikariDataSource.class)
+                        && !wraps(dataSource, ConcurrencyLimitingDataSource.class)) {
+                    HikariDataSource hikari = unwrap(dataSource, HikariDataSource.class);
+                    long timeout = environment.getProperty("app.db.acquire-timeout-ms", Long.class, 5000L);
+                    log.info("Limiting database concurrency to {} connections", hikari.getMaximumPoolSize());
+                    return new ConcurrencyLimitingDataSource(dataSource, hikari.getMaximumPoolSize(), timeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static boolean wraps(DataSource dataSource, Class<?> type) {
+        try {
+            return dataSource.isWrapperFor(type);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    static <T> T unwrap(DataSource dataSource, Class<T> type) {
+        try {
+            return dataSource.unwrap(type);
+        } catch (SQLException e) {
+            throw new IllegalStateException("DataSource does not wrap " + type.getName(), e);
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static IllegalStateException unsupported(Exception cause) {
+        return new IllegalStateException("app.threads.virtual.enabled=true requires Java 21 or newer (running "
+                + System.getProperty("java.version") + ")", cause);
+    }
+}
@@ -1,45 +1,179 @@
 package com.finassist.controller;
 
+import com.finassist.dto.BudgetEntryFilter;
+import com.finassist.dto.CursorPage;
+import com.finassist.dto.ErrorResponse;
 import com.finassist.model.BudgetEntry;
+import com.finassist.security.AuthenticatedUser;
+import com.finassist.service.BudgetImportService;
 import com.finassist.service.BudgetService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/budget")
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final BudgetImportService budgetImportService;
 
-    public BudgetController(BudgetService budgetService) {
+    public BudgetController(BudgetService budgetService, BudgetImportService budgetImportService) {
         this.budgetService = budgetService;
+        this.budgetImportService = budgetImportService;
     }
 
     @PostMapping("/entry")
-    public ResponseEntity<BudgetEntry> addEntry(@RequestBody BudgetEntry entry) {
+    public ResponseEntity<BudgetEntry> addEntry(
+            @RequestBody BudgetEntry entry,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        entry.setUserId(user.getUserId());
         BudgetEntry savedEntry = budgetService.addEntry(entry);
         return ResponseEntity.ok(savedEntry);
     }
 
+    /**
+     * Deprecated: returns only the newest api.page.max-size entries; use /entries/{userId}/page
+     * A longer history is flagged with X-Truncated and a Link rel="next" to the rest
+     */
+    @Deprecated
     @GetMapping("/entries/{userId}")
-    public ResponseEntity<List<BudgetEntry>> getUserEntries(@PathVariable Long userId) {
-        List<BudgetEntry> entries = budgetService.getUserEntries(userId);
-        return ResponseEntity.ok(entries);
+    public ResponseEntity<List<BudgetEntry>> getUserEntries(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        CursorPage<BudgetEntry> entries = budgetService.getUserEntries(userId);
+        return deprecated(userId, entries, null).body(entries.getItems());
+    }
+
+    @GetMapping("/entries/{userId}/page")
+    public ResponseEntity<?> getUserEntriesPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String type,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            BudgetEntryFilter filter = new BudgetEntryFilter(from, to, category, type);
+            return ResponseEntity.ok(budgetService.getUserEntriesPage(userId, filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<?> getSummary(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(budgetService.getSummary(userId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/summary/{userId}/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSummary(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        int rows = budgetService.rebuildRollups(userId);
+        return ResponseEntity.ok(Map.of("userId", userId, "rollupRows", rows));
+    }
+
+    @PostMapping("/import/{userId}")
+    public ResponseEntity<?> importStatement(
+            @PathVariable Long userId,
+            @RequestParam("file") MultipartFile file,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("The uploaded file is empty"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(budgetImportService.importStatement(userId, in));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Could not read the uploaded file"));
+        }
     }
 
     @DeleteMapping("/entry/{id}")
-    public ResponseEntity<Void> deleteEntry(@PathVariable Long id) {
-        budgetService.deleteEntry(id);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Void> deleteEntry(
+            @PathVariable Long id,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (budgetService.deleteEntry(id, user.getUserId())) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
     }
 
+    /**
+     * Deprecated: returns only the newest api.page.max-size entries; use /entries/{userId}/page?type=
+     * A longer history is flagged with X-Truncated and a Link rel="next" to the rest
+     */
+    @Deprecated
     @GetMapping("/entries/{userId}/{type}")
     public ResponseEntity<List<BudgetEntry>> getUserEntriesByType(
             @PathVariable Long userId, 
-            @PathVariable String type) {
-        List<BudgetEntry> entries = budgetService.getUserEntriesByType(userId, type);
-        return ResponseEntity.ok(entries);
+            @PathVariable String type,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        CursorPage<BudgetEntry> entries = budgetService.getUserEntriesByType(userId, type);
+        return deprecated(userId, entries, type).body(entries.getItems());
+    }
+
+    /**
+     * 200 with the Deprecation header and a Link to the paged endpoint that replaces it
+     * When entries were left out, also X-Truncated: true and a Link rel="next" to the page after them
+     */
+    private static ResponseEntity.BodyBuilder deprecated(Long userId, CursorPage<BudgetEntry> entries, String type) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header(HttpHeaders.LINK, "</api/budget/entries/" + userId + "/page>; rel=\"successor-version\"");
+        if (entries.isHasMore()) {
+            String next = UriComponentsBuilder.fromPath("/api/budget/entries/{userId}/page")
+                    .queryParam("cursor", entries.getNextCursor())
+                    .queryParam("limit", entries.getItems().size())
+                    .queryParamIfPresent("type", Optional.ofNullable(type))
+                    .buildAndExpand(userId)
+                    .encode()
+                    .toUriString();
+            response.header("X-Truncated", "true")
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
     }
 }
\ No newline at end of file
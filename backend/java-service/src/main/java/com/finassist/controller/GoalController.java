@@ -1,7 +1,9 @@
 package com.finassist.controller;
 
 import com.finassist.model.FinancialGoal;
+import com.finassist.security.AuthenticatedUser;
 import com.finassist.service.GoalService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,19 +22,32 @@ public class GoalController {
     }
 
     @PostMapping("/create")
-    public ResponseEntity<FinancialGoal> createGoal(@RequestBody FinancialGoal goal) {
+    public ResponseEntity<FinancialGoal> createGoal(
+            @RequestBody FinancialGoal goal,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        goal.setUserId(user.getUserId());
         FinancialGoal created = goalService.createGoal(goal);
         return ResponseEntity.ok(created);
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<FinancialGoal>> getUserGoals(@PathVariable Long userId) {
+    public ResponseEntity<List<FinancialGoal>> getUserGoals(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<FinancialGoal> goals = goalService.getUserGoals(userId);
         return ResponseEntity.ok(goals);
     }
 
     @GetMapping("/user/{userId}/active")
-    public ResponseEntity<List<FinancialGoal>> getActiveGoals(@PathVariable Long userId) {
+    public ResponseEntity<List<FinancialGoal>> getActiveGoals(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<FinancialGoal> goals = goalService.getActiveGoals(userId);
         return ResponseEntity.ok(goals);
     }
@@ -40,9 +55,10 @@ public class GoalController {
     @PutMapping("/{goalId}/progress")
     public ResponseEntity<FinancialGoal> updateProgress(
             @PathVariable Long goalId, 
-            @RequestBody Map<String, BigDecimal> request) {
+            @RequestBody Map<String, BigDecimal> request,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
         BigDecimal amount = request.get("amount");
-        FinancialGoal updated = goalService.updateGoalProgress(goalId, amount);
+        FinancialGoal updated = goalService.updateGoalProgress(goalId, user.getUserId(), amount);
         if (updated != null) {
             return ResponseEntity.ok(updated);
         }
@@ -50,8 +66,12 @@ public class GoalController {
     }
 
     @DeleteMapping("/{goalId}")
-    public ResponseEntity<Void> deleteGoal(@PathVariable Long goalId) {
-        goalService.deleteGoal(goalId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Void> deleteGoal(
+            @PathVariable Long goalId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (goalService.deleteGoal(goalId, user.getUserId())) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
     }
 }
\ No newline at end of file
@@ -1,11 +1,29 @@
 package com.finassist.controller;
 
+import com.finassist.dto.CursorPage;
+import com.finassist.dto.ErrorResponse;
+import com.finassist.dto.ImportResult;
+import com.finassist.dto.PortfolioSummary;
+import com.finassist.dto.RebuildReport;
+import com.finassist.dto.ValuationSeries;
 import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioLot;
 import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.RealizedGain;
+import com.finassist.security.AuthenticatedUser;
+import com.finassist.service.HoldingRebuildService;
 import com.finassist.service.PortfolioService;
+import com.finassist.service.PortfolioSnapshotService;
+import com.finassist.service.TradeImportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,40 +31,183 @@ import java.util.List;
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final TradeImportService tradeImportService;
+    private final HoldingRebuildService holdingRebuildService;
+    private final PortfolioSnapshotService snapshotService;
 
-    public PortfolioController(PortfolioService portfolioService) {
+    public PortfolioController(PortfolioService portfolioService, TradeImportService tradeImportService,
+                               HoldingRebuildService holdingRebuildService, PortfolioSnapshotService snapshotService) {
         this.portfolioService = portfolioService;
+        this.tradeImportService = tradeImportService;
+        this.holdingRebuildService = holdingRebuildService;
+        this.snapshotService = snapshotService;
     }
 
     @PostMapping("/holding")
-    public ResponseEntity<PortfolioHolding> addHolding(@RequestBody PortfolioHolding holding) {
+    public ResponseEntity<PortfolioHolding> addHolding(
+            @RequestBody PortfolioHolding holding,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        holding.setUserId(user.getUserId());
         PortfolioHolding saved = portfolioService.addOrUpdateHolding(holding);
         return ResponseEntity.ok(saved);
     }
 
     @PostMapping("/transaction")
-    public ResponseEntity<PortfolioTransaction> addTransaction(@RequestBody PortfolioTransaction transaction) {
-        PortfolioTransaction saved = portfolioService.addTransaction(transaction);
-        return ResponseEntity.ok(saved);
+    public ResponseEntity<?> addTransaction(
+            @RequestBody PortfolioTransaction transaction,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        transaction.setUserId(user.getUserId());
+        try {
+            return ResponseEntity.ok(portfolioService.addTransaction(transaction));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/transactions/batch")
+    public ResponseEntity<?> addTransactions(
+            @RequestBody List<PortfolioTransaction> transactions,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        try {
+            return ResponseEntity.ok(tradeImportService.importTrades(user.getUserId(), transactions));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/transactions/import")
+    public ResponseEntity<?> importTradebook(
+            @RequestParam("file") MultipartFile file,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("The uploaded file is empty"));
+        }
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(tradeImportService.importTradebook(user.getUserId(), in));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse("Could not read the uploaded file"));
+        }
+    }
+
+    @DeleteMapping("/holding/{holdingId}")
+    public ResponseEntity<Void> deleteHolding(
+            @PathVariable Long holdingId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (portfolioService.deleteHolding(holdingId, user.getUserId())) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/holdings/{userId}")
-    public ResponseEntity<List<PortfolioHolding>> getUserHoldings(@PathVariable Long userId) {
+    public ResponseEntity<List<PortfolioHolding>> getUserHoldings(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<PortfolioHolding> holdings = portfolioService.getUserHoldings(userId);
         return ResponseEntity.ok(holdings);
     }
 
+    @GetMapping("/summary/{userId}")
+    public ResponseEntity<PortfolioSummary> getSummary(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(portfolioService.getSummary(userId));
+    }
+
     @GetMapping("/holdings/{userId}/type/{assetType}")
     public ResponseEntity<List<PortfolioHolding>> getHoldingsByType(
             @PathVariable Long userId, 
-            @PathVariable String assetType) {
+            @PathVariable String assetType,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<PortfolioHolding> holdings = portfolioService.getUserHoldingsByType(userId, assetType);
         return ResponseEntity.ok(holdings);
     }
 
     @GetMapping("/transactions/{userId}")
-    public ResponseEntity<List<PortfolioTransaction>> getUserTransactions(@PathVariable Long userId) {
+    public ResponseEntity<List<PortfolioTransaction>> getUserTransactions(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<PortfolioTransaction> transactions = portfolioService.getUserTransactions(userId);
         return ResponseEntity.ok(transactions);
     }
+
+    @GetMapping("/transactions/{userId}/page")
+    public ResponseEntity<?> getUserTransactionsPage(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(portfolioService.getUserTransactionsPage(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/lots/{userId}")
+    public ResponseEntity<List<PortfolioLot>> getOpenLots(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(portfolioService.getOpenLots(userId));
+    }
+
+    @GetMapping("/history/{userId}")
+    public ResponseEntity<?> getHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String assetType,
+            @RequestParam(required = false) Integer points,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(snapshotService.getHistory(userId, from, to, assetType, points));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/rebuild/{userId}")
+    public ResponseEntity<RebuildReport> rebuildHoldings(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean apply,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(holdingRebuildService.rebuildUser(userId, apply));
+    }
+
+    @GetMapping("/realized-gains/{userId}")
+    public ResponseEntity<List<RealizedGain>> getRealizedGains(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String financialYear,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(portfolioService.getRealizedGains(userId, financialYear));
+    }
 }
\ No newline at end of file
@@ -1,40 +1,86 @@
 package com.finassist.controller;
 
+import com.finassist.dto.ErrorResponse;
+import com.finassist.dto.TaxWhatIfRequest;
+import com.finassist.dto.TaxWhatIfResponse;
 import com.finassist.model.TaxCalculation;
+import com.finassist.security.AuthenticatedUser;
 import com.finassist.service.TaxService;
+import com.finassist.service.TaxWhatIfService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/tax")
 public class TaxController {
 
     private final TaxService taxService;
+    private final TaxWhatIfService taxWhatIfService;
 
-    public TaxController(TaxService taxService) {
+    public TaxController(TaxService taxService, TaxWhatIfService taxWhatIfService) {
         this.taxService = taxService;
+        this.taxWhatIfService = taxWhatIfService;
     }
 
     @PostMapping("/calculate")
-    public ResponseEntity<TaxCalculation> calculateTax(@RequestBody TaxCalculation taxCalculation) {
-        TaxCalculation result = taxService.calculateTax(taxCalculation);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<?> calculateTax(
+            @RequestBody TaxCalculation taxCalculation,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        taxCalculation.setUserId(user.getUserId());
+        try {
+            TaxCalculation result = taxService.calculateTax(taxCalculation);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/what-if")
+    public ResponseEntity<TaxWhatIfResponse> whatIf(
+            @RequestBody TaxWhatIfRequest request,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (request.getBase() != null) {
+            request.getBase().setUserId(user.getUserId());
+        }
+        try {
+            return ResponseEntity.ok(taxWhatIfService.sweep(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new TaxWhatIfResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<TaxCalculation>> getUserTaxCalculations(@PathVariable Long userId) {
+    public ResponseEntity<List<TaxCalculation>> getUserTaxCalculations(
+            @PathVariable Long userId,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<TaxCalculation> calculations = taxService.getUserTaxCalculations(userId);
         return ResponseEntity.ok(calculations);
     }
 
     @GetMapping("/user/{userId}/year/{year}")
-    public ResponseEntity<TaxCalculation> getTaxByYear(@PathVariable Long userId, @PathVariable String year) {
+    public ResponseEntity<TaxCalculation> getTaxByYear(
+            @PathVariable Long userId,
+            @PathVariable String year,
+            @RequestAttribute(AuthenticatedUser.ATTRIBUTE) AuthenticatedUser user) {
+        if (!user.owns(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         TaxCalculation calculation = taxService.getLatestTaxCalculation(userId, year);
         if (calculation != null) {
             return ResponseEntity.ok(calculation);
         }
         return ResponseEntity.notFound().build();
     }
+
+    @GetMapping("/years")
+    public ResponseEntity<Set<String>> getSupportedYears() {
+        return ResponseEntity.ok(taxService.getSupportedYears());
+    }
 }
\ No newline at end of file
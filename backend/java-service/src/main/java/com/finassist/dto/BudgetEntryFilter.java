@@ -0,0 +1,31 @@
+package com.finassist.dto;
+
+import java.time.LocalDate;
+
+public class BudgetEntryFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private String category;
+    private String type;
+
+    public BudgetEntryFilter() {}
+
+    public BudgetEntryFilter(LocalDate from, LocalDate to, String category, String type) {
+        this.from = from;
+        this.to = to;
+        this.category = category;
+        this.type = type;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+}
@@ -0,0 +1,86 @@
+package com.finassist.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class BudgetSummary {
+    private Long userId;
+    private BigDecimal totalIncome = BigDecimal.ZERO;
+    private BigDecimal totalExpense = BigDecimal.ZERO;
+    private BigDecimal netSavings = BigDecimal.ZERO;
+    private BigDecimal savingsRate = BigDecimal.ZERO;
+    private long entryCount;
+    private Map<String, BigDecimal> expenseByCategory = new TreeMap<>();
+    private Map<String, BigDecimal> incomeByCategory = new TreeMap<>();
+    private List<MonthSummary> months = new ArrayList<>();
+
+    public BudgetSummary() {}
+
+    public BudgetSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public BigDecimal getTotalIncome() { return totalIncome; }
+    public void setTotalIncome(BigDecimal totalIncome) { this.totalIncome = totalIncome; }
+
+    public BigDecimal getTotalExpense() { return totalExpense; }
+    public void setTotalExpense(BigDecimal totalExpense) { this.totalExpense = totalExpense; }
+
+    public BigDecimal getNetSavings() { return netSavings; }
+    public void setNetSavings(BigDecimal netSavings) { this.netSavings = netSavings; }
+
+    public BigDecimal getSavingsRate() { return savingsRate; }
+    public void setSavingsRate(BigDecimal savingsRate) { this.savingsRate = savingsRate; }
+
+    public long getEntryCount() { return entryCount; }
+    public void setEntryCount(long entryCount) { this.entryCount = entryCount; }
+
+    public Map<String, BigDecimal> getExpenseByCategory() { return expenseByCategory; }
+    public void setExpenseByCategory(Map<String, BigDecimal> expenseByCategory) { this.expenseByCategory = expenseByCategory; }
+
+    public Map<String, BigDecimal> getIncomeByCategory() { return incomeByCategory; }
+    public void setIncomeByCategory(Map<String, BigDecimal> incomeByCategory) { this.incomeByCategory = incomeByCategory; }
+
+    public List<MonthSummary> getMonths() { return months; }
+    public void setMonths(List<MonthSummary> months) { this.months = months; }
+
+    public static class MonthSummary {
+        private YearMonth month;
+        private BigDecimal income = BigDecimal.ZERO;
+        private BigDecimal expense = BigDecimal.ZERO;
+        private BigDecimal net = BigDecimal.ZERO;
+        private long entryCount;
+        private Map<String, BigDecimal> expenseByCategory = new TreeMap<>();
+
+        public MonthSummary() {}
+
+        public MonthSummary(YearMonth month) {
+            this.month = month;
+        }
+
+        public YearMonth getMonth() { return month; }
+        public void setMonth(YearMonth month) { this.month = month; }
+
+        public BigDecimal getIncome() { return income; }
+        public void setIncome(BigDecimal income) { this.income = income; }
+
+        public BigDecimal getExpense() { return expense; }
+        public void setExpense(BigDecimal expense) { this.expense = expense; }
+
+        public BigDecimal getNet() { return net; }
+        public void setNet(BigDecimal net) { this.net = net; }
+
+        public long getEntryCount() { return entryCount; }
+        public void setEntryCount(long entryCount) { this.entryCount = entryCount; }
+
+        public Map<String, BigDecimal> getExpenseByCategory() { return expenseByCategory; }
+        public void setExpenseByCategory(Map<String, BigDecimal> expenseByCategory) { this.expenseByCategory = expenseByCategory; }
+    }
+}
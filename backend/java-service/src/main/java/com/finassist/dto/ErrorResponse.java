@@ -0,0 +1,17 @@
+package com.finassist.dto;
+
+/**
+ * Body of a 400 response: why the request was refused
+ */
+public class ErrorResponse {
+    private String message;
+
+    public ErrorResponse() {}
+
+    public ErrorResponse(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,63 @@
+package com.finassist.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResult {
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private long rowsRead;
+    private long rowsImported;
+    private long duplicatesSkipped;
+    private long rowsRejected;
+    private List<RejectedLine> rejectedLines = new ArrayList<>();
+    private long elapsedMillis;
+    private double rowsPerSecond;
+
+    /**
+     * Count a rejected line; only the first MAX_REPORTED_REJECTIONS are listed
+     */
+    public void reject(long lineNumber, String reason) {
+        rowsRejected++;
+        if (rejectedLines.size() < MAX_REPORTED_REJECTIONS) {
+            rejectedLines.add(new RejectedLine(lineNumber, reason));
+        }
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsImported() { return rowsImported; }
+    public void setRowsImported(long rowsImported) { this.rowsImported = rowsImported; }
+
+    public long getDuplicatesSkipped() { return duplicatesSkipped; }
+    public void setDuplicatesSkipped(long duplicatesSkipped) { this.duplicatesSkipped = duplicatesSkipped; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public List<RejectedLine> getRejectedLines() { return rejectedLines; }
+    public void setRejectedLines(List<RejectedLine> rejectedLines) { this.rejectedLines = rejectedLines; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public static class RejectedLine {
+        private long line;
+        private String reason;
+
+        public RejectedLine(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+        public void setLine(long line) { this.line = line; }
+
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+}
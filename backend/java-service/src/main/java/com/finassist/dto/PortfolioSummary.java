@@ -0,0 +1,118 @@
+package com.finassist.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PortfolioSummary {
+    private Long userId;
+    private int holdingsCount;
+    private BigDecimal totalInvested = BigDecimal.ZERO;
+    private BigDecimal totalValue = BigDecimal.ZERO;
+    private BigDecimal totalUnrealizedPnl = BigDecimal.ZERO;
+    private BigDecimal pnlPercentage = BigDecimal.ZERO;
+    private List<AssetTypeSummary> byAssetType = new ArrayList<>();
+    private List<Mover> topGainers = new ArrayList<>();
+    private List<Mover> topLosers = new ArrayList<>();
+
+    public PortfolioSummary() {}
+
+    public PortfolioSummary(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getHoldingsCount() { return holdingsCount; }
+    public void setHoldingsCount(int holdingsCount) { this.holdingsCount = holdingsCount; }
+
+    public BigDecimal getTotalInvested() { return totalInvested; }
+    public void setTotalInvested(BigDecimal totalInvested) { this.totalInvested = totalInvested; }
+
+    public BigDecimal getTotalValue() { return totalValue; }
+    public void setTotalValue(BigDecimal totalValue) { this.totalValue = totalValue; }
+
+    public BigDecimal getTotalUnrealizedPnl() { return totalUnrealizedPnl; }
+    public void setTotalUnrealizedPnl(BigDecimal totalUnrealizedPnl) { this.totalUnrealizedPnl = totalUnrealizedPnl; }
+
+    public BigDecimal getPnlPercentage() { return pnlPercentage; }
+    public void setPnlPercentage(BigDecimal pnlPercentage) { this.pnlPercentage = pnlPercentage; }
+
+    public List<AssetTypeSummary> getByAssetType() { return byAssetType; }
+    public void setByAssetType(List<AssetTypeSummary> byAssetType) { this.byAssetType = byAssetType; }
+
+    public List<Mover> getTopGainers() { return topGainers; }
+    public void setTopGainers(List<Mover> topGainers) { this.topGainers = topGainers; }
+
+    public List<Mover> getTopLosers() { return topLosers; }
+    public void setTopLosers(List<Mover> topLosers) { this.topLosers = topLosers; }
+
+    /**
+     * Same columns as the portfolio_summary view, plus share of total value
+     */
+    public static class AssetTypeSummary {
+        private String assetType;
+        private int holdingsCount;
+        private BigDecimal totalInvested;
+        private BigDecimal currentValue;
+        private BigDecimal totalPnl;
+        private BigDecimal pnlPercentage;
+        private BigDecimal allocationPercentage;
+
+        public String getAssetType() { return assetType; }
+        public void setAssetType(String assetType) { this.assetType = assetType; }
+
+        public int getHoldingsCount() { return holdingsCount; }
+        public void setHoldingsCount(int holdingsCount) { this.holdingsCount = holdingsCount; }
+
+        public BigDecimal getTotalInvested() { return totalInvested; }
+        public void setTotalInvested(BigDecimal totalInvested) { this.totalInvested = totalInvested; }
+
+        public BigDecimal getCurrentValue() { return currentValue; }
+        public void setCurrentValue(BigDecimal currentValue) { this.currentValue = currentValue; }
+
+        public BigDecimal getTotalPnl() { return totalPnl; }
+        public void setTotalPnl(BigDecimal totalPnl) { this.totalPnl = totalPnl; }
+
+        public BigDecimal getPnlPercentage() { return pnlPercentage; }
+        public void setPnlPercentage(BigDecimal pnlPercentage) { this.pnlPercentage = pnlPercentage; }
+
+        public BigDecimal getAllocationPercentage() { return allocationPercentage; }
+        public void setAllocationPercentage(BigDecimal allocationPercentage) { this.allocationPercentage = allocationPercentage; }
+    }
+
+    public static class Mover {
+        private String symbol;
+        private String name;
+        private String assetType;
+        private BigDecimal unrealizedPnl;
+        private BigDecimal unrealizedPnlPercentage;
+
+        public Mover() {}
+
+        public Mover(String symbol, String name, String assetType,
+                     BigDecimal unrealizedPnl, BigDecimal unrealizedPnlPercentage) {
+            this.symbol = symbol;
+            this.name = name;
+            this.assetType = assetType;
+            this.unrealizedPnl = unrealizedPnl;
+            this.unrealizedPnlPercentage = unrealizedPnlPercentage;
+        }
+
+        public String getSymbol() { return symbol; }
+        public void setSymbol(String symbol) { this.symbol = symbol; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getAssetType() { return assetType; }
+        public void setAssetType(String assetType) { this.assetType = assetType; }
+
+        public BigDecimal getUnrealizedPnl() { return unrealizedPnl; }
+        public void setUnrealizedPnl(BigDecimal unrealizedPnl) { this.unrealizedPnl = unrealizedPnl; }
+
+        public BigDecimal getUnrealizedPnlPercentage() { return unrealizedPnlPercentage; }
+        public void setUnrealizedPnlPercentage(BigDecimal unrealizedPnlPercentage) { this.unrealizedPnlPercentage = unrealizedPnlPercentage; }
+    }
+}
@@ -0,0 +1,135 @@
+package com.finassist.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of replaying portfolio_transactions over stored holdings; methods that add to
+ * the report are synchronized because users are replayed in parallel
+ */
+public class RebuildReport {
+    private static final int MAX_REPORTED_DRIFTS = 100;
+
+    private boolean applied;
+    private long usersScanned;
+    private long usersFailed;
+    private long transactionsReplayed;
+    private long holdingsChecked;
+    private long holdingsDrifted;
+    private long holdingsRepaired;
+    private long holdingsUntracked;
+    private List<Drift> drifts = new ArrayList<>();
+    private List<String> failures = new ArrayList<>();
+    private long elapsedMillis;
+
+    public RebuildReport() {}
+
+    public RebuildReport(boolean applied) {
+        this.applied = applied;
+    }
+
+    /**
+     * Add one user's counts and drifts; only the first MAX_REPORTED_DRIFTS drifts are listed
+     */
+    public synchronized void addUser(long transactions, long checked, long untracked, long repaired, List<Drift> userDrifts) {
+        usersScanned++;
+        transactionsReplayed += transactions;
+        holdingsChecked += checked;
+        holdingsUntracked += untracked;
+        holdingsRepaired += repaired;
+        holdingsDrifted += userDrifts.size();
+        for (Drift drift : userDrifts) {
+            if (drifts.size() < MAX_REPORTED_DRIFTS) {
+                drifts.add(drift);
+            }
+        }
+    }
+
+    public synchronized void fail(Long userId, String reason) {
+        usersScanned++;
+        usersFailed++;
+        if (failures.size() < MAX_REPORTED_DRIFTS) {
+            failures.add("user " + userId + ": " + reason);
+        }
+    }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public long getUsersScanned() { return usersScanned; }
+    public void setUsersScanned(long usersScanned) { this.usersScanned = usersScanned; }
+
+    public long getUsersFailed() { return usersFailed; }
+    public void setUsersFailed(long usersFailed) { this.usersFailed = usersFailed; }
+
+    public long getTransactionsReplayed() { return transactionsReplayed; }
+    public void setTransactionsReplayed(long transactionsReplayed) { this.transactionsReplayed = transactionsReplayed; }
+
+    public long getHoldingsChecked() { return holdingsChecked; }
+    public void setHoldingsChecked(long holdingsChecked) { this.holdingsChecked = holdingsChecked; }
+
+    public long getHoldingsDrifted() { return holdingsDrifted; }
+    public void setHoldingsDrifted(long holdingsDrifted) { this.holdingsDrifted = holdingsDrifted; }
+
+    public long getHoldingsRepaired() { return holdingsRepaired; }
+    public void setHoldingsRepaired(long holdingsRepaired) { this.holdingsRepaired = holdingsRepaired; }
+
+    public long getHoldingsUntracked() { return holdingsUntracked; }
+    public void setHoldingsUntracked(long holdingsUntracked) { this.holdingsUntracked = holdingsUntracked; }
+
+    public List<Drift> getDrifts() { return drifts; }
+    public void setDrifts(List<Drift> drifts) { this.drifts = drifts; }
+
+    public List<String> getFailures() { return failures; }
+    public void setFailures(List<String> failures) { this.failures = failures; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    /**
+     * One holding whose stored row differs from the replay: kind is "mismatch" (both exist),
+     * "missing" (no stored row) or "extra" (stored row for a position the trades close out)
+     */
+    public static class Drift {
+        private Long userId;
+        private String symbol;
+        private String assetType;
+        private String kind;
+        private BigDecimal storedQuantity;
+        private BigDecimal rebuiltQuantity;
+        private BigDecimal storedInvested;
+        private BigDecimal rebuiltInvested;
+        private long oversells;
+
+        public Drift() {}
+
+        public Long getUserId() { return userId; }
+        public void setUserId(Long userId) { this.userId = userId; }
+
+        public String getSymbol() { return symbol; }
+        public void setSymbol(String symbol) { this.symbol = symbol; }
+
+        public String getAssetType() { return assetType; }
+        public void setAssetType(String assetType) { this.assetType = assetType; }
+
+        public String getKind() { return kind; }
+        public void setKind(String kind) { this.kind = kind; }
+
+        public BigDecimal getStoredQuantity() { return storedQuantity; }
+        public void setStoredQuantity(BigDecimal storedQuantity) { this.storedQuantity = storedQuantity; }
+
+        public BigDecimal getRebuiltQuantity() { return rebuiltQuantity; }
+        public void setRebuiltQuantity(BigDecimal rebuiltQuantity) { this.rebuiltQuantity = rebuiltQuantity; }
+
+        public BigDecimal getStoredInvested() { return storedInvested; }
+        public void setStoredInvested(BigDecimal storedInvested) { this.storedInvested = storedInvested; }
+
+        public BigDecimal getRebuiltInvested() { return rebuiltInvested; }
+        public void setRebuiltInvested(BigDecimal rebuiltInvested) { this.rebuiltInvested = rebuiltInvested; }
+
+        // Sells in the log of more than the replay held at that point (skipped, as the API would have)
+        public long getOversells() { return oversells; }
+        public void setOversells(long oversells) { this.oversells = oversells; }
+    }
+}
@@ -0,0 +1,44 @@
+package com.finassist.dto;
+
+import com.finassist.model.TaxCalculation;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TaxWhatIfRequest {
+    private TaxCalculation base;
+    private Range salaryIncome;
+    private Range deduction80c;
+    private List<Boolean> nps; // true = full 80CCD(1B) contribution
+    private List<String> financialYears;
+
+    public TaxCalculation getBase() { return base; }
+    public void setBase(TaxCalculation base) { this.base = base; }
+
+    public Range getSalaryIncome() { return salaryIncome; }
+    public void setSalaryIncome(Range salaryIncome) { this.salaryIncome = salaryIncome; }
+
+    public Range getDeduction80c() { return deduction80c; }
+    public void setDeduction80c(Range deduction80c) { this.deduction80c = deduction80c; }
+
+    public List<Boolean> getNps() { return nps; }
+    public void setNps(List<Boolean> nps) { this.nps = nps; }
+
+    public List<String> getFinancialYears() { return financialYears; }
+    public void setFinancialYears(List<String> financialYears) { this.financialYears = financialYears; }
+
+    public static class Range {
+        private BigDecimal from;
+        private BigDecimal to;
+        private BigDecimal step;
+
+        public BigDecimal getFrom() { return from; }
+        public void setFrom(BigDecimal from) { this.from = from; }
+
+        public BigDecimal getTo() { return to; }
+        public void setTo(BigDecimal to) { this.to = to; }
+
+        public BigDecimal getStep() { return step; }
+        public void setStep(BigDecimal step) { this.step = step; }
+    }
+}
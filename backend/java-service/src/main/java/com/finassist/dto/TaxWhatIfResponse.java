@@ -0,0 +1,93 @@
+package com.finassist.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class TaxWhatIfResponse {
+    private List<Scenario> scenarios;
+    private List<Breakeven> breakevens;
+    private String message;
+
+    public TaxWhatIfResponse(List<Scenario> scenarios, List<Breakeven> breakevens) {
+        this.scenarios = scenarios;
+        this.breakevens = breakevens;
+    }
+
+    public TaxWhatIfResponse(String message) {
+        this.message = message;
+    }
+
+    public List<Scenario> getScenarios() { return scenarios; }
+    public void setScenarios(List<Scenario> scenarios) { this.scenarios = scenarios; }
+
+    public List<Breakeven> getBreakevens() { return breakevens; }
+    public void setBreakevens(List<Breakeven> breakevens) { this.breakevens = breakevens; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public static class Scenario {
+        private String financialYear;
+        private boolean nps;
+        private BigDecimal salaryIncome;
+        private BigDecimal deduction80c;
+        private BigDecimal taxableIncome;
+        private BigDecimal taxOldRegime;
+        private BigDecimal taxNewRegime;
+        private String recommendedRegime;
+
+        public String getFinancialYear() { return financialYear; }
+        public void setFinancialYear(String financialYear) { this.financialYear = financialYear; }
+
+        public boolean isNps() { return nps; }
+        public void setNps(boolean nps) { this.nps = nps; }
+
+        public BigDecimal getSalaryIncome() { return salaryIncome; }
+        public void setSalaryIncome(BigDecimal salaryIncome) { this.salaryIncome = salaryIncome; }
+
+        public BigDecimal getDeduction80c() { return deduction80c; }
+        public void setDeduction80c(BigDecimal deduction80c) { this.deduction80c = deduction80c; }
+
+        public BigDecimal getTaxableIncome() { return taxableIncome; }
+        public void setTaxableIncome(BigDecimal taxableIncome) { this.taxableIncome = taxableIncome; }
+
+        public BigDecimal getTaxOldRegime() { return taxOldRegime; }
+        public void setTaxOldRegime(BigDecimal taxOldRegime) { this.taxOldRegime = taxOldRegime; }
+
+        public BigDecimal getTaxNewRegime() { return taxNewRegime; }
+        public void setTaxNewRegime(BigDecimal taxNewRegime) { this.taxNewRegime = taxNewRegime; }
+
+        public String getRecommendedRegime() { return recommendedRegime; }
+        public void setRecommendedRegime(String recommendedRegime) { this.recommendedRegime = recommendedRegime; }
+    }
+
+    /**
+     * Point on one axis where the recommended regime flips, with the other axis held fixed
+     */
+    public static class Breakeven {
+        private String financialYear;
+        private boolean nps;
+        private String axis; // 'salaryIncome' or 'deduction80c'
+        private BigDecimal salaryIncome;
+        private BigDecimal deduction80c;
+        private String recommendedRegime; // regime from this point onwards
+
+        public String getFinancialYear() { return financialYear; }
+        public void setFinancialYear(String financialYear) { this.financialYear = financialYear; }
+
+        public boolean isNps() { return nps; }
+        public void setNps(boolean nps) { this.nps = nps; }
+
+        public String getAxis() { return axis; }
+        public void setAxis(String axis) { this.axis = axis; }
+
+        public BigDecimal getSalaryIncome() { return salaryIncome; }
+        public void setSalaryIncome(BigDecimal salaryIncome) { this.salaryIncome = salaryIncome; }
+
+        public BigDecimal getDeduction80c() { return deduction80c; }
+        public void setDeduction80c(BigDecimal deduction80c) { this.deduction80c = deduction80c; }
+
+        public String getRecommendedRegime() { return recommendedRegime; }
+        public void setRecommendedRegime(String recommendedRegime) { this.recommendedRegime = recommendedRegime; }
+    }
+}
@@ -0,0 +1,48 @@
+package com.finassist.dto;
+
+import com.finassist.model.PortfolioSnapshot;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Portfolio value over a date range, one point per bucketDays days (the last snapshot in each)
+ */
+public class ValuationSeries {
+    private Long userId;
+    private String assetType; // null for the whole portfolio
+    private LocalDate from;
+    private LocalDate to;
+    private int bucketDays;
+    private List<PortfolioSnapshot> points;
+
+    public ValuationSeries() {}
+
+    public ValuationSeries(Long userId, String assetType, LocalDate from, LocalDate to, int bucketDays,
+                           List<PortfolioSnapshot> points) {
+        this.userId = userId;
+        this.assetType = assetType;
+        this.from = from;
+        this.to = to;
+        this.bucketDays = bucketDays;
+        this.points = points;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getAssetType() { return assetType; }
+    public void setAssetType(String assetType) { this.assetType = assetType; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public int getBucketDays() { return bucketDays; }
+    public void setBucketDays(int bucketDays) { this.bucketDays = bucketDays; }
+
+    public List<PortfolioSnapshot> getPoints() { return points; }
+    public void setPoints(List<PortfolioSnapshot> points) { this.points = points; }
+}
@@ -0,0 +1,46 @@
+package com.finassist.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per-user, per-month, per-category totals kept in step with budget_entries
+ */
+public class BudgetMonthlyRollup {
+    private Long userId;
+    private LocalDate month; // first day of the month
+    private String category;
+    private String type; // 'income' or 'expense'
+    private BigDecimal totalAmount;
+    private long entryCount;
+
+    public BudgetMonthlyRollup() {}
+
+    public BudgetMonthlyRollup(Long userId, LocalDate month, String category, String type,
+                               BigDecimal totalAmount, long entryCount) {
+        this.userId = userId;
+        this.month = month;
+        this.category = category;
+        this.type = type;
+        this.totalAmount = totalAmount;
+        this.entryCount = entryCount;
+    }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getMonth() { return month; }
+    public void setMonth(LocalDate month) { this.month = month; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public BigDecimal getTotalAmount() { return totalAmount; }
+    public void setTotalAmount(BigDecimal totalAmount) { this.totalAmount = totalAmount; }
+
+    public long getEntryCount() { return entryCount; }
+    public void setEntryCount(long entryCount) { this.entryCount = entryCount; }
+}
@@ -0,0 +1,48 @@
+package com.finassist.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One tax lot: a bought quantity (or opening balance) and how much of it is still held
+ */
+public class PortfolioLot {
+    private Long id;
+    private Long userId;
+    private Long transactionId; // null for an opening lot
+    private String assetType;
+    private String symbol;
+    private LocalDate acquiredDate;
+    private BigDecimal quantity;
+    private BigDecimal remainingQuantity;
+    private BigDecimal unitCost;
+
+    public PortfolioLot() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getAssetType() { return assetType; }
+    public void setAssetType(String assetType) { this.assetType = assetType; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public LocalDate getAcquiredDate() { return acquiredDate; }
+    public void setAcquiredDate(LocalDate acquiredDate) { this.acquiredDate = acquiredDate; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public BigDecimal getRemainingQuantity() { return remainingQuantity; }
+    public void setRemainingQuantity(BigDecimal remainingQuantity) { this.remainingQuantity = remainingQuantity; }
+
+    public BigDecimal getUnitCost() { return unitCost; }
+    public void setUnitCost(BigDecimal unitCost) { this.unitCost = unitCost; }
+}
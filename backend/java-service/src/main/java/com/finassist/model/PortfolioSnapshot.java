@@ -0,0 +1,40 @@
+package com.finassist.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * End-of-day valuation of a user's holdings of one asset type (null when summed over all types)
+ */
+public class PortfolioSnapshot {
+    private Long userId;
+    private LocalDate snapshotDate;
+    private String assetType;
+    private int holdingsCount;
+    private BigDecimal totalInvested;
+    private BigDecimal currentValue;
+    private BigDecimal unrealizedPnl;
+
+    public PortfolioSnapshot() {}
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public void setSnapshotDate(LocalDate snapshotDate) { this.snapshotDate = snapshotDate; }
+
+    public String getAssetType() { return assetType; }
+    public void setAssetType(String assetType) { this.assetType = assetType; }
+
+    public int getHoldingsCount() { return holdingsCount; }
+    public void setHoldingsCount(int holdingsCount) { this.holdingsCount = holdingsCount; }
+
+    public BigDecimal getTotalInvested() { return totalInvested; }
+    public void setTotalInvested(BigDecimal totalInvested) { this.totalInvested = totalInvested; }
+
+    public BigDecimal getCurrentValue() { return currentValue; }
+    public void setCurrentValue(BigDecimal currentValue) { this.currentValue = currentValue; }
+
+    public BigDecimal getUnrealizedPnl() { return unrealizedPnl; }
+    public void setUnrealizedPnl(BigDecimal unrealizedPnl) { this.unrealizedPnl = unrealizedPnl; }
+}
@@ -0,0 +1,68 @@
+package com.finassist.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Gain or loss realised when a sell consumed (part of) one lot
+ */
+public class RealizedGain {
+    private Long id;
+    private Long userId;
+    private Long lotId;
+    private Long transactionId; // the sell
+    private String assetType;
+    private String symbol;
+    private BigDecimal quantity;
+    private LocalDate acquiredDate;
+    private LocalDate soldDate;
+    private BigDecimal costBasis;
+    private BigDecimal proceeds;
+    private BigDecimal gain;
+    private String term; // 'short' or 'long'
+    private String financialYear; // '2024-25'
+
+    public RealizedGain() {}
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getLotId() { return lotId; }
+    public void setLotId(Long lotId) { this.lotId = lotId; }
+
+    public Long getTransactionId() { return transactionId; }
+    public void setTransactionId(Long transactionId) { this.transactionId = transactionId; }
+
+    public String getAssetType() { return assetType; }
+    public void setAssetType(String assetType) { this.assetType = assetType; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public LocalDate getAcquiredDate() { return acquiredDate; }
+    public void setAcquiredDate(LocalDate acquiredDate) { this.acquiredDate = acquiredDate; }
+
+    public LocalDate getSoldDate() { return soldDate; }
+    public void setSoldDate(LocalDate soldDate) { this.soldDate = soldDate; }
+
+    public BigDecimal getCostBasis() { return costBasis; }
+    public void setCostBasis(BigDecimal costBasis) { this.costBasis = costBasis; }
+
+    public BigDecimal getProceeds() { return proceeds; }
+    public void setProceeds(BigDecimal proceeds) { this.proceeds = proceeds; }
+
+    public BigDecimal getGain() { return gain; }
+    public void setGain(BigDecimal gain) { this.gain = gain; }
+
+    public String getTerm() { return term; }
+    public void setTerm(String term) { this.term = term; }
+
+    public String getFinancialYear() { return financialYear; }
+    public void setFinancialYear(String financialYear) { this.financialYear = financialYear; }
+}
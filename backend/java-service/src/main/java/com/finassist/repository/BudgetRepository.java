@@ -1,7 +1,11 @@
 package com.finassist.repository;
 
+import com.finassist.dto.BudgetEntryFilter;
+import com.finassist.dto.PageCursor;
 import com.finassist.model.BudgetEntry;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
@@ -9,9 +13,15 @@ import org.springframework.stereotype.Repository;
 
 import java.sql.Date;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class BudgetRepository {
@@ -61,18 +71,124 @@ public class BudgetRepository {
         return entry;
     }
 
-    public List<BudgetEntry> findByUserId(Long userId) {
-        String sql = "SELECT * FROM budget_entries WHERE user_id = ? ORDER BY entry_date DESC";
-        return jdbcTemplate.query(sql, budgetEntryRowMapper, userId);
+    /**
+     * Insert many entries in one JDBC batch (generated ids are not read back)
+     */
+    public int[] saveAll(List<BudgetEntry> entries) {
+        String sql = "INSERT INTO budget_entries (user_id, category, amount, type, description, entry_date) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BudgetEntry entry = entries.get(i);
+                ps.setLong(1, entry.getUserId());
+                ps.setString(2, entry.getCategory());
+                ps.setBigDecimal(3, entry.getAmount());
+                ps.setString(4, entry.getType());
+                ps.setString(5, entry.getDescription());
+                ps.setDate(6, Date.valueOf(entry.getEntryDate()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    /**
+     * Entries in a date range that existed before an import started (id <= maxId)
+     */
+    public List<BudgetEntry> findByUserIdAndDateRange(Long userId, LocalDate from, LocalDate to, long maxId) {
+        String sql = "SELECT id, user_id, category, amount, type, description, entry_date, created_at " +
+                     "FROM budget_entries WHERE user_id = ? AND entry_date BETWEEN ? AND ? AND id <= ?";
+        return jdbcTemplate.query(sql, budgetEntryRowMapper, userId, Date.valueOf(from), Date.valueOf(to), maxId);
+    }
+
+    /**
+     * Highest id among the user's own entries (0 if none); reads only their rows
+     */
+    public long findMaxIdByUserId(Long userId) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM budget_entries WHERE user_id = ?", Long.class, userId);
+        return maxId != null ? maxId : 0;
+    }
+
+    /**
+     * A user's newest entries, at most limit of them
+     */
+    public List<BudgetEntry> findByUserId(Long userId, int limit) {
+        String sql = "SELECT * FROM budget_entries WHERE user_id = ? ORDER BY entry_date DESC, id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, budgetEntryRowMapper, userId, limit);
+    }
+
+    /**
+     * One keyset page of entries, newest first
+     * Backed by idx_budget_user_date_id; the cursor continues strictly after (entry_date, id)
+     */
+    public List<BudgetEntry> findPage(Long userId, BudgetEntryFilter filter, PageCursor cursor, int limit) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT id, user_id, category, amount, type, description, entry_date, created_at " +
+            "FROM budget_entries WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        
+        if (filter.getFrom() != null) {
+            sql.append(" AND entry_date >= ?");
+            args.add(Date.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND entry_date <= ?");
+            args.add(Date.valueOf(filter.getTo()));
+        }
+        if (filter.getCategory() != null) {
+            sql.append(" AND category = ?");
+            args.add(filter.getCategory());
+        }
+        if (filter.getType() != null) {
+            sql.append(" AND type = ?");
+            args.add(filter.getType());
+        }
+        if (cursor != null) {
+            sql.append(" AND (entry_date, id) < (?, ?)");
+            args.add(Date.valueOf(cursor.getDate()));
+            args.add(cursor.getId());
+        }
+        sql.append(" ORDER BY entry_date DESC, id DESC LIMIT ?");
+        args.add(limit);
+        
+        return jdbcTemplate.query(sql.toString(), budgetEntryRowMapper, args.toArray());
+    }
+
+    /**
+     * Stream all entries for a user through a forward-only cursor, oldest first
+     * Must run inside a transaction so PostgreSQL honours the fetch size
+     */
+    public void streamByUserId(Long userId, int fetchSize, Consumer<BudgetEntry> consumer) {
+        String sql = "SELECT id, user_id, category, amount, type, description, entry_date, created_at " +
+                     "FROM budget_entries WHERE user_id = ? ORDER BY entry_date, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(budgetEntryRowMapper.mapRow(rs, rs.getRow())));
     }
 
-    public void deleteById(Long id) {
-        String sql = "DELETE FROM budget_entries WHERE id = ?";
-        jdbcTemplate.update(sql, id);
+    /**
+     * Delete a user's entry and return the removed row, if there was one
+     */
+    public Optional<BudgetEntry> deleteByIdAndUserId(Long id, Long userId) {
+        String sql = "DELETE FROM budget_entries WHERE id = ? AND user_id = ? " +
+                     "RETURNING id, user_id, category, amount, type, description, entry_date, created_at";
+        return jdbcTemplate.query(sql, budgetEntryRowMapper, id, userId).stream().findFirst();
     }
 
-    public List<BudgetEntry> findByUserIdAndType(Long userId, String type) {
-        String sql = "SELECT * FROM budget_entries WHERE user_id = ? AND type = ? ORDER BY entry_date DESC";
-        return jdbcTemplate.query(sql, budgetEntryRowMapper, userId, type);
+    /**
+     * A user's newest entries of one type, at most limit of them
+     */
+    public List<BudgetEntry> findByUserIdAndType(Long userId, String type, int limit) {
+        String sql = "SELECT * FROM budget_entries WHERE user_id = ? AND type = ? ORDER BY entry_date DESC, id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, budgetEntryRowMapper, userId, type, limit);
     }
 }
\ No newline at end of file
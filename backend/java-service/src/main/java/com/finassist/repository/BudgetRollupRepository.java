@@ -0,0 +1,121 @@
+package com.finassist.repository;
+
+import com.finassist.model.BudgetMonthlyRollup;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+public class BudgetRollupRepository {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO budget_monthly_rollups (user_id, month, category, type, total_amount, entry_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (user_id, month, category, type) DO UPDATE SET " +
+        "total_amount = budget_monthly_rollups.total_amount + EXCLUDED.total_amount, " +
+        "entry_count = budget_monthly_rollups.entry_count + EXCLUDED.entry_count, " +
+        "updated_at = CURRENT_TIMESTAMP";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BudgetRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private final RowMapper<BudgetMonthlyRollup> rollupRowMapper = (rs, rowNum) -> {
+        BudgetMonthlyRollup rollup = new BudgetMonthlyRollup();
+        rollup.setUserId(rs.getLong("user_id"));
+        rollup.setMonth(rs.getDate("month").toLocalDate());
+        rollup.setCategory(rs.getString("category"));
+        rollup.setType(rs.getString("type"));
+        rollup.setTotalAmount(rs.getBigDecimal("total_amount"));
+        rollup.setEntryCount(rs.getLong("entry_count"));
+        return rollup;
+    };
+
+    /**
+     * Add a delta (possibly negative) to one rollup row, creating it if needed
+     * Rows whose count drops to zero are removed
+     */
+    public void applyDelta(BudgetMonthlyRollup delta) {
+        jdbcTemplate.update(UPSERT_SQL, delta.getUserId(), Date.valueOf(delta.getMonth()), delta.getCategory(),
+                delta.getType(), delta.getTotalAmount(), delta.getEntryCount());
+        
+        if (delta.getEntryCount() < 0) {
+            jdbcTemplate.update("DELETE FROM budget_monthly_rollups " +
+                                "WHERE user_id = ? AND month = ? AND category = ? AND type = ? AND entry_count <= 0",
+                    delta.getUserId(), Date.valueOf(delta.getMonth()), delta.getCategory(), delta.getType());
+        }
+    }
+
+    /**
+     * Apply positive deltas in one JDBC batch (used for bulk inserts)
+     */
+    public void applyDeltas(List<BudgetMonthlyRollup> deltas) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                BudgetMonthlyRollup delta = deltas.get(i);
+                ps.setLong(1, delta.getUserId());
+                ps.setDate(2, Date.valueOf(delta.getMonth()));
+                ps.setString(3, delta.getCategory());
+                ps.setString(4, delta.getType());
+                ps.setBigDecimal(5, delta.getTotalAmount());
+                ps.setLong(6, delta.getEntryCount());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    /**
+     * Rollup rows for a user, oldest month first; either bound may be null
+     */
+    public List<BudgetMonthlyRollup> findByUserId(Long userId, LocalDate fromMonth, LocalDate toMonth) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT user_id, month, category, type, total_amount, entry_count " +
+            "FROM budget_monthly_rollups WHERE user_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        
+        if (fromMonth != null) {
+            sql.append(" AND month >= ?");
+            args.add(Date.valueOf(fromMonth));
+        }
+        if (toMonth != null) {
+            sql.append(" AND month <= ?");
+            args.add(Date.valueOf(toMonth));
+        }
+        sql.append(" ORDER BY month, type, category");
+        
+        return jdbcTemplate.query(sql.toString(), rollupRowMapper, args.toArray());
+    }
+
+    /**
+     * Recompute a user's rollups from budget_entries
+     * Call inside a transaction so readers never see the user without rollups
+     */
+    public int rebuildForUser(Long userId) {
+        jdbcTemplate.update("DELETE FROM budget_monthly_rollups WHERE user_id = ?", userId);
+        String sql = "INSERT INTO budget_monthly_rollups (user_id, month, category, type, total_amount, entry_count) " +
+                     "SELECT user_id, DATE_TRUNC('month', entry_date)::date, category, type, SUM(amount), COUNT(*) " +
+                     "FROM budget_entries WHERE user_id = ? " +
+                     "GROUP BY user_id, DATE_TRUNC('month', entry_date)::date, category, type";
+        return jdbcTemplate.update(sql, userId);
+    }
+
+    public List<Long> findUserIdsWithEntries() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM budget_entries WHERE user_id IS NOT NULL", Long.class);
+    }
+}
@@ -115,8 +115,8 @@ public class GoalRepository {
         jdbcTemplate.update(sql, status, goalId);
     }
 
-    public void delete(Long goalId) {
-        String sql = "DELETE FROM financial_goals WHERE id = ?";
-        jdbcTemplate.update(sql, goalId);
+    public boolean delete(Long goalId, Long userId) {
+        String sql = "DELETE FROM financial_goals WHERE id = ? AND user_id = ?";
+        return jdbcTemplate.update(sql, goalId, userId) > 0;
     }
 }
\ No newline at end of file
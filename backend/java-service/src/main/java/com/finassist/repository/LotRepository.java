@@ -0,0 +1,193 @@
+package com.finassist.repository;
+
+import com.finassist.model.PortfolioLot;
+import com.finassist.model.RealizedGain;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class LotRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private final RowMapper<PortfolioLot> lotRowMapper = (rs, rowNum) -> {
+        PortfolioLot lot = new PortfolioLot();
+        lot.setId(rs.getLong("id"));
+        lot.setUserId(rs.getLong("user_id"));
+        long transactionId = rs.getLong("transaction_id");
+        lot.setTransactionId(rs.wasNull() ? null : transactionId);
+        lot.setAssetType(rs.getString("asset_type"));
+        lot.setSymbol(rs.getString("symbol"));
+        lot.setAcquiredDate(rs.getDate("acquired_date").toLocalDate());
+        lot.setQuantity(rs.getBigDecimal("quantity"));
+        lot.setRemainingQuantity(rs.getBigDecimal("remaining_quantity"));
+        lot.setUnitCost(rs.getBigDecimal("unit_cost"));
+        return lot;
+    };
+
+    private final RowMapper<RealizedGain> gainRowMapper = (rs, rowNum) -> {
+        RealizedGain gain = new RealizedGain();
+        gain.setId(rs.getLong("id"));
+        gain.setUserId(rs.getLong("user_id"));
+        gain.setLotId(rs.getLong("lot_id"));
+        long transactionId = rs.getLong("transaction_id");
+        gain.setTransactionId(rs.wasNull() ? null : transactionId);
+        gain.setAssetType(rs.getString("asset_type"));
+        gain.setSymbol(rs.getString("symbol"));
+        gain.setQuantity(rs.getBigDecimal("quantity"));
+        gain.setAcquiredDate(rs.getDate("acquired_date").toLocalDate());
+        gain.setSoldDate(rs.getDate("sold_date").toLocalDate());
+        gain.setCostBasis(rs.getBigDecimal("cost_basis"));
+        gain.setProceeds(rs.getBigDecimal("proceeds"));
+        gain.setGain(rs.getBigDecimal("gain"));
+        gain.setTerm(rs.getString("term"));
+        gain.setFinancialYear(rs.getString("financial_year"));
+        return gain;
+    };
+
+    /**
+     * Take n ids from the lots sequence in one round trip, so lots can be referenced before they are inserted
+     */
+    public List<Long> reserveIds(int n) {
+        String sql = "SELECT nextval('portfolio_lots_id_seq') FROM generate_series(1, ?)";
+        return jdbcTemplate.queryForList(sql, Long.class, n);
+    }
+
+    /**
+     * Open lots of one holding, oldest first (served by the partial index idx_lots_open)
+     */
+    public List<PortfolioLot> findOpenLots(Long userId, String symbol, String assetType) {
+        String sql = "SELECT * FROM portfolio_lots WHERE user_id = ? AND symbol = ? AND asset_type = ? " +
+                     "AND remaining_quantity > 0 ORDER BY acquired_date, id";
+        return jdbcTemplate.query(sql, lotRowMapper, userId, symbol, assetType);
+    }
+
+    public List<PortfolioLot> findOpenLotsByUserId(Long userId) {
+        String sql = "SELECT * FROM portfolio_lots WHERE user_id = ? AND remaining_quantity > 0 " +
+                     "ORDER BY symbol, asset_type, acquired_date, id";
+        return jdbcTemplate.query(sql, lotRowMapper, userId);
+    }
+
+    /**
+     * Insert lots with their reserved ids in one JDBC batch
+     */
+    public int[] insertLots(List<PortfolioLot> lots) {
+        String sql = "INSERT INTO portfolio_lots (id, user_id, transaction_id, asset_type, symbol, acquired_date, " +
+                     "quantity, remaining_quantity, unit_cost) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PortfolioLot lot = lots.get(i);
+                ps.setLong(1, lot.getId());
+                ps.setLong(2, lot.getUserId());
+                if (lot.getTransactionId() != null) {
+                    ps.setLong(3, lot.getTransactionId());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+                ps.setString(4, lot.getAssetType());
+                ps.setString(5, lot.getSymbol());
+                ps.setDate(6, Date.valueOf(lot.getAcquiredDate()));
+                ps.setBigDecimal(7, lot.getQuantity());
+                ps.setBigDecimal(8, lot.getRemainingQuantity());
+                ps.setBigDecimal(9, lot.getUnitCost());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lots.size();
+            }
+        });
+    }
+
+    /**
+     * Write the remaining quantity of many lots in one JDBC batch
+     */
+    public int[] updateRemaining(List<PortfolioLot> lots) {
+        String sql = "UPDATE portfolio_lots SET remaining_quantity = ? WHERE id = ?";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setBigDecimal(1, lots.get(i).getRemainingQuantity());
+                ps.setLong(2, lots.get(i).getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lots.size();
+            }
+        });
+    }
+
+    public int[] insertGains(List<RealizedGain> gains) {
+        String sql = "INSERT INTO portfolio_realized_gains (user_id, lot_id, transaction_id, asset_type, symbol, " +
+                     "quantity, acquired_date, sold_date, cost_basis, proceeds, gain, term, financial_year) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                RealizedGain gain = gains.get(i);
+                ps.setLong(1, gain.getUserId());
+                ps.setLong(2, gain.getLotId());
+                if (gain.getTransactionId() != null) {
+                    ps.setLong(3, gain.getTransactionId());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+                ps.setString(4, gain.getAssetType());
+                ps.setString(5, gain.getSymbol());
+                ps.setBigDecimal(6, gain.getQuantity());
+                ps.setDate(7, Date.valueOf(gain.getAcquiredDate()));
+                ps.setDate(8, Date.valueOf(gain.getSoldDate()));
+                ps.setBigDecimal(9, gain.getCostBasis());
+                ps.setBigDecimal(10, gain.getProceeds());
+                ps.setBigDecimal(11, gain.getGain());
+                ps.setString(12, gain.getTerm());
+                ps.setString(13, gain.getFinancialYear());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return gains.size();
+            }
+        });
+    }
+
+    public List<RealizedGain> findGains(Long userId, String financialYear) {
+        if (financialYear == null) {
+            String sql = "SELECT * FROM portfolio_realized_gains WHERE user_id = ? ORDER BY sold_date DESC, id DESC";
+            return jdbcTemplate.query(sql, gainRowMapper, userId);
+        }
+        String sql = "SELECT * FROM portfolio_realized_gains WHERE user_id = ? AND financial_year = ? " +
+                     "ORDER BY sold_date DESC, id DESC";
+        return jdbcTemplate.query(sql, gainRowMapper, userId, financialYear);
+    }
+
+    /**
+     * Net realised gain per term ("short", "long") for one financial year
+     */
+    public Map<String, BigDecimal> sumGainsByTerm(Long userId, String financialYear) {
+        String sql = "SELECT term, SUM(gain) AS total FROM portfolio_realized_gains " +
+                     "WHERE user_id = ? AND financial_year = ? GROUP BY term";
+        Map<String, BigDecimal> totals = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            totals.put(rs.getString("term"), rs.getBigDecimal("total"));
+        }, userId, financialYear);
+        return totals;
+    }
+}
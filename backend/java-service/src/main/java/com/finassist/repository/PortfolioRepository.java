@@ -1,24 +1,41 @@
 package com.finassist.repository;
 
+import com.finassist.dto.PageCursor;
 import com.finassist.model.PortfolioHolding;
 import com.finassist.model.PortfolioTransaction;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.Date;
 import java.sql.PreparedStatement;
-import java.sql.Statement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class PortfolioRepository {
 
+    /**
+     * Insert of one row per holding from parallel arrays, bound by holdingRows; callers add the ON CONFLICT clause
+     */
+    private static final String HOLDING_ROWS_INSERT =
+        "INSERT INTO portfolio_holdings AS h (user_id, symbol, asset_type, name, quantity, " +
+        "average_buy_price, total_invested, current_price, current_value, unrealized_pnl, " +
+        "unrealized_pnl_percentage) " +
+        "SELECT ?, c.* FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::numeric[], ?::numeric[], " +
+        "?::numeric[], ?::numeric[], ?::numeric[], ?::numeric[], ?::numeric[]) AS c ";
+
     private final JdbcTemplate jdbcTemplate;
 
     public PortfolioRepository(JdbcTemplate jdbcTemplate) {
@@ -54,7 +71,8 @@ public class PortfolioRepository {
         PortfolioTransaction transaction = new PortfolioTransaction();
         transaction.setId(rs.getLong("id"));
         transaction.setUserId(rs.getLong("user_id"));
-        transaction.setHoldingId(rs.getLong("holding_id"));
+        long holdingId = rs.getLong("holding_id");
+        transaction.setHoldingId(rs.wasNull() ? null : holdingId);
         transaction.setTransactionType(rs.getString("transaction_type"));
         transaction.setAssetType(rs.getString("asset_type"));
         transaction.setSymbol(rs.getString("symbol"));
@@ -69,40 +87,192 @@ public class PortfolioRepository {
         return transaction;
     };
 
+    /**
+     * Insert or update a holding and return the row as stored
+     * Without a new price the stored one is kept and value/P&L are recomputed against it
+     */
     public PortfolioHolding saveHolding(PortfolioHolding holding) {
-        String sql = "INSERT INTO portfolio_holdings (user_id, asset_type, symbol, name, exchange, quantity, " +
+        String price = "COALESCE(EXCLUDED.current_price, h.current_price)";
+        String sql = "INSERT INTO portfolio_holdings AS h (user_id, asset_type, symbol, name, exchange, quantity, " +
                      "average_buy_price, total_invested, current_price, current_value, unrealized_pnl, " +
                      "unrealized_pnl_percentage, broker, notes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
                      "ON CONFLICT (user_id, symbol, asset_type) DO UPDATE SET " +
                      "quantity = EXCLUDED.quantity, average_buy_price = EXCLUDED.average_buy_price, " +
-                     "total_invested = EXCLUDED.total_invested, updated_at = CURRENT_TIMESTAMP";
+                     "total_invested = EXCLUDED.total_invested, current_price = " + price + ", " +
+                     valuationColumns("EXCLUDED.quantity", "EXCLUDED.total_invested", price) + ", " +
+                     "updated_at = CURRENT_TIMESTAMP " +
+                     "RETURNING *";
+        
+        List<PortfolioHolding> saved = jdbcTemplate.query(sql, holdingRowMapper,
+            holding.getUserId(),
+            holding.getAssetType(),
+            holding.getSymbol(),
+            holding.getName(),
+            holding.getExchange(),
+            holding.getQuantity(),
+            holding.getAverageBuyPrice(),
+            holding.getTotalInvested(),
+            holding.getCurrentPrice(),
+            holding.getCurrentValue(),
+            holding.getUnrealizedPnl(),
+            holding.getUnrealizedPnlPercentage(),
+            holding.getBroker(),
+            holding.getNotes());
+        return saved.get(0);
+    }
+
+    /**
+     * Add a bought lot to the user's holding in one statement, creating the holding on the first buy
+     * Concurrent buys of the same symbol queue on the row lock and each adds to the committed quantity
+     */
+    public PortfolioHolding applyBuy(PortfolioHolding lot) {
+        String quantity = "(h.quantity + EXCLUDED.quantity)";
+        String invested = "(h.total_invested + EXCLUDED.total_invested)";
+        String price = "COALESCE(h.current_price, EXCLUDED.current_price)";
+        String sql = "INSERT INTO portfolio_holdings AS h (user_id, asset_type, symbol, name, exchange, quantity, " +
+                     "average_buy_price, total_invested, current_price, current_value, unrealized_pnl, " +
+                     "unrealized_pnl_percentage, broker) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                     "ON CONFLICT (user_id, symbol, asset_type) DO UPDATE SET " +
+                     "quantity = " + quantity + ", total_invested = " + invested + ", " +
+                     "average_buy_price = ROUND(" + invested + " / " + quantity + ", 2), " +
+                     "current_price = " + price + ", " + valuationColumns(quantity, invested, price) + ", " +
+                     "updated_at = CURRENT_TIMESTAMP " +
+                     "RETURNING *";
         
-        KeyHolder keyHolder = new GeneratedKeyHolder();
+        return jdbcTemplate.query(sql, holdingRowMapper,
+            lot.getUserId(),
+            lot.getAssetType(),
+            lot.getSymbol(),
+            lot.getName(),
+            lot.getExchange(),
+            lot.getQuantity(),
+            lot.getAverageBuyPrice(),
+            lot.getTotalInvested(),
+            lot.getCurrentPrice(),
+            lot.getCurrentValue(),
+            lot.getUnrealizedPnl(),
+            lot.getUnrealizedPnlPercentage(),
+            lot.getBroker()).get(0);
+    }
+
+    /**
+     * Take a sold quantity out of the user's holding at its average cost, in one statement
+     * Empty if there is no holding or it holds less than the quantity sold
+     */
+    public Optional<PortfolioHolding> applySell(Long userId, String symbol, String assetType, BigDecimal quantity) {
+        String remaining = "(h.quantity - s.quantity)";
+        String invested = "(h.total_invested - ROUND(h.average_buy_price * s.quantity, 2))";
+        String sql = "UPDATE portfolio_holdings AS h SET quantity = " + remaining + ", total_invested = " + invested + ", " +
+                     valuationColumns(remaining, invested, "h.current_price") + ", updated_at = CURRENT_TIMESTAMP " +
+                     "FROM (SELECT CAST(? AS NUMERIC) AS quantity) s " +
+                     "WHERE h.user_id = ? AND h.symbol = ? AND h.asset_type = ? AND h.quantity >= s.quantity " +
+                     "RETURNING h.*";
+        return jdbcTemplate.query(sql, holdingRowMapper, quantity, userId, symbol, assetType).stream().findFirst();
+    }
+
+    /**
+     * Add many per-holding changes for one user in one statement, creating holdings that do not exist yet
+     * Each row carries the change in quantity and invested amount plus the values a new holding starts with;
+     * on conflict the change is added to the stored row, so a holding another trade just created is merged
+     * (its average recomputed as a buy would). Holdings the caller has locked go through replaceHoldingPositions.
+     */
+    public List<PortfolioHolding> upsertHoldingChanges(Long userId, List<PortfolioHolding> changes) {
+        String quantity = "(h.quantity + EXCLUDED.quantity)";
+        String invested = "(h.total_invested + EXCLUDED.total_invested)";
+        String price = "COALESCE(h.current_price, EXCLUDED.current_price)";
+        String sql = HOLDING_ROWS_INSERT + "ON CONFLICT (user_id, symbol, asset_type) DO UPDATE SET " +
+                     "quantity = " + quantity + ", total_invested = " + invested + ", " +
+                     "average_buy_price = CASE WHEN " + quantity + " > 0 " +
+                     "THEN ROUND(" + invested + " / " + quantity + ", 2) ELSE h.average_buy_price END, " +
+                     "current_price = " + price + ", " + valuationColumns(quantity, invested, price) + ", " +
+                     "updated_at = CURRENT_TIMESTAMP " +
+                     "RETURNING *";
         
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setLong(1, holding.getUserId());
-            ps.setString(2, holding.getAssetType());
-            ps.setString(3, holding.getSymbol());
-            ps.setString(4, holding.getName());
-            ps.setString(5, holding.getExchange());
-            ps.setBigDecimal(6, holding.getQuantity());
-            ps.setBigDecimal(7, holding.getAverageBuyPrice());
-            ps.setBigDecimal(8, holding.getTotalInvested());
-            ps.setBigDecimal(9, holding.getCurrentPrice());
-            ps.setBigDecimal(10, holding.getCurrentValue());
-            ps.setBigDecimal(11, holding.getUnrealizedPnl());
-            ps.setBigDecimal(12, holding.getUnrealizedPnlPercentage());
-            ps.setString(13, holding.getBroker());
-            ps.setString(14, holding.getNotes());
+        return jdbcTemplate.query(holdingRows(sql, userId, changes), holdingRowMapper);
+    }
+
+    /**
+     * Lock a user's holdings in the given symbols for the rest of the transaction
+     */
+    public List<PortfolioHolding> findHoldingsForUpdate(Long userId, Collection<String> symbols) {
+        String sql = "SELECT * FROM portfolio_holdings WHERE user_id = ? AND symbol = ANY(?) FOR UPDATE";
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setLong(1, userId);
+            ps.setArray(2, connection.createArrayOf("varchar", symbols.toArray()));
             return ps;
-        }, keyHolder);
+        }, holdingRowMapper);
+    }
+
+    /**
+     * Lock all of a user's holdings for the rest of the transaction
+     */
+    public List<PortfolioHolding> findHoldingsByUserIdForUpdate(Long userId) {
+        String sql = "SELECT * FROM portfolio_holdings WHERE user_id = ? FOR UPDATE";
+        return jdbcTemplate.query(sql, holdingRowMapper, userId);
+    }
+
+    /**
+     * Overwrite quantity, invested amount and average price of many holdings for one user in one
+     * statement, creating holdings that do not exist; value and P&L are recomputed at the stored price
+     */
+    public List<PortfolioHolding> replaceHoldingPositions(Long userId, List<PortfolioHolding> positions) {
+        String price = "COALESCE(h.current_price, EXCLUDED.current_price)";
+        String sql = HOLDING_ROWS_INSERT + "ON CONFLICT (user_id, symbol, asset_type) DO UPDATE SET " +
+                     "quantity = EXCLUDED.quantity, total_invested = EXCLUDED.total_invested, " +
+                     "average_buy_price = EXCLUDED.average_buy_price, current_price = " + price + ", " +
+                     valuationColumns("EXCLUDED.quantity", "EXCLUDED.total_invested", price) + ", " +
+                     "updated_at = CURRENT_TIMESTAMP " +
+                     "RETURNING *";
         
-        Map<String, Object> keys = keyHolder.getKeys();
-        if (keys != null && keys.containsKey("id")) {
-            holding.setId(((Number) keys.get("id")).longValue());
-        }
-        return holding;
+        return jdbcTemplate.query(holdingRows(sql, userId, positions), holdingRowMapper);
+    }
+
+    /**
+     * Delete a user's holdings that have been sold down to nothing
+     */
+    public int deleteEmptyHoldings(Long userId, Collection<Long> holdingIds) {
+        String sql = "DELETE FROM portfolio_holdings WHERE user_id = ? AND id = ANY(?) AND quantity <= 0";
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setLong(1, userId);
+            ps.setArray(2, connection.createArrayOf("bigint", holdingIds.toArray()));
+            return ps;
+        });
+    }
+
+    /**
+     * Binds the user id and one array per column of HOLDING_ROWS_INSERT from the given holdings
+     */
+    private static PreparedStatementCreator holdingRows(String sql, Long userId, List<PortfolioHolding> rows) {
+        return connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setLong(1, userId);
+            ps.setArray(2, connection.createArrayOf("varchar", rows.stream().map(PortfolioHolding::getSymbol).toArray()));
+            ps.setArray(3, connection.createArrayOf("varchar", rows.stream().map(PortfolioHolding::getAssetType).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar", rows.stream().map(PortfolioHolding::getName).toArray()));
+            ps.setArray(5, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getQuantity).toArray()));
+            ps.setArray(6, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getAverageBuyPrice).toArray()));
+            ps.setArray(7, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getTotalInvested).toArray()));
+            ps.setArray(8, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getCurrentPrice).toArray()));
+            ps.setArray(9, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getCurrentValue).toArray()));
+            ps.setArray(10, connection.createArrayOf("numeric", rows.stream().map(PortfolioHolding::getUnrealizedPnl).toArray()));
+            ps.setArray(11, connection.createArrayOf("numeric",
+                rows.stream().map(PortfolioHolding::getUnrealizedPnlPercentage).toArray()));
+            return ps;
+        };
+    }
+
+    /**
+     * SET fragment recomputing current value and unrealized P&L from SQL expressions
+     * A null price leaves them null, as for a holding that has never been priced
+     */
+    private static String valuationColumns(String quantity, String invested, String price) {
+        String value = quantity + " * " + price;
+        return "current_value = ROUND(" + value + ", 2), " +
+               "unrealized_pnl = ROUND(" + value + " - " + invested + ", 2), " +
+               "unrealized_pnl_percentage = CASE WHEN " + invested + " > 0 " +
+               "THEN ROUND((" + value + " - " + invested + ") * 100 / " + invested + ", 2) ELSE 0 END";
     }
 
     // NEW METHOD: Find holding by ID
@@ -144,44 +314,185 @@ public class PortfolioRepository {
         jdbcTemplate.update(sql, currentPrice, currentValue, unrealizedPnl, unrealizedPnlPercentage, holdingId);
     }
 
-    public PortfolioTransaction saveTransaction(PortfolioTransaction transaction) {
-        String sql = "INSERT INTO portfolio_transactions (user_id, holding_id, transaction_type, asset_type, " +
-                     "symbol, quantity, price, total_amount, fees, transaction_date, broker, notes) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setLong(1, transaction.getUserId());
-            ps.setLong(2, transaction.getHoldingId());
-            ps.setString(3, transaction.getTransactionType());
-            ps.setString(4, transaction.getAssetType());
-            ps.setString(5, transaction.getSymbol());
-            ps.setBigDecimal(6, transaction.getQuantity());
-            ps.setBigDecimal(7, transaction.getPrice());
-            ps.setBigDecimal(8, transaction.getTotalAmount());
-            ps.setBigDecimal(9, transaction.getFees());
-            ps.setDate(10, Date.valueOf(transaction.getTransactionDate()));
-            ps.setString(11, transaction.getBroker());
-            ps.setString(12, transaction.getNotes());
+    /**
+     * Next page of ids of holdings (across all users) in the given symbols, after afterId
+     * Keyset paging keeps each market tick's work bounded however popular a symbol is.
+     */
+    public List<Long> findHoldingIdsBySymbols(Collection<String> symbols, long afterId, int limit) {
+        String sql = "SELECT id FROM portfolio_holdings WHERE symbol = ANY(?) AND id > ? ORDER BY id LIMIT ?";
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("varchar", symbols.toArray()));
+            ps.setLong(2, afterId);
+            ps.setInt(3, limit);
             return ps;
-        }, keyHolder);
-        
-        Map<String, Object> keys = keyHolder.getKeys();
-        if (keys != null && keys.containsKey("id")) {
-            transaction.setId(((Number) keys.get("id")).longValue());
-        }
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Set new prices on the given holdings and recompute value and P&L in one UPDATE ... FROM
+     * Prices are rounded to the column's 2 places first, so holdings already at their symbol's
+     * stored price are left alone; returns the rows that changed
+     */
+    public List<PortfolioHolding> repriceHoldings(Collection<Long> holdingIds, Map<String, BigDecimal> prices) {
+        String sql = "UPDATE portfolio_holdings AS h SET current_price = p.price, " +
+                     valuationColumns("h.quantity", "h.total_invested", "p.price") + ", " +
+                     "last_price_update = CURRENT_TIMESTAMP " +
+                     "FROM (SELECT symbol, ROUND(price, 2) AS price " +
+                     "FROM unnest(?::varchar[], ?::numeric[]) AS u(symbol, price)) AS p " +
+                     "WHERE h.id = ANY(?) AND h.symbol = p.symbol AND h.current_price IS DISTINCT FROM p.price " +
+                     "RETURNING h.*";
+        List<String> symbols = new ArrayList<>(prices.keySet());
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("varchar", symbols.toArray()));
+            ps.setArray(2, connection.createArrayOf("numeric", symbols.stream().map(prices::get).toArray()));
+            ps.setArray(3, connection.createArrayOf("bigint", holdingIds.toArray()));
+            return ps;
+        }, holdingRowMapper);
+    }
+
+    /**
+     * Write price and P&L columns for many holdings in one JDBC batch.
+     * The holdings must already carry the recalculated values.
+     */
+    public int[] batchUpdateHoldingPrices(List<PortfolioHolding> holdings) {
+        String sql = "UPDATE portfolio_holdings SET current_price = ?, current_value = ?, " +
+                     "unrealized_pnl = ?, unrealized_pnl_percentage = ?, last_price_update = CURRENT_TIMESTAMP " +
+                     "WHERE id = ?";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PortfolioHolding holding = holdings.get(i);
+                ps.setBigDecimal(1, holding.getCurrentPrice());
+                ps.setBigDecimal(2, holding.getCurrentValue());
+                ps.setBigDecimal(3, holding.getUnrealizedPnl());
+                ps.setBigDecimal(4, holding.getUnrealizedPnlPercentage());
+                ps.setLong(5, holding.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return holdings.size();
+            }
+        });
+    }
+
+    /**
+     * Take n ids from the transactions sequence in one round trip, so lots and gains can reference
+     * trades before they are inserted
+     */
+    public List<Long> reserveTransactionIds(int n) {
+        String sql = "SELECT nextval('portfolio_transactions_id_seq') FROM generate_series(1, ?)";
+        return jdbcTemplate.queryForList(sql, Long.class, n);
+    }
+
+    /**
+     * Insert a transaction under its reserved id
+     */
+    public PortfolioTransaction saveTransaction(PortfolioTransaction transaction) {
+        saveTransactions(List.of(transaction));
         return transaction;
     }
 
+    /**
+     * Insert many transactions under their reserved ids in one JDBC batch
+     */
+    public int[] saveTransactions(List<PortfolioTransaction> transactions) {
+        String sql = "INSERT INTO portfolio_transactions (id, user_id, holding_id, transaction_type, asset_type, " +
+                     "symbol, quantity, price, total_amount, fees, transaction_date, broker, notes) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PortfolioTransaction transaction = transactions.get(i);
+                ps.setLong(1, transaction.getId());
+                ps.setLong(2, transaction.getUserId());
+                if (transaction.getHoldingId() != null) {
+                    ps.setLong(3, transaction.getHoldingId());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+                ps.setString(4, transaction.getTransactionType());
+                ps.setString(5, transaction.getAssetType());
+                ps.setString(6, transaction.getSymbol());
+                ps.setBigDecimal(7, transaction.getQuantity());
+                ps.setBigDecimal(8, transaction.getPrice());
+                ps.setBigDecimal(9, transaction.getTotalAmount());
+                ps.setBigDecimal(10, transaction.getFees());
+                ps.setDate(11, Date.valueOf(transaction.getTransactionDate()));
+                ps.setString(12, transaction.getBroker());
+                ps.setString(13, transaction.getNotes());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return transactions.size();
+            }
+        });
+    }
+
     public List<PortfolioTransaction> findTransactionsByUserId(Long userId) {
         String sql = "SELECT * FROM portfolio_transactions WHERE user_id = ? ORDER BY transaction_date DESC LIMIT 100";
         return jdbcTemplate.query(sql, transactionRowMapper, userId);
     }
 
-    public void deleteHolding(Long holdingId) {
-        String sql = "DELETE FROM portfolio_holdings WHERE id = ?";
-        jdbcTemplate.update(sql, holdingId);
+    /**
+     * One keyset page of transactions, newest first, continuing after (transaction_date, id)
+     */
+    public List<PortfolioTransaction> findTransactionsPage(Long userId, PageCursor cursor, int limit) {
+        if (cursor == null) {
+            String sql = "SELECT * FROM portfolio_transactions WHERE user_id = ? " +
+                         "ORDER BY transaction_date DESC, id DESC LIMIT ?";
+            return jdbcTemplate.query(sql, transactionRowMapper, userId, limit);
+        }
+        String sql = "SELECT * FROM portfolio_transactions WHERE user_id = ? AND (transaction_date, id) < (?, ?) " +
+                     "ORDER BY transaction_date DESC, id DESC LIMIT ?";
+        return jdbcTemplate.query(sql, transactionRowMapper,
+            userId, Date.valueOf(cursor.getDate()), cursor.getId(), limit);
+    }
+
+    /**
+     * Stream all transactions for a user through a forward-only cursor, oldest first
+     * Must run inside a transaction so PostgreSQL honours the fetch size
+     */
+    public void streamTransactionsByUserId(Long userId, int fetchSize, Consumer<PortfolioTransaction> consumer) {
+        String sql = "SELECT * FROM portfolio_transactions WHERE user_id = ? ORDER BY transaction_date, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(transactionRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Stream a user's transactions grouped by holding (symbol, asset type) and in the order they
+     * were applied (id order), through a forward-only cursor; must run inside a transaction
+     */
+    public void streamTransactionsForReplay(Long userId, int fetchSize, Consumer<PortfolioTransaction> consumer) {
+        String sql = "SELECT * FROM portfolio_transactions WHERE user_id = ? ORDER BY symbol, asset_type, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(transactionRowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    /**
+     * Every user with holdings or transactions, ascending
+     */
+    public List<Long> findUserIdsWithPortfolio() {
+        String sql = "SELECT user_id FROM portfolio_transactions UNION SELECT user_id FROM portfolio_holdings ORDER BY 1";
+        return jdbcTemplate.queryForList(sql, Long.class);
+    }
+
+    /**
+     * Delete a user's holding and return the removed row, if there was one
+     */
+    public Optional<PortfolioHolding> deleteHolding(Long holdingId, Long userId) {
+        String sql = "DELETE FROM portfolio_holdings WHERE id = ? AND user_id = ? RETURNING *";
+        return jdbcTemplate.query(sql, holdingRowMapper, holdingId, userId).stream().findFirst();
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.finassist.repository;
+
+import com.finassist.model.PortfolioSnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class SnapshotRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SnapshotRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    private final RowMapper<PortfolioSnapshot> snapshotRowMapper = (rs, rowNum) -> {
+        PortfolioSnapshot snapshot = new PortfolioSnapshot();
+        snapshot.setUserId(rs.getLong("user_id"));
+        snapshot.setSnapshotDate(rs.getDate("snapshot_date").toLocalDate());
+        snapshot.setAssetType(rs.getString("asset_type"));
+        snapshot.setHoldingsCount(rs.getInt("holdings_count"));
+        snapshot.setTotalInvested(rs.getBigDecimal("total_invested"));
+        snapshot.setCurrentValue(rs.getBigDecimal("current_value"));
+        snapshot.setUnrealizedPnl(rs.getBigDecimal("unrealized_pnl"));
+        return snapshot;
+    };
+
+    /**
+     * Lowest and highest user id with holdings, or null when there are none
+     */
+    public long[] findHoldingUserIdRange() {
+        return jdbcTemplate.query("SELECT MIN(user_id), MAX(user_id) FROM portfolio_holdings", rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[] {min, rs.getLong(2)};
+        });
+    }
+
+    /**
+     * Replace the date's snapshots for users in [fromUserId, toUserId] with one row per user and
+     * asset type, aggregated from their holdings in one statement; unpriced holdings count at cost
+     */
+    public int snapshotUsers(LocalDate date, long fromUserId, long toUserId) {
+        jdbcTemplate.update("DELETE FROM portfolio_daily_snapshots WHERE snapshot_date = ? AND user_id BETWEEN ? AND ?",
+            Date.valueOf(date), fromUserId, toUserId);
+        String sql = "INSERT INTO portfolio_daily_snapshots (user_id, snapshot_date, asset_type, holdings_count, " +
+                     "total_invested, current_value, unrealized_pnl) " +
+                     "SELECT user_id, ?, asset_type, COUNT(*), SUM(total_invested), " +
+                     "SUM(COALESCE(current_value, total_invested)), SUM(COALESCE(unrealized_pnl, 0)) " +
+                     "FROM portfolio_holdings WHERE user_id BETWEEN ? AND ? GROUP BY user_id, asset_type";
+        return jdbcTemplate.update(sql, Date.valueOf(date), fromUserId, toUserId);
+    }
+
+    /**
+     * A user's daily totals between from and to (optionally one asset type), keeping the last day of
+     * each bucketDays-day bucket counted back from to; one range read on the primary key
+     */
+    public List<PortfolioSnapshot> findSeries(Long userId, String assetType, LocalDate from, LocalDate to,
+                                              int bucketDays) {
+        String typeFilter = assetType != null ? "AND asset_type = ? " : "";
+        String sql = "SELECT * FROM (" +
+                     "SELECT DISTINCT ON (bucket) * FROM (" +
+                     "SELECT user_id, snapshot_date, CAST(? AS VARCHAR) AS asset_type, " +
+                     "SUM(holdings_count) AS holdings_count, SUM(total_invested) AS total_invested, " +
+                     "SUM(current_value) AS current_value, SUM(unrealized_pnl) AS unrealized_pnl, " +
+                     "(CAST(? AS DATE) - snapshot_date) / ? AS bucket " +
+                     "FROM portfolio_daily_snapshots WHERE user_id = ? AND snapshot_date BETWEEN ? AND ? " + typeFilter +
+                     "GROUP BY user_id, snapshot_date) days " +
+                     "ORDER BY bucket, snapshot_date DESC) points " +
+                     "ORDER BY snapshot_date";
+        if (assetType != null) {
+            return jdbcTemplate.query(sql, snapshotRowMapper, assetType, Date.valueOf(to), bucketDays,
+                userId, Date.valueOf(from), Date.valueOf(to), assetType);
+        }
+        return jdbcTemplate.query(sql, snapshotRowMapper, null, Date.valueOf(to), bucketDays,
+            userId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
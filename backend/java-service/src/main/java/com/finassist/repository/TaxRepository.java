@@ -2,16 +2,19 @@ package com.finassist.repository;
 
 import com.finassist.model.TaxCalculation;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class TaxRepository {
@@ -96,6 +99,20 @@ public class TaxRepository {
         return jdbcTemplate.query(sql, taxRowMapper, userId);
     }
 
+    /**
+     * Stream all tax calculations for a user through a forward-only cursor, oldest first
+     * Must run inside a transaction so PostgreSQL honours the fetch size
+     */
+    public void streamByUserId(Long userId, int fetchSize, Consumer<TaxCalculation> consumer) {
+        String sql = "SELECT * FROM tax_calculations WHERE user_id = ? ORDER BY created_at, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, userId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(taxRowMapper.mapRow(rs, rs.getRow())));
+    }
+
     public Optional<TaxCalculation> findByUserIdAndYear(Long userId, String year) {
         String sql = "SELECT * FROM tax_calculations WHERE user_id = ? AND financial_year = ? ORDER BY created_at DESC LIMIT 1";
         try {
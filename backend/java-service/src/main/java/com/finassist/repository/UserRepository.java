@@ -3,14 +3,9 @@ package com.finassist.repository;
 import com.finassist.model.User;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
-import java.sql.Statement;
 import java.util.Optional;
-import java.util.Map;
 
 @Repository
 public class UserRepository {
@@ -31,32 +26,24 @@ public class UserRepository {
         return user;
     };
 
-    public User save(User user) {
-        String sql = "INSERT INTO users (username, email, password_hash) VALUES (?, ?, ?)";
-        
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, user.getUsername());
-            ps.setString(2, user.getEmail());
-            ps.setString(3, user.getPasswordHash());
-            return ps;
-        }, keyHolder);
-        
-        // FIX: Get the ID from the key map
-        Map<String, Object> keys = keyHolder.getKeys();
-        if (keys != null && keys.containsKey("id")) {
-            user.setId(((Number) keys.get("id")).longValue());
-        } else {
-            // Fallback: query for the user we just created
-            Optional<User> savedUser = findByEmail(user.getEmail());
-            if (savedUser.isPresent()) {
-                user.setId(savedUser.get().getId());
-            }
-        }
-        
-        return user;
+    /**
+     * Insert a user in one round trip, returning the new id
+     * Empty if the email or username is already taken (no exception, no race)
+     */
+    public Optional<Long> insertIfAbsent(User user) {
+        String sql = "INSERT INTO users (username, email, password_hash) VALUES (?, ?, ?) " +
+                     "ON CONFLICT DO NOTHING RETURNING id";
+        return jdbcTemplate.queryForList(sql, Long.class, user.getUsername(), user.getEmail(), user.getPasswordHash())
+                .stream().findFirst();
+    }
+
+    /**
+     * Which unique column blocks a registration: "email" or "username"
+     */
+    public String findConflictingField(String email, String username) {
+        String sql = "SELECT CASE WHEN EXISTS (SELECT 1 FROM users WHERE email = ?) THEN 'email' " +
+                     "WHEN EXISTS (SELECT 1 FROM users WHERE username = ?) THEN 'username' END";
+        return jdbcTemplate.queryForObject(sql, String.class, email, username);
     }
 
     public Optional<User> findByEmail(String email) {
@@ -79,15 +66,9 @@ public class UserRepository {
         }
     }
 
-    public boolean existsByEmail(String email) {
-        String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, email);
-        return count != null && count > 0;
-    }
-
-    public boolean existsByUsername(String username) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, username);
-        return count != null && count > 0;
+    public boolean existsById(Long id) {
+        String sql = "SELECT EXISTS (SELECT 1 FROM users WHERE id = ?)";
+        Boolean exists = jdbcTemplate.queryForObject(sql, Boolean.class, id);
+        return Boolean.TRUE.equals(exists);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package com.finassist.security;
+
+/**
+ * Caller identity taken from a verified bearer token
+ * Stored as a request attribute by {@link JwtAuthenticationFilter}
+ */
+public class AuthenticatedUser {
+
+    public static final String ATTRIBUTE = "com.finassist.authenticatedUser";
+
+    private final Long userId;
+    private final String email;
+
+    public AuthenticatedUser(Long userId, String email) {
+        this.userId = userId;
+        this.email = email;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    /**
+     * True if the given user id (e.g. from a path variable) is this caller
+     */
+    public boolean owns(Long userId) {
+        return this.userId.equals(userId);
+    }
+}
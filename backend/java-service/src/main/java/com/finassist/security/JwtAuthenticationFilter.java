@@ -0,0 +1,93 @@
+package com.finassist.security;
+
+import com.finassist.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the bearer token on /api/** once per request and stores the caller
+ * as an {@link AuthenticatedUser} request attribute. Login/register and CORS
+ * preflight requests pass through untouched.
+ */
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserStatusCache userStatusCache;
+    private final Timer validTokens;
+    private final Timer invalidTokens;
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserStatusCache userStatusCache, MeterRegistry registry) {
+        this.jwtService = jwtService;
+        this.userStatusCache = userStatusCache;
+        this.validTokens = verifyTimer(registry, "valid");
+        this.invalidTokens = verifyTimer(registry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("finassist.jwt.verify")
+                .description("Bearer token verification, cached or not")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/")
+                || path.startsWith("/api/auth/")
+                || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            unauthorized(response, "Missing bearer token");
+            return;
+        }
+        
+        Claims claims;
+        long started = System.nanoTime();
+        try {
+            claims = jwtService.extractAllClaims(header.substring(BEARER_PREFIX.length()).trim());
+            validTokens.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidTokens.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            unauthorized(response, "Invalid or expired token");
+            return;
+        }
+        
+        Long userId = claims.get("userId", Long.class);
+        if (userId == null || !userStatusCache.isActive(userId)) {
+            unauthorized(response, "Unknown user");
+            return;
+        }
+        
+        request.setAttribute(AuthenticatedUser.ATTRIBUTE, new AuthenticatedUser(userId, claims.getSubject()));
+        chain.doFilter(request, response);
+    }
+
+    private void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+}
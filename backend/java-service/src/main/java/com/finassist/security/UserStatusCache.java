@@ -0,0 +1,41 @@
+package com.finassist.security;
+
+import com.finassist.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Size-bounded cache of whether a user id still exists, so a deleted account's tokens
+ * stop working within the TTL without a users lookup on every request. A miss checks
+ * outside the cache's locks; two requests racing on one miss both query, which is cheaper
+ * than making every request for that user wait.
+ */
+@Component
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> statuses;
+
+    public UserStatusCache(UserRepository userRepository,
+                           @Value("${auth.user-status.ttl-ms:60000}") long ttlMillis,
+                           @Value("${auth.user-status.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    public boolean isActive(Long userId) {
+        Boolean active = statuses.getIfPresent(userId);
+        if (active == null) {
+            active = userRepository.existsById(userId);
+            statuses.put(userId, active);
+        }
+        return active;
+    }
+}
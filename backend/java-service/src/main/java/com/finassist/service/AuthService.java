@@ -5,64 +5,87 @@ import com.finassist.dto.LoginRequest;
 import com.finassist.dto.RegisterRequest;
 import com.finassist.model.User;
 import com.finassist.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtService jwtService;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    // Runs the database step after hashing, so the bounded hashing pool never waits on JDBC
+    private final Executor taskExecutor;
 
-    public AuthService(UserRepository userRepository, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, JwtService jwtService,
+                       PasswordHashingService passwordHashingService,
+                       @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingService = passwordHashingService;
+        this.taskExecutor = taskExecutor;
     }
 
-    public AuthResponse register(RegisterRequest request) {
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            return new AuthResponse("Email already registered");
+    /**
+     * Register a user; hashing runs on the password hashing pool, the insert on the task executor
+     * Taken emails/usernames are turned away before hashing; the insert still enforces uniqueness
+     * in a single statement for sign-ups that race past that check
+     * Throws RejectedExecutionException when the hashing pool is saturated
+     */
+    public CompletableFuture<AuthResponse> register(RegisterRequest request) {
+        String taken = userRepository.findConflictingField(request.getEmail(), request.getUsername());
+        if (taken != null) {
+            return CompletableFuture.completedFuture(conflict(taken));
         }
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            return new AuthResponse("Username already taken");
-        }
+        return passwordHashingService.encode(request.getPassword()).thenApplyAsync(hashedPassword -> {
+            // Create new user, or learn which unique key is taken
+            User user = new User(request.getUsername(), request.getEmail(), hashedPassword);
+            Optional<Long> userId = userRepository.insertIfAbsent(user);
+            if (userId.isEmpty()) {
+                return conflict(userRepository.findConflictingField(request.getEmail(), request.getUsername()));
+            }
+            user.setId(userId.get());
 
-        // Create new user
-        String hashedPassword = passwordEncoder.encode(request.getPassword());
-        User user = new User(request.getUsername(), request.getEmail(), hashedPassword);
-        user = userRepository.save(user);
+            // Generate token
+            String token = jwtService.generateToken(user.getId(), user.getEmail());
 
-        // Generate token
-        String token = jwtService.generateToken(user.getId(), user.getEmail());
+            return new AuthResponse(token, user.getId(), user.getUsername());
+        }, taskExecutor);
+    }
 
-        return new AuthResponse(token, user.getId(), user.getUsername());
+    private static AuthResponse conflict(String field) {
+        return new AuthResponse("username".equals(field) ? "Username already taken" : "Email already registered");
     }
 
-    public AuthResponse login(LoginRequest request) {
+    /**
+     * Log in; password verification runs on the password hashing pool
+     * Throws RejectedExecutionException when that pool is saturated
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
         // Find user by email
         Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
         
         if (userOptional.isEmpty()) {
-            return new AuthResponse("Invalid email or password");
+            return CompletableFuture.completedFuture(new AuthResponse("Invalid email or password"));
         }
 
         User user = userOptional.get();
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            return new AuthResponse("Invalid email or password");
-        }
+        return passwordHashingService.matches(request.getPassword(), user.getPasswordHash()).thenApply(matches -> {
+            if (!matches) {
+                return new AuthResponse("Invalid email or password");
+            }
 
-        // Generate token
-        String token = jwtService.generateToken(user.getId(), user.getEmail());
+            // Generate token
+            String token = jwtService.generateToken(user.getId(), user.getEmail());
 
-        return new AuthResponse(token, user.getId(), user.getUsername());
+            return new AuthResponse(token, user.getId(), user.getUsername());
+        });
     }
-}
\ No newline at end of file
+}
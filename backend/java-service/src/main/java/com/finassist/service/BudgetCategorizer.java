@@ -0,0 +1,74 @@
+package com.finassist.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keyword-based category guess for imported bank statement lines.
+ * Categories match the ones offered by the budget tracker page.
+ */
+@Component
+public class BudgetCategorizer {
+
+    private static final Map<String, List<String>> EXPENSE_KEYWORDS = new LinkedHashMap<>();
+    private static final Map<String, List<String>> INCOME_KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        EXPENSE_KEYWORDS.put("Food", List.of("swiggy", "zomato", "restaurant", "cafe", "bigbasket",
+            "blinkit", "zepto", "dmart", "grocery", "dominos", "mcdonald", "starbucks"));
+        EXPENSE_KEYWORDS.put("Transport", List.of("uber", "ola", "rapido", "metro", "irctc", "fastag",
+            "petrol", "fuel", "indian oil", "hpcl", "bpcl", "redbus"));
+        EXPENSE_KEYWORDS.put("Shopping", List.of("amazon", "flipkart", "myntra", "ajio", "nykaa", "meesho"));
+        EXPENSE_KEYWORDS.put("Bills", List.of("electricity", "bescom", "broadband", "airtel", "jio",
+            "vodafone", "recharge", "gas", "water bill", "rent", "emi"));
+        EXPENSE_KEYWORDS.put("Entertainment", List.of("netflix", "hotstar", "prime video", "spotify",
+            "bookmyshow", "pvr", "inox"));
+        EXPENSE_KEYWORDS.put("Healthcare", List.of("pharmacy", "apollo", "medplus", "hospital", "clinic",
+            "1mg", "pharmeasy", "insurance"));
+        EXPENSE_KEYWORDS.put("Education", List.of("school", "college", "university", "udemy", "coursera",
+            "byju", "tuition"));
+        EXPENSE_KEYWORDS.put("Investment", List.of("zerodha", "groww", "upstox", "mutual fund", "sip",
+            "ppf", "nps"));
+
+        INCOME_KEYWORDS.put("Salary", List.of("salary", "payroll", "sal cr"));
+        INCOME_KEYWORDS.put("Investment", List.of("dividend", "interest", "int.pd", "redemption"));
+        INCOME_KEYWORDS.put("Freelance", List.of("upwork", "fiverr", "invoice", "consulting"));
+    }
+
+    public String categorize(String description, String type) {
+        if (description != null) {
+            String text = description.toLowerCase(Locale.ROOT);
+            Map<String, List<String>> rules = "income".equals(type) ? INCOME_KEYWORDS : EXPENSE_KEYWORDS;
+            for (Map.Entry<String, List<String>> rule : rules.entrySet()) {
+                for (String keyword : rule.getValue()) {
+                    if (containsWord(text, keyword)) {
+                        return rule.getKey();
+                    }
+                }
+            }
+        }
+        return "Other";
+    }
+
+    /**
+     * Keyword match on word boundaries, so "ola" does not match "granola"
+     */
+    private static boolean containsWord(String text, String keyword) {
+        int from = 0;
+        int index;
+        while ((index = text.indexOf(keyword, from)) >= 0) {
+            int end = index + keyword.length();
+            boolean startsWord = index == 0 || !Character.isLetter(text.charAt(index - 1));
+            boolean endsWord = end == text.length() || !Character.isLetter(text.charAt(end));
+            if (startsWord && endsWord) {
+                return true;
+            }
+            from = index + 1;
+        }
+        return false;
+    }
+}
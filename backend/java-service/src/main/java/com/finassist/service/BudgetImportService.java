@@ -0,0 +1,392 @@
+package com.finassist.service;
+
+import com.finassist.dto.ImportResult;
+import com.finassist.model.BudgetEntry;
+import com.finassist.repository.BudgetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of bank statements (CSV or OFX) into budget entries.
+ *
+ * The file is parsed line by line and inserted in chunks, each chunk in one
+ * JDBC batch and one transaction together with its monthly rollup deltas. Lines matching an entry the user already had
+ * before the import, by (date, type, amount, description), are skipped; every
+ * existing entry absorbs at most one imported line.
+ */
+@Service
+public class BudgetImportService {
+
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+        DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+        DateTimeFormatter.ofPattern("dd/MM/yy"),
+        DateTimeFormatter.ofPattern("dd.MM.yyyy"),
+        new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd-MMM-yyyy").toFormatter(Locale.ENGLISH),
+        new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("dd MMM yyyy").toFormatter(Locale.ENGLISH),
+        DateTimeFormatter.BASIC_ISO_DATE
+    );
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetService budgetService;
+    private final BudgetCategorizer budgetCategorizer;
+    private final int chunkSize;
+
+    public BudgetImportService(BudgetRepository budgetRepository,
+                               BudgetService budgetService,
+                               BudgetCategorizer budgetCategorizer,
+                               @Value("${budget.import.chunk-size:1000}") int chunkSize) {
+        this.budgetRepository = budgetRepository;
+        this.budgetService = budgetService;
+        this.budgetCategorizer = budgetCategorizer;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult importStatement(Long userId, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        Import run = new Import(userId, budgetRepository.findMaxIdByUserId(userId));
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.mark(8192);
+            String first = firstNonBlankLine(reader);
+            reader.reset();
+            
+            if (first != null && (first.startsWith("OFXHEADER") || first.toUpperCase(Locale.ROOT).contains("<OFX>"))) {
+                parseOfx(reader, run);
+            } else {
+                parseCsv(reader, run);
+            }
+        }
+        flush(run);
+        
+        ImportResult result = run.result;
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        result.setRowsPerSecond(result.getRowsRead() * 1_000_000_000.0 / Math.max(1, System.nanoTime() - start));
+        return result;
+    }
+
+    private void parseCsv(BufferedReader reader, Import run) throws IOException {
+        CsvLayout layout = null;
+        String line;
+        long lineNumber = 0;
+        
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> cells = splitCsv(line);
+            
+            if (layout == null) {
+                layout = CsvLayout.detect(cells);
+                if (layout.fromHeader) {
+                    continue;
+                }
+            }
+            
+            run.result.setRowsRead(run.result.getRowsRead() + 1);
+            try {
+                LocalDate date = parseDate(layout.cell(cells, layout.date));
+                String description = layout.cell(cells, layout.description);
+                BigDecimal amount;
+                if (layout.amount >= 0) {
+                    amount = parseAmount(layout.cell(cells, layout.amount));
+                    String type = layout.cell(cells, layout.type);
+                    if (type != null && type.trim().toLowerCase(Locale.ROOT).matches("dr|debit|d")) {
+                        amount = amount.abs().negate();
+                    }
+                } else {
+                    String debit = layout.cell(cells, layout.debit);
+                    String credit = layout.cell(cells, layout.credit);
+                    amount = debit != null && !debit.isBlank()
+                            ? parseAmount(debit).abs().negate()
+                            : parseAmount(credit).abs();
+                }
+                accept(run, lineNumber, date, amount, description);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                run.result.reject(lineNumber, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Minimal OFX/QFX reader: one STMTTRN block per transaction, SGML or XML style tags
+     */
+    private void parseOfx(BufferedReader reader, Import run) throws IOException {
+        Map<String, String> fields = null;
+        long blockStart = 0;
+        long lineNumber = 0;
+        String line;
+        
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            String upper = trimmed.toUpperCase(Locale.ROOT);
+            
+            if (upper.startsWith("<STMTTRN>")) {
+                fields = new HashMap<>();
+                blockStart = lineNumber;
+            } else if (upper.startsWith("</STMTTRN>") && fields != null) {
+                run.result.setRowsRead(run.result.getRowsRead() + 1);
+                try {
+                    String posted = fields.get("DTPOSTED");
+                    if (posted == null || posted.length() < 8) {
+                        throw new IllegalArgumentException("Missing DTPOSTED");
+                    }
+                    LocalDate date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+                    String description = fields.getOrDefault("NAME", fields.get("MEMO"));
+                    accept(run, blockStart, date, parseAmount(fields.get("TRNAMT")), description);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    run.result.reject(blockStart, e.getMessage());
+                }
+                fields = null;
+            } else if (fields != null && trimmed.startsWith("<") && !trimmed.startsWith("</")) {
+                int close = trimmed.indexOf('>');
+                if (close > 1) {
+                    String value = trimmed.substring(close + 1);
+                    int end = value.indexOf('<');
+                    fields.put(upper.substring(1, close), (end >= 0 ? value.substring(0, end) : value).trim());
+                }
+            }
+        }
+    }
+
+    private void accept(Import run, long lineNumber, LocalDate date, BigDecimal signedAmount, String description) {
+        if (signedAmount.signum() == 0) {
+            run.result.reject(lineNumber, "Zero amount");
+            return;
+        }
+        BigDecimal amount = signedAmount.abs().setScale(2, RoundingMode.HALF_UP);
+        if (amount.compareTo(MAX_AMOUNT) > 0) {
+            run.result.reject(lineNumber, "Amount too large");
+            return;
+        }
+        
+        String type = signedAmount.signum() < 0 ? "expense" : "income";
+        String trimmedDescription = description != null && !description.isBlank() ? description.trim() : null;
+        BudgetEntry entry = new BudgetEntry(run.userId, budgetCategorizer.categorize(trimmedDescription, type),
+                amount, type, trimmedDescription, date);
+        
+        run.chunk.add(entry);
+        if (run.chunk.size() >= chunkSize) {
+            flush(run);
+        }
+    }
+
+    private void flush(Import run) {
+        if (run.chunk.isEmpty()) {
+            return;
+        }
+        
+        LocalDate from = run.chunk.get(0).getEntryDate();
+        LocalDate to = from;
+        for (BudgetEntry entry : run.chunk) {
+            from = entry.getEntryDate().isBefore(from) ? entry.getEntryDate() : from;
+            to = entry.getEntryDate().isAfter(to) ? entry.getEntryDate() : to;
+        }
+        
+        // Count pre-existing entries per key, once per date across all chunks
+        for (BudgetEntry existing : budgetRepository.findByUserIdAndDateRange(run.userId, from, to, run.maxExistingId)) {
+            if (!run.loadedDates.contains(existing.getEntryDate())) {
+                run.existing.merge(key(existing), 1, Integer::sum);
+            }
+        }
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            run.loadedDates.add(date);
+        }
+        
+        List<BudgetEntry> fresh = new ArrayList<>(run.chunk.size());
+        for (BudgetEntry entry : run.chunk) {
+            String key = key(entry);
+            Integer remaining = run.existing.get(key);
+            if (remaining != null && remaining > 0) {
+                run.existing.put(key, remaining - 1);
+            } else {
+                fresh.add(entry);
+            }
+        }
+        
+        budgetService.addEntries(fresh);
+        run.result.setRowsImported(run.result.getRowsImported() + fresh.size());
+        run.result.setDuplicatesSkipped(run.result.getDuplicatesSkipped() + run.chunk.size() - fresh.size());
+        run.chunk.clear();
+    }
+
+    private static String key(BudgetEntry entry) {
+        String description = entry.getDescription() != null ? entry.getDescription().trim() : "";
+        return entry.getEntryDate() + "|" + entry.getType() + "|"
+                + entry.getAmount().setScale(2, RoundingMode.HALF_UP).toPlainString() + "|" + description;
+    }
+
+    static LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing date");
+        }
+        String trimmed = value.trim();
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(trimmed, format);
+            } catch (DateTimeParseException e) {
+                // Try the next format
+            }
+        }
+        throw new IllegalArgumentException("Unrecognised date: " + trimmed);
+    }
+
+    static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing amount");
+        }
+        String cleaned = value.replace(",", "").replace("₹", "").replace("INR", "").replace("Rs.", "").trim();
+        boolean negative = cleaned.startsWith("(") && cleaned.endsWith(")");
+        if (negative) {
+            cleaned = cleaned.substring(1, cleaned.length() - 1).trim();
+        }
+        String upper = cleaned.toUpperCase(Locale.ROOT);
+        if (upper.endsWith("DR") || upper.endsWith("CR")) {
+            negative = upper.endsWith("DR");
+            cleaned = cleaned.substring(0, cleaned.length() - 2).trim();
+        }
+        try {
+            BigDecimal amount = new BigDecimal(cleaned);
+            return negative ? amount.abs().negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unrecognised amount: " + value.trim());
+        }
+    }
+
+    private static String firstNonBlankLine(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                return line.trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields
+     */
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * Column positions, taken from a header row or defaulting to date,description,amount
+     */
+    private static final class CsvLayout {
+        private int date = 0;
+        private int description = 1;
+        private int amount = 2;
+        private int debit = -1;
+        private int credit = -1;
+        private int type = -1;
+        private boolean fromHeader;
+
+        static CsvLayout detect(List<String> cells) {
+            CsvLayout layout = new CsvLayout();
+            try {
+                parseDate(cells.get(0));
+                return layout;
+            } catch (IllegalArgumentException e) {
+                // Not a data row, read it as a header
+            }
+            
+            layout.fromHeader = true;
+            layout.date = layout.description = layout.amount = -1;
+            for (int i = 0; i < cells.size(); i++) {
+                String name = cells.get(i).trim().toLowerCase(Locale.ROOT);
+                if (layout.date < 0 && name.contains("date")) {
+                    layout.date = i;
+                } else if (layout.description < 0 && name.matches(".*(description|narration|particulars|details|remarks).*")) {
+                    layout.description = i;
+                } else if (layout.debit < 0 && name.matches(".*(debit|withdrawal).*")) {
+                    layout.debit = i;
+                } else if (layout.credit < 0 && name.matches(".*(credit|deposit).*")) {
+                    layout.credit = i;
+                } else if (layout.amount < 0 && name.contains("amount")) {
+                    layout.amount = i;
+                } else if (layout.type < 0 && name.matches("type|dr/cr|cr/dr")) {
+                    layout.type = i;
+                }
+            }
+            
+            if (layout.date < 0 || (layout.amount < 0 && (layout.debit < 0 || layout.credit < 0))) {
+                throw new IllegalArgumentException("CSV header needs a date column and an amount or debit/credit columns");
+            }
+            if (layout.debit >= 0 && layout.credit >= 0) {
+                layout.amount = -1;
+            }
+            return layout;
+        }
+
+        String cell(List<String> cells, int index) {
+            return index >= 0 && index < cells.size() ? cells.get(index) : null;
+        }
+    }
+
+    /**
+     * State for one import run
+     */
+    private static final class Import {
+        private final Long userId;
+        private final long maxExistingId;
+        private final ImportResult result = new ImportResult();
+        private final List<BudgetEntry> chunk = new ArrayList<>();
+        private final Map<String, Integer> existing = new HashMap<>();
+        private final Set<LocalDate> loadedDates = new HashSet<>();
+
+        Import(Long userId, long maxExistingId) {
+            this.userId = userId;
+            this.maxExistingId = maxExistingId;
+        }
+    }
+}
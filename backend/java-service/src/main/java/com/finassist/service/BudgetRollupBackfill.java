@@ -0,0 +1,52 @@
+package com.finassist.service;
+
+import com.finassist.repository.BudgetRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Populates budget_monthly_rollups from existing entries
+ * Enable once with budget.rollups.backfill-on-startup=true after adding the table
+ */
+@Component
+public class BudgetRollupBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetRollupBackfill.class);
+
+    private final BudgetService budgetService;
+    private final BudgetRollupRepository budgetRollupRepository;
+    private final boolean backfillOnStartup;
+
+    public BudgetRollupBackfill(BudgetService budgetService,
+                                BudgetRollupRepository budgetRollupRepository,
+                                @Value("${budget.rollups.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.budgetService = budgetService;
+        this.budgetRollupRepository = budgetRollupRepository;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (backfillOnStartup) {
+            run();
+        }
+    }
+
+    /**
+     * Rebuild rollups for every user with entries, one transaction per user
+     */
+    public int run() {
+        long start = System.currentTimeMillis();
+        int users = 0;
+        for (Long userId : budgetRollupRepository.findUserIdsWithEntries()) {
+            budgetService.rebuildRollups(userId);
+            users++;
+        }
+        log.info("Rebuilt budget rollups for {} users in {} ms", users, System.currentTimeMillis() - start);
+        return users;
+    }
+}
@@ -1,33 +1,193 @@
 package com.finassist.service;
 
+import com.finassist.dto.BudgetEntryFilter;
+import com.finassist.dto.BudgetSummary;
+import com.finassist.dto.CursorPage;
+import com.finassist.dto.PageCursor;
 import com.finassist.model.BudgetEntry;
+import com.finassist.model.BudgetMonthlyRollup;
 import com.finassist.repository.BudgetRepository;
+import com.finassist.repository.BudgetRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class BudgetService {
 
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
     private final BudgetRepository budgetRepository;
+    private final BudgetRollupRepository budgetRollupRepository;
+    private final UserReadCache userReadCache;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public BudgetService(BudgetRepository budgetRepository) {
+    public BudgetService(BudgetRepository budgetRepository,
+                         BudgetRollupRepository budgetRollupRepository,
+                         UserReadCache userReadCache,
+                         @Value("${api.page.default-size:50}") int defaultPageSize,
+                         @Value("${api.page.max-size:200}") int maxPageSize) {
         this.budgetRepository = budgetRepository;
+        this.budgetRollupRepository = budgetRollupRepository;
+        this.userReadCache = userReadCache;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    @Transactional
     public BudgetEntry addEntry(BudgetEntry entry) {
-        return budgetRepository.save(entry);
+        BudgetEntry saved = budgetRepository.save(entry);
+        budgetRollupRepository.applyDelta(rollupDelta(saved, 1));
+        userReadCache.invalidate(UserReadCache.BUDGET_ENTRIES, saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * Insert many entries and their rollup deltas in one transaction
+     */
+    @Transactional
+    public void addEntries(List<BudgetEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        budgetRepository.saveAll(entries);
+        
+        // Fold the batch per (month, category, type) so each rollup row is touched once
+        Map<String, BudgetMonthlyRollup> deltas = new LinkedHashMap<>();
+        for (BudgetEntry entry : entries) {
+            BudgetMonthlyRollup delta = rollupDelta(entry, 1);
+            String key = delta.getUserId() + "|" + delta.getMonth() + "|" + delta.getCategory() + "|" + delta.getType();
+            deltas.merge(key, delta, (a, b) -> {
+                a.setTotalAmount(a.getTotalAmount().add(b.getTotalAmount()));
+                a.setEntryCount(a.getEntryCount() + b.getEntryCount());
+                return a;
+            });
+        }
+        budgetRollupRepository.applyDeltas(new ArrayList<>(deltas.values()));
+        entries.stream().map(BudgetEntry::getUserId).distinct()
+                .forEach(userId -> userReadCache.invalidate(UserReadCache.BUDGET_ENTRIES, userId));
+    }
+
+    /**
+     * A user's newest api.page.max-size entries, as the first page of getUserEntriesPage
+     * The page's cursor is set when older entries were left out
+     *
+     * @deprecated use {@link #getUserEntriesPage}; this no longer returns the full history
+     */
+    @Deprecated
+    public CursorPage<BudgetEntry> getUserEntries(Long userId) {
+        List<BudgetEntry> rows = userReadCache.get(UserReadCache.BUDGET_ENTRIES, userId, "all",
+                () -> budgetRepository.findByUserId(userId, maxPageSize + 1));
+        return CursorPage.of(rows, maxPageSize, BudgetService::cursorOf);
+    }
+
+    /**
+     * Get one page of a user's entries, newest first
+     * Page size defaults to api.page.default-size and is capped at api.page.max-size
+     */
+    public CursorPage<BudgetEntry> getUserEntriesPage(Long userId, BudgetEntryFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<BudgetEntry> rows = budgetRepository.findPage(userId, filter, PageCursor.decode(cursor), pageSize + 1);
+        return CursorPage.of(rows, pageSize, BudgetService::cursorOf);
+    }
+
+    private static PageCursor cursorOf(BudgetEntry entry) {
+        return new PageCursor(entry.getEntryDate(), entry.getId());
+    }
+
+    /**
+     * Delete one of a user's entries; false if it does not exist or belongs to someone else
+     */
+    @Transactional
+    public boolean deleteEntry(Long id, Long userId) {
+        Optional<BudgetEntry> deleted = budgetRepository.deleteByIdAndUserId(id, userId);
+        deleted.ifPresent(entry -> {
+            budgetRollupRepository.applyDelta(rollupDelta(entry, -1));
+            userReadCache.invalidate(UserReadCache.BUDGET_ENTRIES, userId);
+        });
+        return deleted.isPresent();
+    }
+
+    /**
+     * A user's newest api.page.max-size entries of one type, as the first page of
+     * getUserEntriesPage with a type filter
+     *
+     * @deprecated use {@link #getUserEntriesPage} with a type filter
+     */
+    @Deprecated
+    public CursorPage<BudgetEntry> getUserEntriesByType(Long userId, String type) {
+        List<BudgetEntry> rows = userReadCache.get(UserReadCache.BUDGET_ENTRIES, userId, "type:" + type,
+                () -> budgetRepository.findByUserIdAndType(userId, type, maxPageSize + 1));
+        return CursorPage.of(rows, maxPageSize, BudgetService::cursorOf);
     }
 
-    public List<BudgetEntry> getUserEntries(Long userId) {
-        return budgetRepository.findByUserId(userId);
+    /**
+     * Dashboard totals from the monthly rollups, optionally limited to a month range
+     * Reads one row per (month, category, type) instead of every entry
+     */
+    public BudgetSummary getSummary(Long userId, YearMonth from, YearMonth to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<BudgetMonthlyRollup> rollups = budgetRollupRepository.findByUserId(userId,
+                from != null ? from.atDay(1) : null, to != null ? to.atDay(1) : null);
+        
+        BudgetSummary summary = new BudgetSummary(userId);
+        Map<YearMonth, BudgetSummary.MonthSummary> months = new LinkedHashMap<>();
+        
+        for (BudgetMonthlyRollup rollup : rollups) {
+            YearMonth month = YearMonth.from(rollup.getMonth());
+            BudgetSummary.MonthSummary monthSummary = months.computeIfAbsent(month, BudgetSummary.MonthSummary::new);
+            BigDecimal amount = rollup.getTotalAmount();
+            
+            if ("income".equals(rollup.getType())) {
+                monthSummary.setIncome(monthSummary.getIncome().add(amount));
+                summary.getIncomeByCategory().merge(rollup.getCategory(), amount, BigDecimal::add);
+            } else {
+                monthSummary.setExpense(monthSummary.getExpense().add(amount));
+                monthSummary.getExpenseByCategory().merge(rollup.getCategory(), amount, BigDecimal::add);
+                summary.getExpenseByCategory().merge(rollup.getCategory(), amount, BigDecimal::add);
+            }
+            monthSummary.setEntryCount(monthSummary.getEntryCount() + rollup.getEntryCount());
+        }
+        
+        for (BudgetSummary.MonthSummary monthSummary : months.values()) {
+            monthSummary.setNet(monthSummary.getIncome().subtract(monthSummary.getExpense()));
+            summary.setTotalIncome(summary.getTotalIncome().add(monthSummary.getIncome()));
+            summary.setTotalExpense(summary.getTotalExpense().add(monthSummary.getExpense()));
+            summary.setEntryCount(summary.getEntryCount() + monthSummary.getEntryCount());
+        }
+        summary.setNetSavings(summary.getTotalIncome().subtract(summary.getTotalExpense()));
+        if (summary.getTotalIncome().signum() > 0) {
+            summary.setSavingsRate(summary.getNetSavings().multiply(ONE_HUNDRED)
+                    .divide(summary.getTotalIncome(), 2, RoundingMode.HALF_UP));
+        }
+        summary.setMonths(new ArrayList<>(months.values()));
+        return summary;
     }
 
-    public void deleteEntry(Long id) {
-        budgetRepository.deleteById(id);
+    /**
+     * Recompute one user's rollups from their entries (backfill / repair)
+     */
+    @Transactional
+    public int rebuildRollups(Long userId) {
+        return budgetRollupRepository.rebuildForUser(userId);
     }
 
-    public List<BudgetEntry> getUserEntriesByType(Long userId, String type) {
-        return budgetRepository.findByUserIdAndType(userId, type);
+    private static BudgetMonthlyRollup rollupDelta(BudgetEntry entry, int sign) {
+        LocalDate month = entry.getEntryDate().withDayOfMonth(1);
+        BigDecimal amount = sign < 0 ? entry.getAmount().negate() : entry.getAmount();
+        return new BudgetMonthlyRollup(entry.getUserId(), month, entry.getCategory(), entry.getType(), amount, sign);
     }
-}
\ No newline at end of file
+}
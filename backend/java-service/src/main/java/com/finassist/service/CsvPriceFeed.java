@@ -0,0 +1,71 @@
+package com.finassist.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local stand-in for a market data feed.
+ * Reads "symbol,price" lines from a CSV file and only re-reads it when the file changes.
+ */
+@Component
+public class CsvPriceFeed implements PriceFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvPriceFeed.class);
+
+    private final Path file;
+    private long lastModified = -1;
+
+    public CsvPriceFeed(@Value("${market.prices.csv-file:data/prices.csv}") String file) {
+        this.file = Path.of(file);
+    }
+
+    @Override
+    public synchronized Map<String, BigDecimal> fetchLatestPrices() {
+        try {
+            if (!Files.isRegularFile(file)) {
+                return Map.of();
+            }
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            if (modified == lastModified) {
+                return Map.of();
+            }
+            Map<String, BigDecimal> prices = read();
+            lastModified = modified;
+            return prices;
+        } catch (IOException e) {
+            log.warn("Could not read price file {}: {}", file, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private Map<String, BigDecimal> read() throws IOException {
+        Map<String, BigDecimal> prices = new HashMap<>();
+        
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length < 2 || parts[0].isBlank()) {
+                    continue;
+                }
+                try {
+                    prices.put(parts[0].trim().toUpperCase(), new BigDecimal(parts[1].trim()));
+                } catch (NumberFormatException e) {
+                    // Header row or malformed price, skip it
+                }
+            }
+        }
+        return prices;
+    }
+}
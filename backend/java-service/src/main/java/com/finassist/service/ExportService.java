@@ -0,0 +1,180 @@
+package com.finassist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.finassist.model.BudgetEntry;
+import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.TaxCalculation;
+import com.finassist.repository.BudgetRepository;
+import com.finassist.repository.PortfolioRepository;
+import com.finassist.repository.TaxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streams a user's full history as NDJSON or CSV.
+ * Rows are read through a forward-only cursor and written as they arrive,
+ * so heap use stays flat no matter how long the history is.
+ */
+@Service
+public class ExportService {
+
+    private static final List<Column<BudgetEntry>> BUDGET_COLUMNS = List.of(
+        new Column<>("id", BudgetEntry::getId),
+        new Column<>("entry_date", BudgetEntry::getEntryDate),
+        new Column<>("type", BudgetEntry::getType),
+        new Column<>("category", BudgetEntry::getCategory),
+        new Column<>("amount", BudgetEntry::getAmount),
+        new Column<>("description", BudgetEntry::getDescription)
+    );
+
+    private static final List<Column<PortfolioTransaction>> TRANSACTION_COLUMNS = List.of(
+        new Column<>("id", PortfolioTransaction::getId),
+        new Column<>("transaction_date", PortfolioTransaction::getTransactionDate),
+        new Column<>("transaction_type", PortfolioTransaction::getTransactionType),
+        new Column<>("asset_type", PortfolioTransaction::getAssetType),
+        new Column<>("symbol", PortfolioTransaction::getSymbol),
+        new Column<>("quantity", PortfolioTransaction::getQuantity),
+        new Column<>("price", PortfolioTransaction::getPrice),
+        new Column<>("total_amount", PortfolioTransaction::getTotalAmount),
+        new Column<>("fees", PortfolioTransaction::getFees),
+        new Column<>("broker", PortfolioTransaction::getBroker),
+        new Column<>("notes", PortfolioTransaction::getNotes)
+    );
+
+    private static final List<Column<TaxCalculation>> TAX_COLUMNS = List.of(
+        new Column<>("id", TaxCalculation::getId),
+        new Column<>("financial_year", TaxCalculation::getFinancialYear),
+        new Column<>("total_income", TaxCalculation::getTotalIncome),
+        new Column<>("total_deductions", TaxCalculation::getTotalDeductions),
+        new Column<>("taxable_income", TaxCalculation::getTaxableIncome),
+        new Column<>("tax_old_regime", TaxCalculation::getTaxOldRegime),
+        new Column<>("tax_new_regime", TaxCalculation::getTaxNewRegime),
+        new Column<>("recommended_regime", TaxCalculation::getRecommendedRegime),
+        new Column<>("calculation_date", TaxCalculation::getCalculationDate)
+    );
+
+    private final BudgetRepository budgetRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final TaxRepository taxRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ExportService(BudgetRepository budgetRepository,
+                         PortfolioRepository portfolioRepository,
+                         TaxRepository taxRepository,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${export.fetch-size:500}") int fetchSize) {
+        this.budgetRepository = budgetRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.taxRepository = taxRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void exportBudgetEntries(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        export(format, out, BUDGET_COLUMNS, consumer -> budgetRepository.streamByUserId(userId, fetchSize, consumer));
+    }
+
+    public void exportTransactions(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        export(format, out, TRANSACTION_COLUMNS,
+            consumer -> portfolioRepository.streamTransactionsByUserId(userId, fetchSize, consumer));
+    }
+
+    public void exportTaxCalculations(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        export(format, out, TAX_COLUMNS, consumer -> taxRepository.streamByUserId(userId, fetchSize, consumer));
+    }
+
+    private <T> void export(ExportFormat format, OutputStream out, List<Column<T>> columns,
+                            Consumer<Consumer<T>> source) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsvHeader(writer, columns);
+                readOnlyTransaction.executeWithoutResult(status -> source.accept(row -> {
+                    try {
+                        writeCsvRow(writer, columns, row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } else {
+                SequenceWriter sequence = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+                readOnlyTransaction.executeWithoutResult(status -> source.accept(row -> {
+                    try {
+                        sequence.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                sequence.flush();
+                writer.write('\n');
+            }
+        } catch (UncheckedIOException e) {
+            // Client went away mid-stream; abandoning the cursor releases the connection
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static <T> void writeCsvHeader(Writer writer, List<Column<T>> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).name);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Write one CSV record, quoting fields as RFC 4180 requires
+     */
+    private static <T> void writeCsvRow(Writer writer, List<Column<T>> columns, T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = columns.get(i).value.apply(row);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static final class Column<T> {
+        private final String name;
+        private final Function<T, Object> value;
+
+        Column(String name, Function<T, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -14,9 +14,11 @@ import java.util.List;
 public class GoalService {
 
     private final GoalRepository goalRepository;
+    private final UserReadCache userReadCache;
 
-    public GoalService(GoalRepository goalRepository) {
+    public GoalService(GoalRepository goalRepository, UserReadCache userReadCache) {
         this.goalRepository = goalRepository;
+        this.userReadCache = userReadCache;
     }
 
     public FinancialGoal createGoal(FinancialGoal goal) {
@@ -38,20 +40,26 @@ public class GoalService {
         // Generate investment strategy based on timeline and risk profile
         goal.setInvestmentStrategy(generateInvestmentStrategy(goal));
         
-        return goalRepository.save(goal);
+        FinancialGoal saved = goalRepository.save(goal);
+        userReadCache.invalidate(UserReadCache.GOALS, saved.getUserId());
+        return saved;
     }
 
     public List<FinancialGoal> getUserGoals(Long userId) {
-        return goalRepository.findByUserId(userId);
+        return userReadCache.get(UserReadCache.GOALS, userId, "all", () -> goalRepository.findByUserId(userId));
     }
 
     public List<FinancialGoal> getActiveGoals(Long userId) {
-        return goalRepository.findActiveGoalsByUserId(userId);
+        return userReadCache.get(UserReadCache.GOALS, userId, "active",
+                () -> goalRepository.findActiveGoalsByUserId(userId));
     }
 
-    public FinancialGoal updateGoalProgress(Long goalId, BigDecimal amount) {
+    /**
+     * Add to a goal's progress; null if the goal does not exist or belongs to someone else
+     */
+    public FinancialGoal updateGoalProgress(Long goalId, Long userId, BigDecimal amount) {
         var goalOpt = goalRepository.findById(goalId);
-        if (goalOpt.isPresent()) {
+        if (goalOpt.isPresent() && userId.equals(goalOpt.get().getUserId())) {
             FinancialGoal goal = goalOpt.get();
             BigDecimal newAmount = goal.getCurrentAmount().add(amount);
             
@@ -61,16 +69,21 @@ public class GoalService {
             }
             
             goalRepository.updateProgress(goalId, newAmount);
+            userReadCache.invalidate(UserReadCache.GOALS, userId);
             return goalRepository.findById(goalId).orElse(null);
         }
         return null;
     }
 
-    public void deleteGoal(Long goalId) {
-        goalRepository.delete(goalId);
+    public boolean deleteGoal(Long goalId, Long userId) {
+        boolean deleted = goalRepository.delete(goalId, userId);
+        if (deleted) {
+            userReadCache.invalidate(UserReadCache.GOALS, userId);
+        }
+        return deleted;
     }
 
-    private String generateInvestmentStrategy(FinancialGoal goal) {
+    String generateInvestmentStrategy(FinancialGoal goal) {
         int months = goal.getMonthsRemaining();
         String riskProfile = goal.getRiskProfile();
         
@@ -0,0 +1,293 @@
+package com.finassist.service;
+
+import com.finassist.dto.RebuildReport;
+import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioTransaction;
+import com.finassist.repository.PortfolioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rebuilds portfolio_holdings from portfolio_transactions and reports where they differ.
+ *
+ * Each user's trades are streamed through a cursor grouped by holding and in the order
+ * they were applied, and folded with the same average-cost rules as addTransaction, so
+ * memory per user is one small accumulator per holding. Users are independent and are
+ * replayed in parallel, one transaction each. A dry run reads a repeatable-read snapshot
+ * and takes no locks; with apply, the user's holdings are locked, drifted ones rewritten
+ * and emptied ones deleted. A position set or deleted by hand is logged as an adjustment
+ * and the replay restarts from it. Holdings with no trades at all, or opened by hand before
+ * adjustments were logged (created before their first logged trade), cannot be rebuilt and
+ * are only counted as untracked; they are never rewritten.
+ */
+@Service
+public class HoldingRebuildService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldingRebuildService.class);
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioAggregateCache aggregateCache;
+    private final UserReadCache userReadCache;
+    private final LotEngine lotEngine;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate repairTransaction;
+    private final int threads;
+    private final int fetchSize;
+
+    public HoldingRebuildService(PortfolioRepository portfolioRepository,
+                                 PortfolioAggregateCache aggregateCache,
+                                 UserReadCache userReadCache,
+                                 LotEngine lotEngine,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${portfolio.rebuild.threads:4}") int threads,
+                                 @Value("${portfolio.rebuild.fetch-size:1000}") int fetchSize) {
+        this.portfolioRepository = portfolioRepository;
+        this.aggregateCache = aggregateCache;
+        this.userReadCache = userReadCache;
+        this.lotEngine = lotEngine;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.repairTransaction = new TransactionTemplate(transactionManager);
+        this.threads = Math.max(1, threads);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Replay one user's trades; with apply, drifted holdings are rewritten
+     */
+    public RebuildReport rebuildUser(Long userId, boolean apply) {
+        long start = System.nanoTime();
+        RebuildReport report = new RebuildReport(apply);
+        rebuild(userId, apply, report);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Replay every user with holdings or trades on portfolio.rebuild.threads workers;
+     * a user that fails is reported and the rest carry on
+     */
+    public RebuildReport rebuildAll(boolean apply) {
+        long start = System.nanoTime();
+        RebuildReport report = new RebuildReport(apply);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "holding-rebuild-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps at most two users per worker queued, however many users there are
+        int window = threads * 2;
+        Semaphore inFlight = new Semaphore(window);
+        try {
+            for (Long userId : portfolioRepository.findUserIdsWithPortfolio()) {
+                inFlight.acquire();
+                workers.execute(() -> {
+                    try {
+                        rebuild(userId, apply, report);
+                    } catch (RuntimeException e) {
+                        log.warn("Holding rebuild failed for user {}", userId, e);
+                        report.fail(userId, e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquire(window);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Holding rebuild interrupted", e);
+        } finally {
+            workers.shutdown();
+        }
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("Replayed {} transactions for {} users in {} ms: {} holdings drifted, {} repaired, {} users failed",
+                report.getTransactionsReplayed(), report.getUsersScanned(), report.getElapsedMillis(),
+                report.getHoldingsDrifted(), report.getHoldingsRepaired(), report.getUsersFailed());
+        return report;
+    }
+
+    private void rebuild(Long userId, boolean apply, RebuildReport report) {
+        TransactionTemplate transaction = apply ? repairTransaction : snapshotTransaction;
+        int repaired = transaction.execute(status -> replay(userId, apply, report));
+        if (repaired > 0) {
+            userReadCache.invalidate(UserReadCache.HOLDINGS, userId);
+            aggregateCache.invalidate(userId);
+            // Cached lot books were squared against the old quantities
+            lotEngine.invalidate(userId);
+        }
+    }
+
+    /**
+     * Fold the user's trades, compare with the stored holdings and, with apply, repair them;
+     * returns how many holdings were rewritten
+     */
+    private int replay(Long userId, boolean apply, RebuildReport report) {
+        Map<String, PortfolioHolding> stored = new HashMap<>();
+        List<PortfolioHolding> holdings = apply
+                ? portfolioRepository.findHoldingsByUserIdForUpdate(userId)
+                : portfolioRepository.findHoldingsByUserId(userId);
+        for (PortfolioHolding holding : holdings) {
+            stored.put(holding.getSymbol() + "|" + holding.getAssetType(), holding);
+        }
+
+        List<Replay> replays = new ArrayList<>();
+        long[] transactions = {0};
+        portfolioRepository.streamTransactionsForReplay(userId, fetchSize, trade -> {
+            Replay current = replays.isEmpty() ? null : replays.get(replays.size() - 1);
+            if (current == null || !current.holds(trade)) {
+                current = new Replay(trade.getSymbol(), trade.getAssetType());
+                replays.add(current);
+            }
+            current.apply(trade);
+            transactions[0]++;
+        });
+
+        List<RebuildReport.Drift> drifts = new ArrayList<>();
+        List<PortfolioHolding> repairs = new ArrayList<>();
+        int untracked = 0;
+        for (Replay replay : replays) {
+            PortfolioHolding holding = stored.remove(replay.symbol + "|" + replay.assetType);
+            if (holding != null && replay.openedOutsideLog(holding)) {
+                untracked++;
+                continue;
+            }
+            if (holding == null ? replay.quantity.signum() == 0 : replay.matches(holding)) {
+                continue;
+            }
+            drifts.add(replay.drift(userId, holding));
+            repairs.add(replay.position(userId));
+        }
+
+        if (apply && !repairs.isEmpty()) {
+            List<Long> emptied = new ArrayList<>();
+            for (PortfolioHolding holding : portfolioRepository.replaceHoldingPositions(userId, repairs)) {
+                if (holding.getQuantity().signum() <= 0) {
+                    emptied.add(holding.getId());
+                }
+            }
+            if (!emptied.isEmpty()) {
+                portfolioRepository.deleteEmptyHoldings(userId, emptied);
+            }
+        }
+        int repaired = apply ? repairs.size() : 0;
+        report.addUser(transactions[0], holdings.size(), stored.size() + untracked, repaired, drifts);
+        return repaired;
+    }
+
+    /**
+     * One holding as its trades say it should be, folded with the rules of applyBuy/applySell
+     */
+    private static final class Replay {
+        private final String symbol;
+        private final String assetType;
+        private BigDecimal quantity = BigDecimal.ZERO;
+        private BigDecimal invested = BigDecimal.ZERO;
+        private BigDecimal averagePrice = BigDecimal.ZERO;
+        private BigDecimal lastPrice;
+        private long oversells;
+        private LocalDateTime firstLoggedAt;
+        private boolean openedByAdjustment;
+
+        Replay(String symbol, String assetType) {
+            this.symbol = symbol;
+            this.assetType = assetType;
+        }
+
+        boolean holds(PortfolioTransaction trade) {
+            return symbol.equals(trade.getSymbol()) && assetType.equals(trade.getAssetType());
+        }
+
+        void apply(PortfolioTransaction trade) {
+            if (firstLoggedAt == null) {
+                firstLoggedAt = trade.getCreatedAt();
+                openedByAdjustment = PortfolioService.ADJUSTMENT.equals(trade.getTransactionType());
+            }
+            if (PortfolioService.ADJUSTMENT.equals(trade.getTransactionType())) {
+                // The position as set by hand, whatever the trades before it made it
+                quantity = trade.getQuantity();
+                invested = trade.getTotalAmount();
+                averagePrice = trade.getPrice();
+                return;
+            }
+            if ("buy".equals(trade.getTransactionType())) {
+                quantity = quantity.add(trade.getQuantity());
+                invested = invested.add(trade.getTotalAmount());
+                averagePrice = invested.divide(quantity, 2, RoundingMode.HALF_UP);
+            } else if (quantity.compareTo(trade.getQuantity()) < 0) {
+                // The API refuses these, so one in the log was written some other way
+                oversells++;
+                return;
+            } else {
+                quantity = quantity.subtract(trade.getQuantity());
+                invested = invested.subtract(averagePrice.multiply(trade.getQuantity()).setScale(2, RoundingMode.HALF_UP));
+                if (quantity.signum() == 0) {
+                    invested = BigDecimal.ZERO;
+                }
+            }
+            lastPrice = trade.getPrice();
+        }
+
+        /**
+         * Whether the holding existed before anything in the log touched it, so its opening
+         * position was never recorded (trades and holdings written together share a timestamp)
+         */
+        boolean openedOutsideLog(PortfolioHolding holding) {
+            return !openedByAdjustment && holding.getCreatedAt().isBefore(firstLoggedAt);
+        }
+
+        boolean matches(PortfolioHolding holding) {
+            return quantity.signum() > 0
+                && quantity.compareTo(holding.getQuantity()) == 0
+                && invested.compareTo(holding.getTotalInvested()) == 0
+                && averagePrice.compareTo(holding.getAverageBuyPrice()) == 0;
+        }
+
+        RebuildReport.Drift drift(Long userId, PortfolioHolding holding) {
+            RebuildReport.Drift drift = new RebuildReport.Drift();
+            drift.setUserId(userId);
+            drift.setSymbol(symbol);
+            drift.setAssetType(assetType);
+            drift.setKind(holding == null ? "missing" : quantity.signum() == 0 ? "extra" : "mismatch");
+            drift.setStoredQuantity(holding != null ? holding.getQuantity() : null);
+            drift.setStoredInvested(holding != null ? holding.getTotalInvested() : null);
+            drift.setRebuiltQuantity(quantity);
+            drift.setRebuiltInvested(invested);
+            drift.setOversells(oversells);
+            return drift;
+        }
+
+        /**
+         * The row for replaceHoldingPositions; a zero quantity marks a holding to delete
+         */
+        PortfolioHolding position(Long userId) {
+            PortfolioHolding position = new PortfolioHolding();
+            position.setUserId(userId);
+            position.setSymbol(symbol);
+            position.setAssetType(assetType);
+            position.setName(symbol);
+            position.setQuantity(quantity);
+            position.setTotalInvested(invested);
+            position.setAverageBuyPrice(quantity.signum() > 0 ? averagePrice : BigDecimal.ZERO);
+            return PortfolioService.applyPrice(position, lastPrice != null ? lastPrice : BigDecimal.ZERO);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioLot;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * One holding's open lots, ordered for matching and kept in memory between trades.
+ *
+ * Lots sit in a sorted set, so adding a lot (even a backdated one) and finding the next
+ * lot to sell are O(log n) whatever the method: FIFO takes the oldest, LIFO the newest,
+ * HIFO the dearest. Callers synchronize on the book.
+ */
+final class LotBook {
+
+    enum Method { FIFO, LIFO, HIFO }
+
+    private static final Comparator<PortfolioLot> BY_DATE =
+        Comparator.comparing(PortfolioLot::getAcquiredDate).thenComparing(PortfolioLot::getId);
+    private static final Comparator<PortfolioLot> BY_COST =
+        Comparator.comparing(PortfolioLot::getUnitCost).reversed().thenComparing(BY_DATE);
+
+    private final Method method;
+    private final TreeSet<PortfolioLot> lots;
+    private BigDecimal openQuantity = BigDecimal.ZERO;
+
+    LotBook(Method method, List<PortfolioLot> openLots) {
+        this.method = method;
+        this.lots = new TreeSet<>(method == Method.HIFO ? BY_COST : BY_DATE);
+        openLots.forEach(this::add);
+    }
+
+    void add(PortfolioLot lot) {
+        lots.add(lot);
+        openQuantity = openQuantity.add(lot.getRemainingQuantity());
+    }
+
+    /**
+     * The lot the next sell draws from, or null when nothing is open
+     */
+    PortfolioLot next() {
+        if (lots.isEmpty()) {
+            return null;
+        }
+        return method == Method.LIFO ? lots.last() : lots.first();
+    }
+
+    /**
+     * Take quantity out of the next lot, dropping it once it is used up
+     */
+    void consume(PortfolioLot lot, BigDecimal quantity) {
+        lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(quantity));
+        openQuantity = openQuantity.subtract(quantity);
+        if (lot.getRemainingQuantity().signum() <= 0) {
+            lots.remove(lot);
+        }
+    }
+
+    BigDecimal openQuantity() {
+        return openQuantity;
+    }
+}
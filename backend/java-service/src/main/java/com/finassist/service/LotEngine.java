@@ -0,0 +1,278 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioLot;
+import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.RealizedGain;
+import com.finassist.repository.LotRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Tax lots behind the average-cost holdings: every buy opens a lot, every sell consumes
+ * open lots in portfolio.lots.method order (FIFO by default) and records a realised
+ * short- or long-term gain for each lot it touches.
+ *
+ * Each holding's open lots are kept in memory as a LotBook, so a sell costs O(log n) per
+ * lot consumed instead of a query over the holding's history. Trades on one holding are
+ * already serialized by its row lock. A book that does not add up to the holding's
+ * quantity (a rolled back trade, holdings entered by hand before lots existed) is
+ * reloaded from the database and, if still short or long, squared with an opening lot
+ * at the holding's average cost or a closing adjustment that records no gain.
+ */
+@Component
+public class LotEngine {
+
+    public static final String SHORT_TERM = "short";
+    public static final String LONG_TERM = "long";
+
+    private final LotRepository lotRepository;
+    private final LotBook.Method method;
+    private final Set<String> equityAssetTypes;
+    private final int equityLongTermMonths;
+    private final int otherLongTermMonths;
+    private final Cache<String, LotBook> books;
+
+    public LotEngine(LotRepository lotRepository,
+                     @Value("${portfolio.lots.method:FIFO}") String method,
+                     @Value("${portfolio.lots.equity-asset-types:stock,mutual_fund}") List<String> equityAssetTypes,
+                     @Value("${portfolio.lots.long-term-months.equity:12}") int equityLongTermMonths,
+                     @Value("${portfolio.lots.long-term-months.other:24}") int otherLongTermMonths,
+                     @Value("${portfolio.lots.cache-size:10000}") long cacheSize) {
+        this.lotRepository = lotRepository;
+        this.method = LotBook.Method.valueOf(method.trim().toUpperCase(Locale.ROOT));
+        this.equityAssetTypes = equityAssetTypes.stream()
+                .map(type -> type.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        this.equityLongTermMonths = equityLongTermMonths;
+        this.otherLongTermMonths = otherLongTermMonths;
+        this.books = Caffeine.newBuilder().maximumSize(cacheSize).build();
+    }
+
+    /**
+     * Start recording one user's lot changes; expectedLots sizes the id reservation
+     */
+    Ledger ledger(Long userId, int expectedLots) {
+        return new Ledger(userId, expectedLots);
+    }
+
+    /**
+     * Drop every cached book of a user, for when their holdings were rewritten outside a Ledger;
+     * scans the cache keys, so meant for operator paths such as the holding rebuild
+     */
+    public void invalidate(Long userId) {
+        String prefix = userId + "|";
+        books.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public List<PortfolioLot> getOpenLots(Long userId) {
+        return lotRepository.findOpenLotsByUserId(userId);
+    }
+
+    public List<RealizedGain> getRealizedGains(Long userId, String financialYear) {
+        return lotRepository.findGains(userId, financialYear);
+    }
+
+    /**
+     * Net realised gain per term (SHORT_TERM, LONG_TERM) for a financial year such as "2024-25"
+     */
+    public Map<String, BigDecimal> getRealizedTotals(Long userId, String financialYear) {
+        return lotRepository.sumGainsByTerm(userId, financialYear);
+    }
+
+    /**
+     * Indian financial year (April to March) a date falls in, as "2024-25"
+     */
+    static String financialYear(LocalDate date) {
+        int start = date.getMonthValue() >= 4 ? date.getYear() : date.getYear() - 1;
+        return start + "-" + String.format("%02d", (start + 1) % 100);
+    }
+
+    private String term(String assetType, LocalDate acquired, LocalDate sold) {
+        int months = equityAssetTypes.contains(assetType.toLowerCase(Locale.ROOT))
+                ? equityLongTermMonths : otherLongTermMonths;
+        return sold.isAfter(acquired.plusMonths(months)) ? LONG_TERM : SHORT_TERM;
+    }
+
+    private static String bookKey(Long userId, String symbol, String assetType) {
+        return userId + "|" + symbol + "|" + assetType;
+    }
+
+    /**
+     * Lot changes of one database transaction: books are updated as trades are applied,
+     * rows are written by flush() once the trades themselves are saved. If the transaction
+     * does not commit, the books it touched are dropped and reload on next use.
+     */
+    final class Ledger {
+        private final Long userId;
+        private final Map<String, LotBook> touched = new LinkedHashMap<>();
+        private final List<PortfolioLot> newLots = new ArrayList<>();
+        private final Set<Long> newLotIds = new HashSet<>();
+        private final Map<Long, PortfolioLot> consumedLots = new LinkedHashMap<>();
+        private final List<RealizedGain> gains = new ArrayList<>();
+        private final Deque<Long> lotIds = new ArrayDeque<>();
+        private int expectedLots;
+
+        private Ledger(Long userId, int expectedLots) {
+            this.userId = userId;
+            this.expectedLots = expectedLots;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            books.invalidateAll(touched.keySet());
+                        }
+                    }
+                });
+            }
+        }
+
+        /**
+         * Open a lot for a saved-to-be buy; heldQuantity, heldAverage and heldSince describe
+         * the holding just before it (zero, null, null if there was none)
+         */
+        void buy(PortfolioTransaction buy, BigDecimal heldQuantity, BigDecimal heldAverage, LocalDateTime heldSince) {
+            LotBook book = book(buy, heldQuantity, heldAverage, heldSince);
+            BigDecimal unitCost = buy.getTotalAmount().add(buy.getFees())
+                    .divide(buy.getQuantity(), 6, RoundingMode.HALF_UP);
+            PortfolioLot lot = newLot(buy, buy.getId(), buy.getTransactionDate(), buy.getQuantity(), unitCost);
+            synchronized (book) {
+                book.add(lot);
+            }
+        }
+
+        /**
+         * Match a sell against open lots and record the realised gain per lot; held* as for buy
+         */
+        List<RealizedGain> sell(PortfolioTransaction sell, BigDecimal heldQuantity, BigDecimal heldAverage,
+                                LocalDateTime heldSince) {
+            LotBook book = book(sell, heldQuantity, heldAverage, heldSince);
+            synchronized (book) {
+                return consume(book, sell.getQuantity(), sell);
+            }
+        }
+
+        /**
+         * Write new lots, consumed lots and realised gains, one batch each
+         * (call after the trades are saved: lots and gains reference them)
+         */
+        void flush() {
+            if (!newLots.isEmpty()) {
+                lotRepository.insertLots(newLots);
+            }
+            if (!consumedLots.isEmpty()) {
+                lotRepository.updateRemaining(new ArrayList<>(consumedLots.values()));
+            }
+            if (!gains.isEmpty()) {
+                lotRepository.insertGains(gains);
+            }
+        }
+
+        private LotBook book(PortfolioTransaction trade, BigDecimal heldQuantity, BigDecimal heldAverage,
+                             LocalDateTime heldSince) {
+            String key = bookKey(userId, trade.getSymbol(), trade.getAssetType());
+            LotBook book = touched.get(key);
+            if (book != null) {
+                return book;
+            }
+            book = books.getIfPresent(key);
+            if (book == null || book.openQuantity().compareTo(heldQuantity) != 0) {
+                book = new LotBook(method, lotRepository.findOpenLots(userId, trade.getSymbol(), trade.getAssetType()));
+                books.put(key, book);
+            }
+            synchronized (book) {
+                BigDecimal gap = heldQuantity.subtract(book.openQuantity());
+                if (gap.signum() > 0) {
+                    LocalDate since = heldSince != null ? heldSince.toLocalDate() : trade.getTransactionDate();
+                    BigDecimal unitCost = heldAverage != null ? heldAverage : BigDecimal.ZERO;
+                    book.add(newLot(trade, null, since, gap, unitCost));
+                } else if (gap.signum() < 0) {
+                    consume(book, gap.negate(), null);
+                }
+            }
+            touched.put(key, book);
+            return book;
+        }
+
+        /**
+         * Take quantity from the book's lots in matching order; gains are recorded only for a sell
+         */
+        private List<RealizedGain> consume(LotBook book, BigDecimal quantity, PortfolioTransaction sell) {
+            List<RealizedGain> realized = new ArrayList<>();
+            BigDecimal left = quantity;
+            PortfolioLot lot;
+            while (left.signum() > 0 && (lot = book.next()) != null) {
+                BigDecimal taken = lot.getRemainingQuantity().min(left);
+                if (sell != null) {
+                    realized.add(gain(lot, taken, sell));
+                }
+                book.consume(lot, taken);
+                if (!newLotIds.contains(lot.getId())) {
+                    consumedLots.put(lot.getId(), lot);
+                }
+                left = left.subtract(taken);
+            }
+            gains.addAll(realized);
+            return realized;
+        }
+
+        private RealizedGain gain(PortfolioLot lot, BigDecimal quantity, PortfolioTransaction sell) {
+            BigDecimal netProceeds = sell.getTotalAmount().subtract(sell.getFees());
+            RealizedGain gain = new RealizedGain();
+            gain.setUserId(userId);
+            gain.setLotId(lot.getId());
+            gain.setTransactionId(sell.getId());
+            gain.setAssetType(lot.getAssetType());
+            gain.setSymbol(lot.getSymbol());
+            gain.setQuantity(quantity);
+            gain.setAcquiredDate(lot.getAcquiredDate());
+            gain.setSoldDate(sell.getTransactionDate());
+            gain.setCostBasis(lot.getUnitCost().multiply(quantity).setScale(2, RoundingMode.HALF_UP));
+            gain.setProceeds(netProceeds.multiply(quantity).divide(sell.getQuantity(), 2, RoundingMode.HALF_UP));
+            gain.setGain(gain.getProceeds().subtract(gain.getCostBasis()));
+            gain.setTerm(term(lot.getAssetType(), lot.getAcquiredDate(), sell.getTransactionDate()));
+            gain.setFinancialYear(financialYear(sell.getTransactionDate()));
+            return gain;
+        }
+
+        private PortfolioLot newLot(PortfolioTransaction trade, Long transactionId, LocalDate acquired,
+                                    BigDecimal quantity, BigDecimal unitCost) {
+            if (lotIds.isEmpty()) {
+                lotIds.addAll(lotRepository.reserveIds(Math.max(1, expectedLots)));
+            }
+            expectedLots--;
+            PortfolioLot lot = new PortfolioLot();
+            lot.setId(lotIds.poll());
+            lot.setUserId(userId);
+            lot.setTransactionId(transactionId);
+            lot.setAssetType(trade.getAssetType());
+            lot.setSymbol(trade.getSymbol());
+            lot.setAcquiredDate(acquired);
+            lot.setQuantity(quantity);
+            lot.setRemainingQuantity(quantity);
+            lot.setUnitCost(unitCost);
+            newLots.add(lot);
+            newLotIds.add(lot.getId());
+            return lot;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.finassist.service;
+
+import com.finassist.util.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Market-wide repricing engine.
+ * Keeps the last applied price per symbol, coalesces incoming ticks and
+ * reprices every affected holding across all users on a fixed interval.
+ */
+@Service
+public class MarketPriceService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketPriceService.class);
+
+    private final PortfolioService portfolioService;
+    private final PriceFeed priceFeed;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final Map<String, BigDecimal> lastPrices = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> pendingPrices = new ConcurrentHashMap<>();
+
+    public MarketPriceService(PortfolioService portfolioService,
+                              PriceFeed priceFeed,
+                              @Value("${market.prices.enabled:true}") boolean enabled,
+                              @Value("${market.prices.batch-size:500}") int batchSize) {
+        this.portfolioService = portfolioService;
+        this.priceFeed = priceFeed;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queue a price for the next refresh
+     * Later ticks for the same symbol replace earlier ones; prices are kept to the 2 places
+     * holdings store, and ticks that round to the last applied price are dropped
+     */
+    public void publish(String symbol, BigDecimal price) {
+        if (symbol == null || price == null) {
+            return;
+        }
+        price = price.setScale(Money.SCALE, RoundingMode.HALF_UP);
+        BigDecimal last = lastPrices.get(symbol);
+        if (last != null && last.compareTo(price) == 0) {
+            pendingPrices.remove(symbol);
+            return;
+        }
+        pendingPrices.put(symbol, price);
+    }
+
+    public BigDecimal getLastPrice(String symbol) {
+        return lastPrices.get(symbol);
+    }
+
+    @Scheduled(fixedDelayString = "${market.prices.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        priceFeed.fetchLatestPrices().forEach(this::publish);
+        flush();
+    }
+
+    /**
+     * Reprice holdings for every pending symbol, one batch of symbols at a time
+     */
+    public int flush() {
+        if (pendingPrices.isEmpty()) {
+            return 0;
+        }
+        
+        List<String> symbols = new ArrayList<>(pendingPrices.keySet());
+        int repriced = 0;
+        
+        for (int start = 0; start < symbols.size(); start += batchSize) {
+            Map<String, BigDecimal> batch = new HashMap<>();
+            for (String symbol : symbols.subList(start, Math.min(start + batchSize, symbols.size()))) {
+                BigDecimal price = pendingPrices.remove(symbol);
+                if (price != null) {
+                    batch.put(symbol, price);
+                }
+            }
+            
+            try {
+                repriced += portfolioService.updateMarketPrices(batch);
+                lastPrices.putAll(batch);
+            } catch (RuntimeException e) {
+                // Put the batch back unless a newer tick already arrived
+                batch.forEach(pendingPrices::putIfAbsent);
+                log.warn("Repricing {} symbols failed: {}", batch.size(), e.getMessage());
+            }
+        }
+        return repriced;
+    }
+}
@@ -0,0 +1,147 @@
+package com.finassist.service;
+
+import com.finassist.dto.PortfolioSummary;
+import com.finassist.model.PortfolioHolding;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals for one user's holdings.
+ *
+ * Each holding is stored by (symbol, asset type) and per-asset-type totals are
+ * adjusted by the difference between its old and new state, so a change costs
+ * O(1) and reading the summary costs O(holdings) only for the top movers.
+ * Applying the same holding state twice is harmless.
+ */
+final class PortfolioAggregate {
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
+    private final Map<String, Position> positions = new HashMap<>();
+    private final Map<String, Totals> byAssetType = new TreeMap<>();
+
+    PortfolioAggregate(List<PortfolioHolding> holdings) {
+        holdings.forEach(this::upsert);
+    }
+
+    synchronized void upsert(PortfolioHolding holding) {
+        Position position = new Position(holding);
+        Position previous = positions.put(key(holding.getSymbol(), holding.getAssetType()), position);
+        if (previous != null) {
+            totals(previous.assetType).remove(previous);
+        }
+        totals(position.assetType).add(position);
+    }
+
+    synchronized PortfolioSummary toSummary(Long userId, int topMovers) {
+        PortfolioSummary summary = new PortfolioSummary(userId);
+        
+        for (Totals totals : byAssetType.values()) {
+            summary.setHoldingsCount(summary.getHoldingsCount() + totals.count);
+            summary.setTotalInvested(summary.getTotalInvested().add(totals.invested));
+            summary.setTotalValue(summary.getTotalValue().add(totals.value));
+            summary.setTotalUnrealizedPnl(summary.getTotalUnrealizedPnl().add(totals.pnl));
+        }
+        summary.setPnlPercentage(percent(summary.getTotalUnrealizedPnl(), summary.getTotalInvested()));
+        
+        for (Map.Entry<String, Totals> entry : byAssetType.entrySet()) {
+            Totals totals = entry.getValue();
+            PortfolioSummary.AssetTypeSummary type = new PortfolioSummary.AssetTypeSummary();
+            type.setAssetType(entry.getKey());
+            type.setHoldingsCount(totals.count);
+            type.setTotalInvested(totals.invested);
+            type.setCurrentValue(totals.value);
+            type.setTotalPnl(totals.pnl);
+            type.setPnlPercentage(percent(totals.pnl, totals.invested));
+            type.setAllocationPercentage(percent(totals.value, summary.getTotalValue()));
+            summary.getByAssetType().add(type);
+        }
+        
+        // Only priced holdings can move
+        List<Position> priced = new ArrayList<>();
+        for (Position position : positions.values()) {
+            if (position.pnlPercentage != null) {
+                priced.add(position);
+            }
+        }
+        priced.sort(Comparator.comparing((Position p) -> p.pnlPercentage).reversed());
+        for (int i = 0; i < priced.size() && i < topMovers && priced.get(i).pnlPercentage.signum() > 0; i++) {
+            summary.getTopGainers().add(priced.get(i).toMover());
+        }
+        for (int i = priced.size() - 1; i >= 0 && priced.size() - i <= topMovers
+                && priced.get(i).pnlPercentage.signum() < 0; i--) {
+            summary.getTopLosers().add(priced.get(i).toMover());
+        }
+        return summary;
+    }
+
+    private Totals totals(String assetType) {
+        return byAssetType.computeIfAbsent(assetType, type -> new Totals());
+    }
+
+    private static String key(String symbol, String assetType) {
+        return symbol + "|" + assetType;
+    }
+
+    private static BigDecimal percent(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return part.multiply(ONE_HUNDRED).divide(whole, 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Snapshot of the fields the summary needs; unpriced holdings count at cost
+     */
+    private static final class Position {
+        private final String symbol;
+        private final String name;
+        private final String assetType;
+        private final BigDecimal invested;
+        private final BigDecimal value;
+        private final BigDecimal pnl;
+        private final BigDecimal pnlPercentage;
+
+        Position(PortfolioHolding holding) {
+            this.symbol = holding.getSymbol();
+            this.name = holding.getName();
+            this.assetType = holding.getAssetType();
+            this.invested = holding.getTotalInvested() != null ? holding.getTotalInvested() : BigDecimal.ZERO;
+            this.value = holding.getCurrentValue() != null ? holding.getCurrentValue() : invested;
+            this.pnl = holding.getUnrealizedPnl() != null ? holding.getUnrealizedPnl() : BigDecimal.ZERO;
+            this.pnlPercentage = holding.getUnrealizedPnlPercentage();
+        }
+
+        PortfolioSummary.Mover toMover() {
+            return new PortfolioSummary.Mover(symbol, name, assetType, pnl, pnlPercentage);
+        }
+    }
+
+    private static final class Totals {
+        private int count;
+        private BigDecimal invested = BigDecimal.ZERO;
+        private BigDecimal value = BigDecimal.ZERO;
+        private BigDecimal pnl = BigDecimal.ZERO;
+
+        void add(Position position) {
+            count++;
+            invested = invested.add(position.invested);
+            value = value.add(position.value);
+            pnl = pnl.add(position.pnl);
+        }
+
+        void remove(Position position) {
+            count--;
+            invested = invested.subtract(position.invested);
+            value = value.subtract(position.value);
+            pnl = pnl.subtract(position.pnl);
+        }
+    }
+}
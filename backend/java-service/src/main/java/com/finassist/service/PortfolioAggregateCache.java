@@ -0,0 +1,60 @@
+package com.finassist.service;
+
+import com.finassist.repository.PortfolioRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache of per-user portfolio aggregates (Caffeine, size-bounded).
+ *
+ * A miss loads the user's holdings once; after that writes are applied in place
+ * and only for users already cached. The cache holds futures: a miss inserts an
+ * empty one and the calling thread loads into it outside the map's locks, while
+ * other readers of that user wait on it. A write that commits while its user is
+ * being loaded is applied when the load completes instead of being lost. Holdings
+ * changed outside this instance (another node, manual SQL) are picked up after
+ * eviction or a restart.
+ */
+@Component
+public class PortfolioAggregateCache {
+
+    private final PortfolioRepository portfolioRepository;
+    private final AsyncCache<Long, PortfolioAggregate> aggregates;
+
+    public PortfolioAggregateCache(PortfolioRepository portfolioRepository,
+                                   @Value("${portfolio.summary.cache-size:1000}") int maxUsers) {
+        this.portfolioRepository = portfolioRepository;
+        this.aggregates = Caffeine.newBuilder().maximumSize(maxUsers).buildAsync();
+    }
+
+    PortfolioAggregate get(Long userId) {
+        CompletableFuture<PortfolioAggregate> loading = new CompletableFuture<>();
+        CompletableFuture<PortfolioAggregate> aggregate = aggregates.get(userId, (id, executor) -> loading);
+        if (aggregate == loading) {
+            try {
+                loading.complete(new PortfolioAggregate(portfolioRepository.findHoldingsByUserId(userId)));
+            } catch (RuntimeException e) {
+                // A failed future is dropped from the cache, so the next read retries
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return aggregate.join();
+    }
+
+    void apply(Long userId, Consumer<PortfolioAggregate> change) {
+        CompletableFuture<PortfolioAggregate> aggregate = aggregates.getIfPresent(userId);
+        if (aggregate != null) {
+            aggregate.thenAccept(change);
+        }
+    }
+
+    void invalidate(Long userId) {
+        aggregates.synchronous().invalidate(userId);
+    }
+}
@@ -1,128 +1,363 @@
 package com.finassist.service;
 
+import com.finassist.dto.CursorPage;
+import com.finassist.dto.PageCursor;
+import com.finassist.dto.PortfolioSummary;
 import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioLot;
 import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.RealizedGain;
 import com.finassist.repository.PortfolioRepository;
+import com.finassist.util.Money;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 @Service
 public class PortfolioService {
 
+    /**
+     * transaction_type of a position set or deleted by hand: quantity, price (the average) and
+     * total amount are the holding as it stood afterwards, not a change to it
+     */
+    public static final String ADJUSTMENT = "adjust";
+
+    private static final BigDecimal ONE_HUNDRED = new BigDecimal("100");
+
     private final PortfolioRepository portfolioRepository;
+    private final PortfolioAggregateCache aggregateCache;
+    private final UserReadCache userReadCache;
+    private final LotEngine lotEngine;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int topMovers;
+    private final int repricePageSize;
 
-    public PortfolioService(PortfolioRepository portfolioRepository) {
+    public PortfolioService(PortfolioRepository portfolioRepository,
+                            PortfolioAggregateCache aggregateCache,
+                            UserReadCache userReadCache,
+                            LotEngine lotEngine,
+                            @Value("${api.page.default-size:50}") int defaultPageSize,
+                            @Value("${api.page.max-size:200}") int maxPageSize,
+                            @Value("${portfolio.summary.top-movers:5}") int topMovers,
+                            @Value("${market.prices.holdings-page-size:5000}") int repricePageSize) {
         this.portfolioRepository = portfolioRepository;
+        this.aggregateCache = aggregateCache;
+        this.userReadCache = userReadCache;
+        this.lotEngine = lotEngine;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.topMovers = topMovers;
+        this.repricePageSize = Math.max(1, repricePageSize);
     }
 
     /**
      * Add or update a portfolio holding
-     * Automatically calculates current value and P&L if current price is provided
+     * Automatically calculates current value and P&L if current price is provided.
+     * The position set by hand is logged as an ADJUSTMENT so the holding can still be
+     * rebuilt from portfolio_transactions.
      */
+    @Transactional
     public PortfolioHolding addOrUpdateHolding(PortfolioHolding holding) {
         // Calculate current values if not provided
         if (holding.getCurrentPrice() != null && holding.getQuantity() != null) {
-            BigDecimal currentValue = holding.getQuantity().multiply(holding.getCurrentPrice());
-            BigDecimal unrealizedPnl = currentValue.subtract(holding.getTotalInvested());
-            BigDecimal unrealizedPnlPercentage = holding.getTotalInvested().compareTo(BigDecimal.ZERO) > 0
-                    ? unrealizedPnl.divide(holding.getTotalInvested(), 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
-                    : BigDecimal.ZERO;
-            
-            holding.setCurrentValue(currentValue);
-            holding.setUnrealizedPnl(unrealizedPnl);
-            holding.setUnrealizedPnlPercentage(unrealizedPnlPercentage);
+            applyPrice(holding, holding.getCurrentPrice());
         }
         
-        return portfolioRepository.saveHolding(holding);
+        PortfolioHolding saved = portfolioRepository.saveHolding(holding);
+        recordAdjustment(saved, saved.getId());
+        tradesChanged(saved.getUserId());
+        return saved;
+    }
+
+    /**
+     * Log a holding's position as set (or, at zero, deleted) by hand; taken under the
+     * holding's row lock like a trade's id, so it replays in the order it was applied
+     */
+    private void recordAdjustment(PortfolioHolding position, Long holdingId) {
+        PortfolioTransaction adjustment = new PortfolioTransaction();
+        adjustment.setId(portfolioRepository.reserveTransactionIds(1).get(0));
+        adjustment.setUserId(position.getUserId());
+        adjustment.setHoldingId(holdingId);
+        adjustment.setTransactionType(ADJUSTMENT);
+        adjustment.setAssetType(position.getAssetType());
+        adjustment.setSymbol(position.getSymbol());
+        adjustment.setQuantity(holdingId != null ? position.getQuantity() : BigDecimal.ZERO);
+        adjustment.setPrice(holdingId != null ? position.getAverageBuyPrice() : BigDecimal.ZERO);
+        adjustment.setTotalAmount(holdingId != null ? position.getTotalInvested() : BigDecimal.ZERO);
+        adjustment.setFees(BigDecimal.ZERO);
+        adjustment.setTransactionDate(LocalDate.now());
+        adjustment.setBroker(position.getBroker());
+        adjustment.setNotes(holdingId != null ? "Holding set by hand" : "Holding deleted by hand");
+        portfolioRepository.saveTransaction(adjustment);
     }
 
     /**
-     * Add a transaction and update the corresponding holding
+     * Record a trade and apply it to the user's holding in one transaction
+     * A buy creates the holding on first purchase; a sell that empties it deletes it.
+     * The holding is changed by a single upsert/update, so concurrent trades never
+     * overwrite each other's quantities. The trade's tax lots and realised gains are
+     * written in the same transaction.
      */
+    @Transactional
     public PortfolioTransaction addTransaction(PortfolioTransaction transaction) {
-        // Save transaction
+        validateTrade(transaction);
+        Long userId = transaction.getUserId();
+        LotEngine.Ledger ledger = lotEngine.ledger(userId, 1);
+        
+        PortfolioHolding holding;
+        if ("buy".equals(transaction.getTransactionType())) {
+            holding = portfolioRepository.applyBuy(boughtLot(transaction));
+            // Id taken under the holding's row lock, so id order is the order trades were applied
+            transaction.setId(portfolioRepository.reserveTransactionIds(1).get(0));
+            // The holding as it was before this buy, for squaring the lots with it
+            BigDecimal heldQuantity = holding.getQuantity().subtract(transaction.getQuantity());
+            BigDecimal heldAverage = heldQuantity.signum() > 0
+                    ? holding.getTotalInvested().subtract(transaction.getTotalAmount())
+                        .divide(heldQuantity, 2, RoundingMode.HALF_UP)
+                    : null;
+            ledger.buy(transaction, heldQuantity, heldAverage, heldQuantity.signum() > 0 ? holding.getCreatedAt() : null);
+        } else {
+            holding = portfolioRepository.applySell(userId, transaction.getSymbol(),
+                    transaction.getAssetType(), transaction.getQuantity())
+                .orElseThrow(() -> new IllegalArgumentException("Cannot sell more than is held"));
+            transaction.setId(portfolioRepository.reserveTransactionIds(1).get(0));
+            ledger.sell(transaction, holding.getQuantity().add(transaction.getQuantity()),
+                    holding.getAverageBuyPrice(), holding.getCreatedAt());
+            if (holding.getQuantity().signum() == 0) {
+                portfolioRepository.deleteHolding(holding.getId(), userId);
+                holding = null;
+            }
+        }
+        
+        transaction.setHoldingId(holding != null ? holding.getId() : null);
         transaction = portfolioRepository.saveTransaction(transaction);
+        ledger.flush();
+        tradesChanged(userId);
+        return transaction;
+    }
+
+    /**
+     * Record many validated trades for one user in one transaction
+     * Trades are grouped by (symbol, asset type) and folded in date order onto the user's
+     * locked holdings in memory; then the changed holdings are written as they now stand (new
+     * ones as an upsert that merges with a holding another trade just created) and every trade
+     * goes out in one batch insert. A sell of more than is held at that point is left out and
+     * reported to rejected with its index in trades. Lots are opened and matched in the
+     * same date order. Returns how many trades were recorded.
+     */
+    @Transactional
+    public int addTransactions(Long userId, List<PortfolioTransaction> trades, BiConsumer<Integer, String> rejected) {
+        if (trades.isEmpty()) {
+            return 0;
+        }
+        Map<String, PortfolioHolding> held = new HashMap<>();
+        Set<String> symbols = trades.stream().map(PortfolioTransaction::getSymbol).collect(Collectors.toSet());
+        for (PortfolioHolding holding : portfolioRepository.findHoldingsForUpdate(userId, symbols)) {
+            held.put(positionKey(holding.getSymbol(), holding.getAssetType()), holding);
+        }
         
-        // Update holding
-        Optional<PortfolioHolding> holdingOpt = portfolioRepository.findHoldingBySymbol(
-            transaction.getUserId(), 
-            transaction.getSymbol(), 
-            transaction.getAssetType()
-        );
+        // Date order, ties in the order given
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < trades.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(i -> trades.get(i).getTransactionDate()));
         
-        if (holdingOpt.isPresent()) {
-            PortfolioHolding holding = holdingOpt.get();
-            
-            if ("buy".equals(transaction.getTransactionType())) {
-                // Update for buy transaction
-                BigDecimal newQuantity = holding.getQuantity().add(transaction.getQuantity());
-                BigDecimal newTotalInvested = holding.getTotalInvested().add(transaction.getTotalAmount());
-                BigDecimal newAvgPrice = newTotalInvested.divide(newQuantity, 2, RoundingMode.HALF_UP);
-                
-                holding.setQuantity(newQuantity);
-                holding.setAverageBuyPrice(newAvgPrice);
-                holding.setTotalInvested(newTotalInvested);
-                
-            } else if ("sell".equals(transaction.getTransactionType())) {
-                // Update for sell transaction
-                BigDecimal newQuantity = holding.getQuantity().subtract(transaction.getQuantity());
-                BigDecimal soldInvestment = holding.getAverageBuyPrice().multiply(transaction.getQuantity());
-                BigDecimal newTotalInvested = holding.getTotalInvested().subtract(soldInvestment);
-                
-                holding.setQuantity(newQuantity);
-                holding.setTotalInvested(newTotalInvested);
-                
-                // Delete holding if quantity is zero or negative
-                if (newQuantity.compareTo(BigDecimal.ZERO) <= 0) {
-                    portfolioRepository.deleteHolding(holding.getId());
-                    return transaction;
-                }
+        // Ids up front so lots and gains can reference the trades before the batch insert
+        List<Long> transactionIds = portfolioRepository.reserveTransactionIds(trades.size());
+        int buys = (int) trades.stream().filter(trade -> "buy".equals(trade.getTransactionType())).count();
+        LotEngine.Ledger ledger = lotEngine.ledger(userId, buys);
+        Map<String, Position> positions = new LinkedHashMap<>();
+        List<PortfolioTransaction> accepted = new ArrayList<>(trades.size());
+        for (int i : order) {
+            PortfolioTransaction trade = trades.get(i);
+            String key = positionKey(trade.getSymbol(), trade.getAssetType());
+            Position position = positions.computeIfAbsent(key, k -> new Position(held.get(k)));
+            boolean buy = "buy".equals(trade.getTransactionType());
+            if (!buy && position.quantity.compareTo(trade.getQuantity()) < 0) {
+                rejected.accept(i, "Sells more than is held on " + trade.getTransactionDate());
+                continue;
             }
-            
-            // Recalculate P&L if current price is available
-            if (holding.getCurrentPrice() != null) {
-                BigDecimal currentValue = holding.getQuantity().multiply(holding.getCurrentPrice());
-                BigDecimal unrealizedPnl = currentValue.subtract(holding.getTotalInvested());
-                BigDecimal unrealizedPnlPercentage = holding.getTotalInvested().compareTo(BigDecimal.ZERO) > 0
-                        ? unrealizedPnl.divide(holding.getTotalInvested(), 4, RoundingMode.HALF_UP)
-                            .multiply(new BigDecimal("100"))
-                        : BigDecimal.ZERO;
-                
-                holding.setCurrentValue(currentValue);
-                holding.setUnrealizedPnl(unrealizedPnl);
-                holding.setUnrealizedPnlPercentage(unrealizedPnlPercentage);
+            trade.setId(transactionIds.get(accepted.size()));
+            if (buy) {
+                ledger.buy(trade, position.quantity, position.heldAverage(), position.heldSince());
+            } else {
+                ledger.sell(trade, position.quantity, position.heldAverage(), position.heldSince());
             }
-            
-            portfolioRepository.saveHolding(holding);
+            position.apply(trade);
+            accepted.add(trade);
         }
         
-        return transaction;
+        // Locked holdings are rewritten with the folded values, so a sell keeps the average as applySell does
+        List<PortfolioHolding> rewrites = new ArrayList<>();
+        List<PortfolioHolding> changes = new ArrayList<>();
+        for (Map.Entry<String, Position> entry : positions.entrySet()) {
+            Position position = entry.getValue();
+            if (position.changed && position.held) {
+                rewrites.add(position.row(userId, entry.getKey()));
+            } else if (position.changed) {
+                changes.add(position.change(userId, entry.getKey()));
+            }
+        }
+        if (rewrites.isEmpty() && changes.isEmpty()) {
+            return 0;
+        }
+        
+        List<PortfolioHolding> saved = new ArrayList<>();
+        if (!rewrites.isEmpty()) {
+            saved.addAll(portfolioRepository.replaceHoldingPositions(userId, rewrites));
+        }
+        if (!changes.isEmpty()) {
+            saved.addAll(portfolioRepository.upsertHoldingChanges(userId, changes));
+        }
+        Map<String, Long> holdingIds = new HashMap<>();
+        List<Long> emptied = new ArrayList<>();
+        for (PortfolioHolding holding : saved) {
+            if (holding.getQuantity().signum() <= 0) {
+                emptied.add(holding.getId());
+            } else {
+                holdingIds.put(positionKey(holding.getSymbol(), holding.getAssetType()), holding.getId());
+            }
+        }
+        if (!emptied.isEmpty()) {
+            portfolioRepository.deleteEmptyHoldings(userId, emptied);
+        }
+        
+        for (PortfolioTransaction trade : accepted) {
+            trade.setHoldingId(holdingIds.get(positionKey(trade.getSymbol(), trade.getAssetType())));
+        }
+        portfolioRepository.saveTransactions(accepted);
+        ledger.flush();
+        tradesChanged(userId);
+        return accepted.size();
+    }
+
+    private void tradesChanged(Long userId) {
+        userReadCache.invalidate(UserReadCache.HOLDINGS, userId);
+        userReadCache.invalidate(UserReadCache.TRANSACTIONS, userId);
+        // Drop rather than patch the aggregate: commits of concurrent trades can complete out of order
+        aggregateCache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aggregateCache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static String positionKey(String symbol, String assetType) {
+        return symbol + "|" + assetType;
+    }
+
+    /**
+     * Check a trade and fill in defaults; IllegalArgumentException says what is wrong
+     */
+    static void validateTrade(PortfolioTransaction transaction) {
+        if (!"buy".equals(transaction.getTransactionType()) && !"sell".equals(transaction.getTransactionType())) {
+            throw new IllegalArgumentException("transactionType must be buy or sell");
+        }
+        if (transaction.getSymbol() == null || transaction.getAssetType() == null) {
+            throw new IllegalArgumentException("symbol and assetType are required");
+        }
+        if (transaction.getQuantity() == null || transaction.getQuantity().signum() <= 0
+                || transaction.getPrice() == null || transaction.getPrice().signum() < 0) {
+            throw new IllegalArgumentException("quantity must be positive and price non-negative");
+        }
+        if (transaction.getTotalAmount() == null) {
+            transaction.setTotalAmount(transaction.getQuantity().multiply(transaction.getPrice())
+                    .setScale(2, RoundingMode.HALF_UP));
+        }
+        if (transaction.getFees() == null) {
+            transaction.setFees(BigDecimal.ZERO);
+        }
+        if (transaction.getTransactionDate() == null) {
+            transaction.setTransactionDate(LocalDate.now());
+        }
+    }
+
+    /**
+     * The holding a buy would create on its own; applyBuy merges it into an existing one
+     */
+    private PortfolioHolding boughtLot(PortfolioTransaction buy) {
+        PortfolioHolding lot = new PortfolioHolding();
+        lot.setUserId(buy.getUserId());
+        lot.setAssetType(buy.getAssetType());
+        lot.setSymbol(buy.getSymbol());
+        lot.setName(buy.getSymbol());
+        lot.setBroker(buy.getBroker());
+        lot.setQuantity(buy.getQuantity());
+        lot.setTotalInvested(buy.getTotalAmount());
+        lot.setAverageBuyPrice(buy.getTotalAmount().divide(buy.getQuantity(), 2, RoundingMode.HALF_UP));
+        return applyPrice(lot, buy.getPrice());
     }
 
     /**
      * Get all holdings for a user
      */
     public List<PortfolioHolding> getUserHoldings(Long userId) {
-        return portfolioRepository.findHoldingsByUserId(userId);
+        return userReadCache.get(UserReadCache.HOLDINGS, userId, "all",
+                () -> portfolioRepository.findHoldingsByUserId(userId));
     }
 
     /**
      * Get holdings by asset type (e.g., stocks, mutual_funds, etc.)
      */
     public List<PortfolioHolding> getUserHoldingsByType(Long userId, String assetType) {
-        return portfolioRepository.findHoldingsByUserIdAndAssetType(userId, assetType);
+        return userReadCache.get(UserReadCache.HOLDINGS, userId, "type:" + assetType,
+                () -> portfolioRepository.findHoldingsByUserIdAndAssetType(userId, assetType));
     }
 
     /**
      * Get all transactions for a user
      */
     public List<PortfolioTransaction> getUserTransactions(Long userId) {
-        return portfolioRepository.findTransactionsByUserId(userId);
+        return userReadCache.get(UserReadCache.TRANSACTIONS, userId, "all",
+                () -> portfolioRepository.findTransactionsByUserId(userId));
+    }
+
+    /**
+     * Get a user's open tax lots, by symbol and then in acquisition order
+     */
+    public List<PortfolioLot> getOpenLots(Long userId) {
+        return lotEngine.getOpenLots(userId);
+    }
+
+    /**
+     * Get a user's realised gains per lot, newest sale first; all years when financialYear is null
+     */
+    public List<RealizedGain> getRealizedGains(Long userId, String financialYear) {
+        return lotEngine.getRealizedGains(userId, financialYear);
+    }
+
+    /**
+     * Get one page of a user's transactions, newest first
+     * Unlike getUserTransactions this reaches the full history
+     */
+    public CursorPage<PortfolioTransaction> getUserTransactionsPage(Long userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        List<PortfolioTransaction> rows = portfolioRepository.findTransactionsPage(
+            userId, PageCursor.decode(cursor), pageSize + 1);
+        return CursorPage.of(rows, pageSize, tx -> new PageCursor(tx.getTransactionDate(), tx.getId()));
     }
 
     /**
@@ -133,84 +368,239 @@ public class PortfolioService {
         Optional<PortfolioHolding> holdingOpt = portfolioRepository.findById(holdingId);
         
         if (holdingOpt.isPresent()) {
-            PortfolioHolding holding = holdingOpt.get();
-            
-            // Calculate new values
-            BigDecimal currentValue = holding.getQuantity().multiply(currentPrice);
-            BigDecimal unrealizedPnl = currentValue.subtract(holding.getTotalInvested());
-            BigDecimal unrealizedPnlPercentage = holding.getTotalInvested().compareTo(BigDecimal.ZERO) > 0
-                    ? unrealizedPnl.divide(holding.getTotalInvested(), 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"))
-                    : BigDecimal.ZERO;
+            PortfolioHolding holding = applyPrice(holdingOpt.get(), currentPrice);
             
             // Update prices in database
             portfolioRepository.updateHoldingPrices(
                 holdingId, 
-                currentPrice, 
-                currentValue, 
-                unrealizedPnl, 
-                unrealizedPnlPercentage
+                holding.getCurrentPrice(), 
+                holding.getCurrentValue(), 
+                holding.getUnrealizedPnl(), 
+                holding.getUnrealizedPnlPercentage()
             );
+            aggregateCache.apply(holding.getUserId(), aggregate -> aggregate.upsert(holding));
+            userReadCache.invalidate(UserReadCache.HOLDINGS, holding.getUserId());
         }
     }
 
     /**
      * Update prices for all holdings of a user
-     * Useful for bulk price updates
+     * Holdings are loaded once, repriced in memory and written back in a single batch
+     * Reads the repository directly: repricing mutates the rows, which cached lists share
+     */
+    public int updateAllHoldingPrices(Long userId, Map<String, BigDecimal> symbolPriceMap) {
+        return repriceHoldings(portfolioRepository.findHoldingsByUserId(userId), symbolPriceMap);
+    }
+
+    /**
+     * Reprice every user's holdings in the given symbols
+     * Holdings are walked in id pages of market.prices.holdings-page-size; each page is
+     * repriced by one UPDATE in the database, so no page of rows round-trips through Java
      */
-    public void updateAllHoldingPrices(Long userId, java.util.Map<String, BigDecimal> symbolPriceMap) {
-        List<PortfolioHolding> holdings = getUserHoldings(userId);
+    public int updateMarketPrices(Map<String, BigDecimal> symbolPriceMap) {
+        if (symbolPriceMap.isEmpty()) {
+            return 0;
+        }
+        int repriced = 0;
+        long afterId = 0;
+        List<Long> page;
+        do {
+            page = portfolioRepository.findHoldingIdsBySymbols(symbolPriceMap.keySet(), afterId, repricePageSize);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1);
+            List<PortfolioHolding> changed = portfolioRepository.repriceHoldings(page, symbolPriceMap);
+            repriced(changed);
+            repriced += changed.size();
+        } while (page.size() == repricePageSize);
+        return repriced;
+    }
+
+    private int repriceHoldings(List<PortfolioHolding> holdings, Map<String, BigDecimal> symbolPriceMap) {
+        List<PortfolioHolding> repriced = new ArrayList<>();
         
         for (PortfolioHolding holding : holdings) {
-            String symbol = holding.getSymbol();
-            if (symbolPriceMap.containsKey(symbol)) {
-                BigDecimal newPrice = symbolPriceMap.get(symbol);
-                updateHoldingPrice(holding.getId(), newPrice);
+            BigDecimal newPrice = symbolPriceMap.get(holding.getSymbol());
+            if (newPrice != null) {
+                newPrice = newPrice.setScale(Money.SCALE, RoundingMode.HALF_UP);
+            }
+            // Skip holdings that are already at this price, as stored to 2 places
+            if (newPrice != null && (holding.getCurrentPrice() == null
+                    || holding.getCurrentPrice().compareTo(newPrice) != 0)) {
+                repriced.add(applyPrice(holding, newPrice));
+            }
+        }
+        
+        if (!repriced.isEmpty()) {
+            portfolioRepository.batchUpdateHoldingPrices(repriced);
+            repriced(repriced);
+        }
+        return repriced.size();
+    }
+
+    private void repriced(List<PortfolioHolding> holdings) {
+        for (PortfolioHolding holding : holdings) {
+            aggregateCache.apply(holding.getUserId(), aggregate -> aggregate.upsert(holding));
+        }
+        holdings.stream().map(PortfolioHolding::getUserId).distinct()
+                .forEach(userId -> userReadCache.invalidate(UserReadCache.HOLDINGS, userId));
+    }
+
+    /**
+     * One holding while a batch of trades is folded onto it, using the same
+     * average-cost rules as applyBuy/applySell
+     */
+    private final class Position {
+        // Whether the holding existed (and is locked), as opposed to being opened by this batch
+        private final boolean held;
+        private final BigDecimal startQuantity;
+        private final BigDecimal startInvested;
+        private final LocalDateTime since;
+        private BigDecimal quantity;
+        private BigDecimal invested;
+        private BigDecimal averagePrice;
+        // The price a new holding starts at, as if its first trade had created it; a stored price wins on write
+        private BigDecimal firstPrice;
+        private boolean changed;
+
+        Position(PortfolioHolding holding) {
+            held = holding != null;
+            startQuantity = holding != null ? holding.getQuantity() : BigDecimal.ZERO;
+            startInvested = holding != null ? holding.getTotalInvested() : BigDecimal.ZERO;
+            averagePrice = holding != null ? holding.getAverageBuyPrice() : BigDecimal.ZERO;
+            since = holding != null ? holding.getCreatedAt() : null;
+            quantity = startQuantity;
+            invested = startInvested;
+        }
+
+        /**
+         * Fold in a trade; the caller has already refused sells of more than quantity
+         */
+        void apply(PortfolioTransaction trade) {
+            if ("buy".equals(trade.getTransactionType())) {
+                quantity = quantity.add(trade.getQuantity());
+                invested = invested.add(trade.getTotalAmount());
+                averagePrice = invested.divide(quantity, 2, RoundingMode.HALF_UP);
+            } else {
+                quantity = quantity.subtract(trade.getQuantity());
+                invested = invested.subtract(averagePrice.multiply(trade.getQuantity()).setScale(2, RoundingMode.HALF_UP));
+                if (quantity.signum() == 0) {
+                    // As for a single sell: the emptied holding is deleted, so nothing carries over
+                    invested = BigDecimal.ZERO;
+                }
+            }
+            if (firstPrice == null) {
+                firstPrice = trade.getPrice();
             }
+            changed = true;
+        }
+
+        BigDecimal heldAverage() {
+            return quantity.signum() > 0 ? averagePrice : null;
+        }
+
+        LocalDateTime heldSince() {
+            return quantity.signum() > 0 ? since : null;
+        }
+
+        /**
+         * The row for replaceHoldingPositions: the holding as the folded trades leave it
+         */
+        PortfolioHolding row(Long userId, String key) {
+            PortfolioHolding row = new PortfolioHolding();
+            row.setUserId(userId);
+            row.setSymbol(key.substring(0, key.lastIndexOf('|')));
+            row.setAssetType(key.substring(key.lastIndexOf('|') + 1));
+            row.setName(row.getSymbol());
+            row.setQuantity(quantity);
+            row.setTotalInvested(invested);
+            row.setAverageBuyPrice(averagePrice);
+            return applyPrice(row, firstPrice);
+        }
+
+        /**
+         * The row for upsertHoldingChanges: quantity and invested as deltas, the rest as a new holding would start
+         */
+        PortfolioHolding change(Long userId, String key) {
+            PortfolioHolding change = row(userId, key);
+            change.setQuantity(quantity.subtract(startQuantity));
+            change.setTotalInvested(invested.subtract(startInvested));
+            return change;
         }
     }
 
     /**
-     * Delete a holding by ID
+     * Set the current price on a holding and recalculate value and unrealized P&L
+     * Uses fixed-point arithmetic, falling back to BigDecimal outside its range
      */
-    public void deleteHolding(Long holdingId) {
-        portfolioRepository.deleteHolding(holdingId);
+    static PortfolioHolding applyPrice(PortfolioHolding holding, BigDecimal currentPrice) {
+        holding.setCurrentPrice(currentPrice);
+        
+        try {
+            long quantity = Money.toQuantityUnits(holding.getQuantity());
+            long price = Money.toPaise(currentPrice);
+            long invested = Money.toPaise(holding.getTotalInvested());
+            long currentValue = Money.value(quantity, price);
+            
+            holding.setCurrentValue(Money.fromPaise(currentValue));
+            holding.setUnrealizedPnl(Money.fromPaise(Money.pnl(quantity, price, invested)));
+            holding.setUnrealizedPnlPercentage(
+                Money.fromBasisPoints(Money.pnlBasisPoints(quantity, price, invested)));
+        } catch (ArithmeticException e) {
+            // Rounded like the fixed-point path: each figure from the exact value, HALF_UP to 2 places
+            BigDecimal exactValue = holding.getQuantity().multiply(currentPrice);
+            BigDecimal exactPnl = exactValue.subtract(holding.getTotalInvested());
+            BigDecimal unrealizedPnlPercentage = holding.getTotalInvested().compareTo(BigDecimal.ZERO) > 0
+                    ? exactPnl.multiply(ONE_HUNDRED).divide(holding.getTotalInvested(), Money.SCALE, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO.setScale(Money.SCALE);
+            
+            holding.setCurrentValue(exactValue.setScale(Money.SCALE, RoundingMode.HALF_UP));
+            holding.setUnrealizedPnl(exactPnl.setScale(Money.SCALE, RoundingMode.HALF_UP));
+            holding.setUnrealizedPnlPercentage(unrealizedPnlPercentage);
+        }
+        return holding;
+    }
+
+    /**
+     * Delete one of a user's holdings; false if it does not exist or belongs to someone else
+     */
+    @Transactional
+    public boolean deleteHolding(Long holdingId, Long userId) {
+        Optional<PortfolioHolding> deleted = portfolioRepository.deleteHolding(holdingId, userId);
+        deleted.ifPresent(holding -> {
+            recordAdjustment(holding, null);
+            tradesChanged(userId);
+        });
+        return deleted.isPresent();
+    }
+
+    /**
+     * Totals, per-asset-type breakdown, allocation and top movers in one call
+     * Served from the user's cached aggregate; holdings are read only on a cache miss
+     */
+    public PortfolioSummary getSummary(Long userId) {
+        return aggregateCache.get(userId).toSummary(userId, topMovers);
     }
 
     /**
      * Get total portfolio value for a user
      */
     public BigDecimal getTotalPortfolioValue(Long userId) {
-        List<PortfolioHolding> holdings = getUserHoldings(userId);
-        
-        return holdings.stream()
-            .map(holding -> holding.getCurrentValue() != null 
-                ? holding.getCurrentValue() 
-                : holding.getTotalInvested())
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getSummary(userId).getTotalValue();
     }
 
     /**
      * Get total invested amount for a user
      */
     public BigDecimal getTotalInvested(Long userId) {
-        List<PortfolioHolding> holdings = getUserHoldings(userId);
-        
-        return holdings.stream()
-            .map(PortfolioHolding::getTotalInvested)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getSummary(userId).getTotalInvested();
     }
 
     /**
      * Get total unrealized P&L for a user
      */
     public BigDecimal getTotalUnrealizedPnL(Long userId) {
-        List<PortfolioHolding> holdings = getUserHoldings(userId);
-        
-        return holdings.stream()
-            .map(holding -> holding.getUnrealizedPnl() != null 
-                ? holding.getUnrealizedPnl() 
-                : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getSummary(userId).getTotalUnrealizedPnl();
     }
-}
\ No newline at end of file
+}
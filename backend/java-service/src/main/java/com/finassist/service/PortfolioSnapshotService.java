@@ -0,0 +1,97 @@
+package com.finassist.service;
+
+import com.finassist.dto.ValuationSeries;
+import com.finassist.repository.SnapshotRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Daily portfolio valuation history.
+ *
+ * Once a day (portfolio.snapshots.cron, after the market close) every user's holdings
+ * are aggregated per asset type into portfolio_daily_snapshots by INSERT ... SELECT,
+ * one user-id range per transaction. Rerunning a day replaces its rows. History reads
+ * never recompute anything: long ranges are downsampled in the same indexed query to
+ * at most portfolio.history.max-points points.
+ */
+@Service
+public class PortfolioSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioSnapshotService.class);
+
+    private final SnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final ZoneId zone;
+    private final long chunkUsers;
+    private final int defaultPoints;
+    private final int maxPoints;
+
+    public PortfolioSnapshotService(SnapshotRepository snapshotRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${portfolio.snapshots.enabled:true}") boolean enabled,
+                                    @Value("${portfolio.snapshots.zone:Asia/Kolkata}") String zone,
+                                    @Value("${portfolio.snapshots.chunk-users:5000}") long chunkUsers,
+                                    @Value("${portfolio.history.default-points:180}") int defaultPoints,
+                                    @Value("${portfolio.history.max-points:366}") int maxPoints) {
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.zone = ZoneId.of(zone);
+        this.chunkUsers = Math.max(1, chunkUsers);
+        this.defaultPoints = defaultPoints;
+        this.maxPoints = maxPoints;
+    }
+
+    @Scheduled(cron = "${portfolio.snapshots.cron:0 0 18 * * *}", zone = "${portfolio.snapshots.zone:Asia/Kolkata}")
+    public void snapshotToday() {
+        if (enabled) {
+            snapshot(LocalDate.now(zone));
+        }
+    }
+
+    /**
+     * Write (or rewrite) every user's snapshot rows for a date; returns rows written
+     */
+    public int snapshot(LocalDate date) {
+        long start = System.currentTimeMillis();
+        long[] users = snapshotRepository.findHoldingUserIdRange();
+        if (users == null) {
+            return 0;
+        }
+        int rows = 0;
+        for (long from = users[0]; from <= users[1]; from += chunkUsers) {
+            long to = Math.min(from + chunkUsers - 1, users[1]);
+            long chunkFrom = from;
+            rows += transactionTemplate.execute(status -> snapshotRepository.snapshotUsers(date, chunkFrom, to));
+        }
+        log.info("Wrote {} portfolio snapshot rows for {} in {} ms", rows, date, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Value and P&L series for a user between from and to (default: the year to today),
+     * for one asset type or the whole portfolio, with at most points points
+     */
+    public ValuationSeries getHistory(Long userId, LocalDate from, LocalDate to, String assetType, Integer points) {
+        LocalDate end = to != null ? to : LocalDate.now(zone);
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        int limit = points == null ? defaultPoints : Math.max(1, Math.min(points, maxPoints));
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        int bucketDays = (int) Math.min(Integer.MAX_VALUE, (days + limit - 1) / limit);
+        return new ValuationSeries(userId, assetType, start, end, bucketDays,
+            snapshotRepository.findSeries(userId, assetType, start, end, bucketDays));
+    }
+}
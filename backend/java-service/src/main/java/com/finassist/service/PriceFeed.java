@@ -0,0 +1,14 @@
+package com.finassist.service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Source of market prices for the repricing engine.
+ * Implementations return the latest known price per symbol; symbols that
+ * have not changed may be returned again and are filtered out downstream.
+ */
+public interface PriceFeed {
+
+    Map<String, BigDecimal> fetchLatestPrices();
+}
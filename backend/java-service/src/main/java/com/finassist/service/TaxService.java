@@ -7,17 +7,34 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TaxService {
 
     private final TaxRepository taxRepository;
+    private final TaxSlabRegistry taxSlabRegistry;
+    private final UserReadCache userReadCache;
+    private final LotEngine lotEngine;
 
-    public TaxService(TaxRepository taxRepository) {
+    public TaxService(TaxRepository taxRepository, TaxSlabRegistry taxSlabRegistry, UserReadCache userReadCache,
+                      LotEngine lotEngine) {
         this.taxRepository = taxRepository;
+        this.taxSlabRegistry = taxSlabRegistry;
+        this.userReadCache = userReadCache;
+        this.lotEngine = lotEngine;
     }
 
+    /**
+     * Calculate and save; the saved financial year is the one whose slabs were applied
+     *
+     * @throws IllegalArgumentException if there are no slabs for the requested year
+     */
     public TaxCalculation calculateTax(TaxCalculation tax) {
+        tax.setFinancialYear(taxSlabRegistry.resolveYear(tax.getFinancialYear()));
+        fillCapitalGains(tax);
+        
         // Calculate total income
         BigDecimal totalIncome = tax.getSalaryIncome()
                 .add(tax.getHousePropertyIncome())
@@ -41,10 +58,10 @@ public class TaxService {
         }
         
         // Calculate tax under old regime (with deductions)
-        BigDecimal taxOldRegime = calculateOldRegimeTax(taxableIncome);
+        BigDecimal taxOldRegime = taxSlabRegistry.oldRegime(tax.getFinancialYear()).tax(taxableIncome);
         
         // Calculate tax under new regime (no deductions except standard deduction)
-        BigDecimal taxNewRegime = calculateNewRegimeTax(totalIncome);
+        BigDecimal taxNewRegime = taxSlabRegistry.newRegime(tax.getFinancialYear()).tax(totalIncome);
         
         // Determine recommended regime
         String recommendedRegime = taxOldRegime.compareTo(taxNewRegime) <= 0 ? "Old Regime" : "New Regime";
@@ -60,61 +77,27 @@ public class TaxService {
         tax.setTaxSavingTips(taxSavingTips);
         
         // Save to database
-        return taxRepository.save(tax);
-    }
-
-    private BigDecimal calculateOldRegimeTax(BigDecimal income) {
-        BigDecimal tax = BigDecimal.ZERO;
-        
-        // Old Regime Tax Slabs (FY 2024-25)
-        if (income.compareTo(new BigDecimal("250000")) > 0) {
-            BigDecimal slab1 = income.subtract(new BigDecimal("250000")).min(new BigDecimal("250000"));
-            tax = tax.add(slab1.multiply(new BigDecimal("0.05")));
-        }
-        if (income.compareTo(new BigDecimal("500000")) > 0) {
-            BigDecimal slab2 = income.subtract(new BigDecimal("500000")).min(new BigDecimal("500000"));
-            tax = tax.add(slab2.multiply(new BigDecimal("0.20")));
-        }
-        if (income.compareTo(new BigDecimal("1000000")) > 0) {
-            BigDecimal slab3 = income.subtract(new BigDecimal("1000000"));
-            tax = tax.add(slab3.multiply(new BigDecimal("0.30")));
-        }
-        
-        // Add 4% cess
-        tax = tax.multiply(new BigDecimal("1.04"));
-        
-        return tax.setScale(2, RoundingMode.HALF_UP);
+        TaxCalculation saved = taxRepository.save(tax);
+        userReadCache.invalidate(UserReadCache.TAX_CALCULATIONS, saved.getUserId());
+        return saved;
     }
 
-    private BigDecimal calculateNewRegimeTax(BigDecimal income) {
-        BigDecimal tax = BigDecimal.ZERO;
-        
-        // New Regime Tax Slabs (FY 2024-25)
-        if (income.compareTo(new BigDecimal("300000")) > 0) {
-            BigDecimal slab1 = income.subtract(new BigDecimal("300000")).min(new BigDecimal("300000"));
-            tax = tax.add(slab1.multiply(new BigDecimal("0.05")));
-        }
-        if (income.compareTo(new BigDecimal("600000")) > 0) {
-            BigDecimal slab2 = income.subtract(new BigDecimal("600000")).min(new BigDecimal("100000"));
-            tax = tax.add(slab2.multiply(new BigDecimal("0.10")));
-        }
-        if (income.compareTo(new BigDecimal("900000")) > 0) {
-            BigDecimal slab3 = income.subtract(new BigDecimal("900000")).min(new BigDecimal("300000"));
-            tax = tax.add(slab3.multiply(new BigDecimal("0.15")));
+    /**
+     * Capital gains left out of the request come from the portfolio's realised gains for
+     * that financial year; a net loss counts as zero (it is carried forward, not set off)
+     * The year must already be resolved; the what-if sweep fills its base the same way
+     */
+    public void fillCapitalGains(TaxCalculation tax) {
+        if (tax.getCapitalGainsShort() != null && tax.getCapitalGainsLong() != null) {
+            return;
         }
-        if (income.compareTo(new BigDecimal("1200000")) > 0) {
-            BigDecimal slab4 = income.subtract(new BigDecimal("1200000")).min(new BigDecimal("300000"));
-            tax = tax.add(slab4.multiply(new BigDecimal("0.20")));
+        Map<String, BigDecimal> realized = lotEngine.getRealizedTotals(tax.getUserId(), tax.getFinancialYear());
+        if (tax.getCapitalGainsShort() == null) {
+            tax.setCapitalGainsShort(realized.getOrDefault(LotEngine.SHORT_TERM, BigDecimal.ZERO).max(BigDecimal.ZERO));
         }
-        if (income.compareTo(new BigDecimal("1500000")) > 0) {
-            BigDecimal slab5 = income.subtract(new BigDecimal("1500000"));
-            tax = tax.add(slab5.multiply(new BigDecimal("0.30")));
+        if (tax.getCapitalGainsLong() == null) {
+            tax.setCapitalGainsLong(realized.getOrDefault(LotEngine.LONG_TERM, BigDecimal.ZERO).max(BigDecimal.ZERO));
         }
-        
-        // Add 4% cess
-        tax = tax.multiply(new BigDecimal("1.04"));
-        
-        return tax.setScale(2, RoundingMode.HALF_UP);
     }
 
     private String generateTaxSavingTips(TaxCalculation tax, BigDecimal totalDeductions) {
@@ -152,10 +135,15 @@ public class TaxService {
     }
 
     public List<TaxCalculation> getUserTaxCalculations(Long userId) {
-        return taxRepository.findByUserId(userId);
+        return userReadCache.get(UserReadCache.TAX_CALCULATIONS, userId, "all",
+                () -> taxRepository.findByUserId(userId));
     }
 
     public TaxCalculation getLatestTaxCalculation(Long userId, String year) {
         return taxRepository.findByUserIdAndYear(userId, year).orElse(null);
     }
+
+    public Set<String> getSupportedYears() {
+        return taxSlabRegistry.supportedYears();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.finassist.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per financial year tax tables, loaded from tax-slabs.json and compiled once at startup.
+ * A missing year resolves to the configured default year; a year with no table is refused.
+ */
+@Component
+public class TaxSlabRegistry {
+
+    private static final String RESOURCE = "tax-slabs.json";
+
+    private final Map<String, TaxSlabTable> oldRegime = new TreeMap<>();
+    private final Map<String, TaxSlabTable> newRegime = new TreeMap<>();
+    private final String defaultYear;
+
+    public TaxSlabRegistry(ObjectMapper objectMapper) {
+        try (InputStream in = new ClassPathResource(RESOURCE).getInputStream()) {
+            JsonNode root = objectMapper.readTree(in);
+            
+            Iterator<Map.Entry<String, JsonNode>> years = root.path("years").fields();
+            while (years.hasNext()) {
+                Map.Entry<String, JsonNode> year = years.next();
+                oldRegime.put(year.getKey(), compile(objectMapper, year.getValue().path("old")));
+                newRegime.put(year.getKey(), compile(objectMapper, year.getValue().path("new")));
+            }
+            this.defaultYear = root.path("defaultYear").asText();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load " + RESOURCE, e);
+        }
+        
+        if (!oldRegime.containsKey(defaultYear)) {
+            throw new IllegalStateException("Default tax year " + defaultYear + " has no slab table");
+        }
+    }
+
+    private static TaxSlabTable compile(ObjectMapper objectMapper, JsonNode node) throws IOException {
+        return TaxSlabTable.compile(objectMapper.treeToValue(node, TaxSlabTable.Definition.class));
+    }
+
+    /**
+     * The financial year whose tables apply: the default year when none is given
+     *
+     * @throws IllegalArgumentException if there is no table for the year
+     */
+    public String resolveYear(String financialYear) {
+        if (financialYear == null || financialYear.isBlank()) {
+            return defaultYear;
+        }
+        if (!oldRegime.containsKey(financialYear)) {
+            throw new IllegalArgumentException("No tax slabs for financial year " + financialYear
+                    + "; supported years are " + oldRegime.keySet());
+        }
+        return financialYear;
+    }
+
+    public TaxSlabTable oldRegime(String financialYear) {
+        return oldRegime.get(resolveYear(financialYear));
+    }
+
+    public TaxSlabTable newRegime(String financialYear) {
+        return newRegime.get(resolveYear(financialYear));
+    }
+
+    public Set<String> supportedYears() {
+        return Collections.unmodifiableSet(oldRegime.keySet());
+    }
+}
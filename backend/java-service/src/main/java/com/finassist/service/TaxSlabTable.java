@@ -0,0 +1,200 @@
+package com.finassist.service;
+
+import com.finassist.util.Money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Immutable, precompiled income tax table for one financial year and regime.
+ *
+ * Slab lower bounds are kept in a sorted array together with the tax already
+ * due at each bound, so evaluating an income is a binary search plus one
+ * multiply. The 87A rebate, surcharge tiers and health and education cess are
+ * applied in that order. Marginal relief on surcharge is not modelled.
+ */
+public final class TaxSlabTable {
+
+    private static final long ROUNDING_DIVISOR = 1_000_000L;
+
+    private final long[] thresholds;
+    private final int[] rates;
+    private final long[] baseTax;
+    private final long rebateMaxIncome;
+    private final long rebateAmount;
+    private final long[] surchargeThresholds;
+    private final int[] surchargeRates;
+    private final int cessPercent;
+
+    private TaxSlabTable(long[] thresholds, int[] rates, long rebateMaxIncome, long rebateAmount,
+                         long[] surchargeThresholds, int[] surchargeRates, int cessPercent) {
+        this.thresholds = thresholds;
+        this.rates = rates;
+        this.rebateMaxIncome = rebateMaxIncome;
+        this.rebateAmount = rebateAmount;
+        this.surchargeThresholds = surchargeThresholds;
+        this.surchargeRates = surchargeRates;
+        this.cessPercent = cessPercent;
+        
+        // Prefix-sum the tax due at each slab boundary (paise x percent)
+        this.baseTax = new long[thresholds.length];
+        for (int i = 1; i < thresholds.length; i++) {
+            baseTax[i] = Math.addExact(baseTax[i - 1],
+                    Math.multiplyExact(thresholds[i] - thresholds[i - 1], (long) rates[i - 1]));
+        }
+    }
+
+    public static TaxSlabTable compile(Definition definition) {
+        List<Slab> slabs = definition.getSlabs();
+        if (slabs == null || slabs.isEmpty() || slabs.get(0).getFrom().signum() != 0) {
+            throw new IllegalArgumentException("Slab table must start at 0");
+        }
+        
+        long[] thresholds = new long[slabs.size()];
+        int[] rates = new int[slabs.size()];
+        toArrays(slabs, thresholds, rates);
+        
+        List<Slab> surcharges = definition.getSurcharges() != null ? definition.getSurcharges() : List.of();
+        long[] surchargeThresholds = new long[surcharges.size()];
+        int[] surchargeRates = new int[surcharges.size()];
+        toArrays(surcharges, surchargeThresholds, surchargeRates);
+        
+        Rebate rebate = definition.getRebate();
+        return new TaxSlabTable(
+            thresholds,
+            rates,
+            rebate != null ? Money.toPaise(rebate.getMaxIncome()) : -1,
+            rebate != null ? Money.toPaise(rebate.getAmount()) : 0,
+            surchargeThresholds,
+            surchargeRates,
+            definition.getCessPercent()
+        );
+    }
+
+    private static void toArrays(List<Slab> slabs, long[] thresholds, int[] rates) {
+        for (int i = 0; i < slabs.size(); i++) {
+            thresholds[i] = Money.toPaise(slabs.get(i).getFrom());
+            rates[i] = slabs.get(i).getRate();
+            if (i > 0 && thresholds[i] <= thresholds[i - 1]) {
+                throw new IllegalArgumentException("Slab thresholds must be ascending");
+            }
+        }
+    }
+
+    /**
+     * Total tax including rebate, surcharge and cess, rounded HALF_UP to paise
+     */
+    public long taxPaise(long incomePaise) {
+        int slab = floorIndex(thresholds, incomePaise);
+        if (slab < 0) {
+            return 0;
+        }
+        
+        long tax = Math.addExact(baseTax[slab],
+                Math.multiplyExact(incomePaise - thresholds[slab], (long) rates[slab]));
+        if (incomePaise <= rebateMaxIncome) {
+            tax = Math.max(0, tax - rebateAmount * 100);
+        }
+        
+        int tier = floorIndex(surchargeThresholds, incomePaise);
+        long withSurcharge = Math.multiplyExact(tax, 100L + (tier >= 0 ? surchargeRates[tier] : 0));
+        return Money.divideHalfUp(Math.multiplyExact(withSurcharge, 100L + cessPercent), ROUNDING_DIVISOR);
+    }
+
+    /**
+     * Total tax for a BigDecimal income, using exact BigDecimal arithmetic when
+     * the income does not fit the fixed-point range
+     */
+    public BigDecimal tax(BigDecimal income) {
+        try {
+            return Money.fromPaise(taxPaise(Money.toPaise(income)));
+        } catch (ArithmeticException e) {
+            int slab = floorIndex(thresholds, income);
+            if (slab < 0) {
+                return BigDecimal.ZERO.setScale(Money.SCALE);
+            }
+            
+            BigDecimal tax = BigDecimal.valueOf(baseTax[slab], 4)
+                    .add(income.subtract(Money.fromPaise(thresholds[slab])).multiply(BigDecimal.valueOf(rates[slab], 2)));
+            if (rebateMaxIncome >= 0 && income.compareTo(Money.fromPaise(rebateMaxIncome)) <= 0) {
+                tax = tax.subtract(Money.fromPaise(rebateAmount)).max(BigDecimal.ZERO);
+            }
+            
+            int tier = floorIndex(surchargeThresholds, income);
+            if (tier >= 0) {
+                tax = tax.multiply(BigDecimal.valueOf(100L + surchargeRates[tier], 2));
+            }
+            return tax.multiply(BigDecimal.valueOf(100L + cessPercent, 2)).setScale(Money.SCALE, RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Index of the last bound strictly below the value, or -1
+     */
+    private static int floorIndex(long[] bounds, long value) {
+        int low = 0;
+        int high = bounds.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (bounds[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private static int floorIndex(long[] bounds, BigDecimal value) {
+        int index = -1;
+        for (int i = 0; i < bounds.length && Money.fromPaise(bounds[i]).compareTo(value) < 0; i++) {
+            index = i;
+        }
+        return index;
+    }
+
+    /**
+     * Slab table as written in tax-slabs.json (amounts in rupees, rates in percent)
+     */
+    public static class Definition {
+        private List<Slab> slabs;
+        private Rebate rebate;
+        private List<Slab> surcharges;
+        private int cessPercent;
+
+        public List<Slab> getSlabs() { return slabs; }
+        public void setSlabs(List<Slab> slabs) { this.slabs = slabs; }
+
+        public Rebate getRebate() { return rebate; }
+        public void setRebate(Rebate rebate) { this.rebate = rebate; }
+
+        public List<Slab> getSurcharges() { return surcharges; }
+        public void setSurcharges(List<Slab> surcharges) { this.surcharges = surcharges; }
+
+        public int getCessPercent() { return cessPercent; }
+        public void setCessPercent(int cessPercent) { this.cessPercent = cessPercent; }
+    }
+
+    public static class Slab {
+        private BigDecimal from;
+        private int rate;
+
+        public BigDecimal getFrom() { return from; }
+        public void setFrom(BigDecimal from) { this.from = from; }
+
+        public int getRate() { return rate; }
+        public void setRate(int rate) { this.rate = rate; }
+    }
+
+    public static class Rebate {
+        private BigDecimal maxIncome;
+        private BigDecimal amount;
+
+        public BigDecimal getMaxIncome() { return maxIncome; }
+        public void setMaxIncome(BigDecimal maxIncome) { this.maxIncome = maxIncome; }
+
+        public BigDecimal getAmount() { return amount; }
+        public void setAmount(BigDecimal amount) { this.amount = amount; }
+    }
+}
@@ -0,0 +1,253 @@
+package com.finassist.service;
+
+import com.finassist.dto.TaxWhatIfRequest;
+import com.finassist.dto.TaxWhatIfResponse;
+import com.finassist.model.TaxCalculation;
+import com.finassist.util.Money;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates a grid of tax scenarios in memory without persisting anything.
+ * Each scenario is a slab table lookup on fixed-point paise, so a few thousand
+ * scenarios cost about as much as a single database round-trip.
+ */
+@Service
+public class TaxWhatIfService {
+
+    private static final String OLD_REGIME = "Old Regime";
+    private static final String NEW_REGIME = "New Regime";
+    private static final long NPS_DEDUCTION = 50_000_00L;
+    private static final long ONE_RUPEE = 100L;
+
+    private final TaxSlabRegistry taxSlabRegistry;
+    private final TaxService taxService;
+    private final int maxScenarios;
+
+    public TaxWhatIfService(TaxSlabRegistry taxSlabRegistry, TaxService taxService,
+                            @Value("${tax.what-if.max-scenarios:20000}") int maxScenarios) {
+        this.taxSlabRegistry = taxSlabRegistry;
+        this.taxService = taxService;
+        this.maxScenarios = maxScenarios;
+    }
+
+    /**
+     * Sweep salary, 80C, NPS and financial year around a base calculation
+     * Returns old vs new regime tax for every grid point plus the breakeven points
+     * Capital gains left out of the base come from the user's realised gains, as in calculateTax
+     *
+     * @throws IllegalArgumentException for an invalid grid or amounts too large to evaluate
+     */
+    public TaxWhatIfResponse sweep(TaxWhatIfRequest request) {
+        TaxCalculation base = request.getBase();
+        if (base == null) {
+            throw new IllegalArgumentException("A base calculation is required");
+        }
+        base.setFinancialYear(taxSlabRegistry.resolveYear(base.getFinancialYear()));
+        taxService.fillCapitalGains(base);
+        
+        try {
+            return sweep(request, base);
+        } catch (ArithmeticException e) {
+            // Money overflowed the fixed-point range, here or in a worker of the parallel loop
+            throw new IllegalArgumentException("Amounts are too large to evaluate");
+        }
+    }
+
+    private TaxWhatIfResponse sweep(TaxWhatIfRequest request, TaxCalculation base) {
+        long[] salaries = expand(request.getSalaryIncome(), base.getSalaryIncome(), "salaryIncome");
+        long[] deductions80c = expand(request.getDeduction80c(), base.getDeduction80c(), "deduction80c");
+        long[] npsDeductions = npsOptions(request.getNps(), base.getDeduction80ccd1b());
+        Tables[] years = years(request.getFinancialYears(), base.getFinancialYear());
+        
+        long count = (long) years.length * npsDeductions.length * salaries.length * deductions80c.length;
+        if (count > maxScenarios) {
+            throw new IllegalArgumentException("Sweep has " + count + " scenarios, the limit is " + maxScenarios);
+        }
+        
+        long otherIncome = sum(base.getHousePropertyIncome(), base.getBusinessIncome(),
+                base.getCapitalGainsShort(), base.getCapitalGainsLong(), base.getOtherIncome());
+        long otherDeductions = sum(base.getDeduction80d(), base.getDeduction80e(),
+                base.getDeduction80g(), base.getOtherDeductions());
+        
+        int perSeries = salaries.length * deductions80c.length;
+        boolean[] oldWins = new boolean[(int) count];
+        TaxWhatIfResponse.Scenario[] scenarios = new TaxWhatIfResponse.Scenario[(int) count];
+        
+        IntStream.range(0, (int) count).parallel().forEach(i -> {
+            int series = i / perSeries;
+            Tables tables = years[series / npsDeductions.length];
+            long nps = npsDeductions[series % npsDeductions.length];
+            long salary = salaries[(i % perSeries) / deductions80c.length];
+            long deduction80c = deductions80c[i % deductions80c.length];
+            
+            long totalIncome = Money.add(salary, otherIncome);
+            long taxableIncome = Math.max(0, totalIncome - Money.add(deduction80c, Money.add(nps, otherDeductions)));
+            long taxOld = tables.oldRegime.taxPaise(taxableIncome);
+            long taxNew = tables.newRegime.taxPaise(totalIncome);
+            oldWins[i] = taxOld <= taxNew;
+            
+            TaxWhatIfResponse.Scenario scenario = new TaxWhatIfResponse.Scenario();
+            scenario.setFinancialYear(tables.year);
+            scenario.setNps(nps > 0);
+            scenario.setSalaryIncome(Money.fromPaise(salary));
+            scenario.setDeduction80c(Money.fromPaise(deduction80c));
+            scenario.setTaxableIncome(Money.fromPaise(taxableIncome));
+            scenario.setTaxOldRegime(Money.fromPaise(taxOld));
+            scenario.setTaxNewRegime(Money.fromPaise(taxNew));
+            scenario.setRecommendedRegime(oldWins[i] ? OLD_REGIME : NEW_REGIME);
+            scenarios[i] = scenario;
+        });
+        
+        List<TaxWhatIfResponse.Breakeven> breakevens = new ArrayList<>();
+        for (int series = 0; series < years.length * npsDeductions.length; series++) {
+            Tables tables = years[series / npsDeductions.length];
+            long nps = npsDeductions[series % npsDeductions.length];
+            int offset = series * perSeries;
+            
+            // Along the 80C axis for each salary
+            for (int s = 0; s < salaries.length; s++) {
+                for (int c = 1; c < deductions80c.length; c++) {
+                    int i = offset + s * deductions80c.length + c;
+                    if (oldWins[i] != oldWins[i - 1]) {
+                        long salary = salaries[s];
+                        long point = refine(deductions80c[c - 1], deductions80c[c], oldWins[i],
+                                d -> oldWins(tables, salary, d, nps, otherIncome, otherDeductions));
+                        breakevens.add(breakeven(tables.year, nps, "deduction80c", salary, point, oldWins[i]));
+                    }
+                }
+            }
+            
+            // Along the salary axis for each 80C amount
+            for (int c = 0; c < deductions80c.length; c++) {
+                for (int s = 1; s < salaries.length; s++) {
+                    int i = offset + s * deductions80c.length + c;
+                    int previous = i - deductions80c.length;
+                    if (oldWins[i] != oldWins[previous]) {
+                        long deduction80c = deductions80c[c];
+                        long point = refine(salaries[s - 1], salaries[s], oldWins[i],
+                                salary -> oldWins(tables, salary, deduction80c, nps, otherIncome, otherDeductions));
+                        breakevens.add(breakeven(tables.year, nps, "salaryIncome", point, deduction80c, oldWins[i]));
+                    }
+                }
+            }
+        }
+        
+        return new TaxWhatIfResponse(Arrays.asList(scenarios), breakevens);
+    }
+
+    private static boolean oldWins(Tables tables, long salary, long deduction80c, long nps,
+                                   long otherIncome, long otherDeductions) {
+        long totalIncome = Money.add(salary, otherIncome);
+        long taxableIncome = Math.max(0, totalIncome - Money.add(deduction80c, Money.add(nps, otherDeductions)));
+        return tables.oldRegime.taxPaise(taxableIncome) <= tables.newRegime.taxPaise(totalIncome);
+    }
+
+    /**
+     * Narrow a flip between two grid points down to the rupee by bisection
+     * Returns the first value at which the outcome equals the one at 'to'
+     */
+    private static long refine(long from, long to, boolean outcomeAtTo, LongPredicate oldWins) {
+        long low = from;
+        long high = to;
+        while (high - low > ONE_RUPEE) {
+            long mid = low + (high - low) / (2 * ONE_RUPEE) * ONE_RUPEE;
+            if (mid == low) {
+                mid += ONE_RUPEE;
+            }
+            if (oldWins.test(mid) == outcomeAtTo) {
+                high = mid;
+            } else {
+                low = mid;
+            }
+        }
+        return high;
+    }
+
+    private static TaxWhatIfResponse.Breakeven breakeven(String year, long nps, String axis,
+                                                         long salary, long deduction80c, boolean oldWins) {
+        TaxWhatIfResponse.Breakeven breakeven = new TaxWhatIfResponse.Breakeven();
+        breakeven.setFinancialYear(year);
+        breakeven.setNps(nps > 0);
+        breakeven.setAxis(axis);
+        breakeven.setSalaryIncome(Money.fromPaise(salary));
+        breakeven.setDeduction80c(Money.fromPaise(deduction80c));
+        breakeven.setRecommendedRegime(oldWins ? OLD_REGIME : NEW_REGIME);
+        return breakeven;
+    }
+
+    private long[] expand(TaxWhatIfRequest.Range range, BigDecimal baseValue, String field) {
+        if (range == null) {
+            return new long[] { paise(baseValue, field) };
+        }
+        
+        long from = paise(range.getFrom(), field);
+        long to = paise(range.getTo(), field);
+        long step = paise(range.getStep(), field);
+        if (step <= 0 || to < from || from < 0) {
+            throw new IllegalArgumentException(field + " range needs 0 <= from <= to and a positive step");
+        }
+        
+        long points = (to - from) / step + 1;
+        if (points > maxScenarios) {
+            throw new IllegalArgumentException(field + " range has too many steps");
+        }
+        long[] values = new long[(int) points];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = from + i * step;
+        }
+        return values;
+    }
+
+    private static long[] npsOptions(List<Boolean> nps, BigDecimal baseValue) {
+        if (nps == null || nps.isEmpty()) {
+            return new long[] { paise(baseValue, "deduction80ccd1b") };
+        }
+        return nps.stream()
+            .distinct()
+            .mapToLong(enabled -> Boolean.TRUE.equals(enabled) ? NPS_DEDUCTION : 0)
+            .toArray();
+    }
+
+    private Tables[] years(List<String> financialYears, String baseYear) {
+        Set<String> resolved = new LinkedHashSet<>();
+        if (financialYears == null || financialYears.isEmpty()) {
+            resolved.add(taxSlabRegistry.resolveYear(baseYear));
+        } else {
+            financialYears.forEach(year -> resolved.add(taxSlabRegistry.resolveYear(year)));
+        }
+        return resolved.stream()
+            .map(year -> new Tables(year, taxSlabRegistry.oldRegime(year), taxSlabRegistry.newRegime(year)))
+            .toArray(Tables[]::new);
+    }
+
+    private static long sum(BigDecimal... amounts) {
+        long total = 0;
+        for (BigDecimal amount : amounts) {
+            total = Money.add(total, paise(amount, "amount"));
+        }
+        return total;
+    }
+
+    private static long paise(BigDecimal amount, String field) {
+        if (amount == null) {
+            return 0;
+        }
+        try {
+            return Money.toPaise(amount);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(field + " must be a rupee amount with at most two decimals");
+        }
+    }
+
+    private record Tables(String year, TaxSlabTable oldRegime, TaxSlabTable newRegime) {}
+}
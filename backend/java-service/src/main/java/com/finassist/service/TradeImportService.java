@@ -0,0 +1,201 @@
+package com.finassist.service;
+
+import com.finassist.dto.ImportResult;
+import com.finassist.model.PortfolioTransaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk trade ingestion from a JSON list or a broker tradebook / contract-note CSV.
+ *
+ * Rows are validated up front and the rest go to PortfolioService.addTransactions,
+ * which folds them per (symbol, asset type) and writes everything in one transaction.
+ * Rejected rows are reported by line (CSV) or 1-based position (JSON).
+ */
+@Service
+public class TradeImportService {
+
+    private final PortfolioService portfolioService;
+    private final int maxTrades;
+
+    public TradeImportService(PortfolioService portfolioService,
+                              @Value("${portfolio.import.max-trades:10000}") int maxTrades) {
+        this.portfolioService = portfolioService;
+        this.maxTrades = maxTrades;
+    }
+
+    public ImportResult importTrades(Long userId, List<PortfolioTransaction> trades) {
+        long start = System.nanoTime();
+        if (trades.size() > maxTrades) {
+            throw new IllegalArgumentException("At most " + maxTrades + " trades per request");
+        }
+        ImportResult result = new ImportResult();
+        List<PortfolioTransaction> valid = new ArrayList<>(trades.size());
+        List<Long> lines = new ArrayList<>(trades.size());
+        for (int i = 0; i < trades.size(); i++) {
+            result.setRowsRead(result.getRowsRead() + 1);
+            PortfolioTransaction trade = trades.get(i);
+            if (trade == null) {
+                result.reject(i + 1, "Empty trade");
+                continue;
+            }
+            accept(userId, trade, i + 1, valid, lines, result);
+        }
+        return record(userId, valid, lines, result, start);
+    }
+
+    public ImportResult importTradebook(Long userId, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult();
+        List<PortfolioTransaction> valid = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            CsvLayout layout = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> cells = BudgetImportService.splitCsv(line);
+                if (layout == null) {
+                    layout = CsvLayout.detect(cells);
+                    continue;
+                }
+
+                result.setRowsRead(result.getRowsRead() + 1);
+                if (result.getRowsRead() > maxTrades) {
+                    throw new IllegalArgumentException("At most " + maxTrades + " trades per file");
+                }
+                try {
+                    PortfolioTransaction trade = new PortfolioTransaction();
+                    trade.setTransactionDate(BudgetImportService.parseDate(layout.cell(cells, layout.date)));
+                    trade.setSymbol(required(layout.cell(cells, layout.symbol), "symbol").toUpperCase(Locale.ROOT));
+                    trade.setTransactionType(parseSide(layout.cell(cells, layout.side)));
+                    trade.setQuantity(BudgetImportService.parseAmount(layout.cell(cells, layout.quantity)).abs());
+                    trade.setPrice(BudgetImportService.parseAmount(layout.cell(cells, layout.price)).abs());
+                    String assetType = layout.cell(cells, layout.assetType);
+                    trade.setAssetType(assetType != null && !assetType.isBlank()
+                            ? assetType.trim().toLowerCase(Locale.ROOT) : "stock");
+                    String amount = layout.cell(cells, layout.amount);
+                    if (amount != null && !amount.isBlank()) {
+                        trade.setTotalAmount(BudgetImportService.parseAmount(amount).abs().setScale(2, RoundingMode.HALF_UP));
+                    }
+                    String fees = layout.cell(cells, layout.fees);
+                    if (fees != null && !fees.isBlank()) {
+                        trade.setFees(BudgetImportService.parseAmount(fees).abs());
+                    }
+                    String broker = layout.cell(cells, layout.broker);
+                    trade.setBroker(broker != null && !broker.isBlank() ? broker.trim() : null);
+                    accept(userId, trade, lineNumber, valid, lines, result);
+                } catch (IllegalArgumentException e) {
+                    result.reject(lineNumber, e.getMessage());
+                }
+            }
+        }
+        return record(userId, valid, lines, result, start);
+    }
+
+    private static void accept(Long userId, PortfolioTransaction trade, long line,
+                               List<PortfolioTransaction> valid, List<Long> lines, ImportResult result) {
+        trade.setUserId(userId);
+        trade.setHoldingId(null);
+        try {
+            PortfolioService.validateTrade(trade);
+        } catch (IllegalArgumentException e) {
+            result.reject(line, e.getMessage());
+            return;
+        }
+        valid.add(trade);
+        lines.add(line);
+    }
+
+    private ImportResult record(Long userId, List<PortfolioTransaction> valid, List<Long> lines,
+                                ImportResult result, long start) {
+        int recorded = portfolioService.addTransactions(userId, valid,
+                (index, reason) -> result.reject(lines.get(index), reason));
+        result.setRowsImported(recorded);
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        result.setRowsPerSecond(result.getRowsRead() * 1_000_000_000.0 / Math.max(1, System.nanoTime() - start));
+        return result;
+    }
+
+    private static String parseSide(String value) {
+        String side = required(value, "trade type").trim().toLowerCase(Locale.ROOT);
+        if (side.equals("buy") || side.equals("b")) {
+            return "buy";
+        }
+        if (side.equals("sell") || side.equals("s")) {
+            return "sell";
+        }
+        throw new IllegalArgumentException("Unrecognised trade type: " + value.trim());
+    }
+
+    private static String required(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value.trim();
+    }
+
+    /**
+     * Column positions from the header row (Zerodha/Upstox tradebooks and similar exports)
+     */
+    private static final class CsvLayout {
+        private int date = -1;
+        private int symbol = -1;
+        private int side = -1;
+        private int quantity = -1;
+        private int price = -1;
+        private int amount = -1;
+        private int fees = -1;
+        private int assetType = -1;
+        private int broker = -1;
+
+        static CsvLayout detect(List<String> cells) {
+            CsvLayout layout = new CsvLayout();
+            for (int i = 0; i < cells.size(); i++) {
+                String name = cells.get(i).trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+                if (layout.date < 0 && name.contains("date")) {
+                    layout.date = i;
+                } else if (layout.symbol < 0 && name.matches("symbol|tradingsymbol|trading_symbol|scrip|scrip_name|instrument|ticker")) {
+                    layout.symbol = i;
+                } else if (layout.side < 0 && name.matches("trade_type|transaction_type|type|side|buy/sell|b/s|action")) {
+                    layout.side = i;
+                } else if (layout.quantity < 0 && name.matches("quantity|qty|units")) {
+                    layout.quantity = i;
+                } else if (layout.price < 0 && name.matches("price|rate|trade_price|avg_price|average_price")) {
+                    layout.price = i;
+                } else if (layout.amount < 0 && name.matches("amount|value|trade_value|net_amount|total")) {
+                    layout.amount = i;
+                } else if (layout.fees < 0 && name.matches("fees|brokerage|charges")) {
+                    layout.fees = i;
+                } else if (layout.assetType < 0 && name.matches("asset_type|asset_class")) {
+                    layout.assetType = i;
+                } else if (layout.broker < 0 && name.equals("broker")) {
+                    layout.broker = i;
+                }
+            }
+            if (layout.date < 0 || layout.symbol < 0 || layout.side < 0 || layout.quantity < 0 || layout.price < 0) {
+                throw new IllegalArgumentException("Tradebook header needs date, symbol, trade type, quantity and price columns");
+            }
+            return layout;
+        }
+
+        String cell(List<String> cells, int index) {
+            return index >= 0 && index < cells.size() ? cells.get(index) : null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.finassist.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of per-user list reads, one Caffeine cache per resource.
+ *
+ * Each cache maps a user to that user's cached variants of the resource (all
+ * holdings, holdings of one asset type, ...), so a write invalidates exactly
+ * one user's entries for one resource in O(1). Inside a transaction the entry
+ * is dropped again after commit, so a read racing the write cannot re-cache
+ * the old rows. Cached lists are unmodifiable and shared between callers.
+ */
+@Component
+public class UserReadCache {
+
+    public static final String HOLDINGS = "holdings";
+    public static final String TRANSACTIONS = "transactions";
+    public static final String GOALS = "goals";
+    public static final String BUDGET_ENTRIES = "budget-entries";
+    public static final String TAX_CALCULATIONS = "tax-calculations";
+
+    private static final List<String> RESOURCES = List.of(HOLDINGS, TRANSACTIONS, GOALS, BUDGET_ENTRIES, TAX_CALCULATIONS);
+
+    private final boolean enabled;
+    private final Map<String, Cache<Long, ConcurrentMap<String, List<?>>>> caches = new ConcurrentHashMap<>();
+    private final Map<String, Counter> hits = new ConcurrentHashMap<>();
+    private final Map<String, Counter> misses = new ConcurrentHashMap<>();
+
+    public UserReadCache(@Value("${cache.user-reads.enabled:true}") boolean enabled,
+                         @Value("${cache.user-reads.max-users:10000}") long maxUsers,
+                         @Value("${cache.user-reads.ttl-seconds:300}") long ttlSeconds,
+                         MeterRegistry registry) {
+        this.enabled = enabled;
+        for (String resource : RESOURCES) {
+            Cache<Long, ConcurrentMap<String, List<?>>> cache = Caffeine.newBuilder()
+                    .maximumSize(maxUsers)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .recordStats()
+                    .build();
+            caches.put(resource, cache);
+            
+            hits.put(resource, Counter.builder("finassist.cache.requests")
+                    .tag("cache", resource).tag("result", "hit").register(registry));
+            misses.put(resource, Counter.builder("finassist.cache.requests")
+                    .tag("cache", resource).tag("result", "miss").register(registry));
+            Gauge.builder("finassist.cache.users", cache, Cache::estimatedSize)
+                    .description("Users with cached entries")
+                    .tag("cache", resource)
+                    .register(registry);
+            FunctionCounter.builder("finassist.cache.evictions", cache, c -> c.stats().evictionCount())
+                    .description("Users evicted for size or TTL")
+                    .tag("cache", resource)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * One user's list for a resource variant, loading and caching it on a miss
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String resource, Long userId, String variant, Supplier<List<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ConcurrentMap<String, List<?>> variants = cache(resource).get(userId, id -> new ConcurrentHashMap<>());
+        List<?> cached = variants.get(variant);
+        if (cached != null) {
+            hits.get(resource).increment();
+            return (List<T>) cached;
+        }
+        misses.get(resource).increment();
+        List<T> loaded = List.copyOf(loader.get());
+        variants.put(variant, loaded);
+        return loaded;
+    }
+
+    /**
+     * Drop everything cached for one user and resource, now and again after the current transaction commits
+     */
+    public void invalidate(String resource, Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        Cache<Long, ConcurrentMap<String, List<?>>> cache = cache(resource);
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private Cache<Long, ConcurrentMap<String, List<?>>> cache(String resource) {
+        Cache<Long, ConcurrentMap<String, List<?>>> cache = caches.get(resource);
+        if (cache == null) {
+            throw new IllegalArgumentException("Unknown cache " + resource);
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,96 @@
+package com.finassist.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money arithmetic on primitive longs.
+ *
+ * Amounts are held in paise (1e-2) and quantities in 1e-8 units, matching the
+ * DECIMAL(12, 2) and DECIMAL(18, 8) columns. Every operation is exact or rounds
+ * HALF_UP exactly like {@link java.math.RoundingMode#HALF_UP}, and throws
+ * {@link ArithmeticException} on overflow or when a value does not fit the
+ * fixed scale, so callers can fall back to BigDecimal for out-of-range input.
+ * Convert to and from BigDecimal only at the API/JDBC boundary.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    public static final int QUANTITY_SCALE = 8;
+
+    private static final long QUANTITY_ONE = 100_000_000L;
+    private static final long BASIS_POINTS = 10_000L;
+
+    private Money() {}
+
+    public static long toPaise(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static long toQuantityUnits(BigDecimal quantity) {
+        return quantity.movePointRight(QUANTITY_SCALE).longValueExact();
+    }
+
+    public static BigDecimal fromPaise(long paise) {
+        return BigDecimal.valueOf(paise, SCALE);
+    }
+
+    /**
+     * Percentage held in hundredths of a percent (e.g. 1234 = 12.34%)
+     */
+    public static BigDecimal fromBasisPoints(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * Value of a position in paise: quantity x price, rounded HALF_UP
+     */
+    public static long value(long quantityUnits, long pricePaise) {
+        return divideHalfUp(Math.multiplyExact(quantityUnits, pricePaise), QUANTITY_ONE);
+    }
+
+    /**
+     * Unrealized P&L in paise, rounded HALF_UP from the exact position value
+     */
+    public static long pnl(long quantityUnits, long pricePaise, long investedPaise) {
+        return divideHalfUp(exactPnl(quantityUnits, pricePaise, investedPaise), QUANTITY_ONE);
+    }
+
+    /**
+     * Unrealized P&L as a fraction of invested rounded HALF_UP to 4 places, in basis points.
+     * Works from the exact (unrounded) position value so the result matches
+     * pnl.divide(invested, 4, HALF_UP) on BigDecimal.
+     */
+    public static long pnlBasisPoints(long quantityUnits, long pricePaise, long investedPaise) {
+        if (investedPaise <= 0) {
+            return 0;
+        }
+        return divideHalfUp(exactPnl(quantityUnits, pricePaise, investedPaise),
+                Math.multiplyExact(investedPaise, BASIS_POINTS));
+    }
+
+    private static long exactPnl(long quantityUnits, long pricePaise, long investedPaise) {
+        return Math.subtractExact(
+                Math.multiplyExact(quantityUnits, pricePaise),
+                Math.multiplyExact(investedPaise, QUANTITY_ONE));
+    }
+
+    /**
+     * Integer division rounding half away from zero; the divisor must be positive
+     */
+    public static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= divisor - remainder) {
+            quotient += dividend < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,79 @@
+package com.finassist;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Base for tests that need real PostgreSQL (row locks, unnest, ON CONFLICT): one embedded
+ * server with database/schema.sql applied is shared by every subclass, and so is the Spring
+ * context. Tests keep apart by each creating their own user.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "market.prices.enabled=false",
+    "portfolio.snapshots.enabled=false"
+})
+public abstract class EmbeddedPostgresTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        EmbeddedPostgres server = start();
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    private static synchronized EmbeddedPostgres start() throws IOException, SQLException {
+        if (postgres == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                // The PostgreSQL driver splits the script itself and understands the $$-quoted trigger function
+                statement.execute(Files.readString(Path.of("../../database/schema.sql"), StandardCharsets.UTF_8));
+            }
+            // Outlives every test class: the cached context keeps its pool open until the JVM exits
+            EmbeddedPostgres server = postgres;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    /**
+     * A fresh user to own the test's rows
+     */
+    protected Long createUser() {
+        String name = "t_" + UUID.randomUUID().toString().substring(0, 8);
+        return jdbcTemplate.queryForObject(
+            "INSERT INTO users (username, email, password_hash, full_name) VALUES (?, ?, 'x', ?) RETURNING id",
+            Long.class, name, name + "@test.local", name);
+    }
+
+    protected BigDecimal queryDecimal(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, args);
+    }
+}
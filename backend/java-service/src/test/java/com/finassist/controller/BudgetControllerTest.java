@@ -0,0 +1,111 @@
+package com.finassist.controller;
+
+import com.finassist.EmbeddedPostgresTest;
+import com.finassist.dto.CursorPage;
+import com.finassist.model.BudgetEntry;
+import com.finassist.security.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The deprecated unpaged lists stop at api.page.max-size (200 here) and say so:
+ * X-Truncated plus a Link rel="next" whose cursor continues exactly where the list stopped
+ */
+class BudgetControllerTest extends EmbeddedPostgresTest {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private BudgetController budgetController;
+
+    @Test
+    void fullHistoryIsNotFlagged() {
+        Long userId = createUser();
+        insertEntries(userId, "expense", MAX_PAGE_SIZE);
+
+        ResponseEntity<List<BudgetEntry>> response = budgetController.getUserEntries(userId, owner(userId));
+
+        assertEquals(MAX_PAGE_SIZE, response.getBody().size());
+        assertNull(response.getHeaders().getFirst("X-Truncated"));
+        assertNull(nextLink(response.getHeaders()));
+    }
+
+    @Test
+    void longerHistoryIsFlaggedWithALinkToTheRest() {
+        Long userId = createUser();
+        insertEntries(userId, "expense", MAX_PAGE_SIZE + 5);
+
+        ResponseEntity<List<BudgetEntry>> response = budgetController.getUserEntries(userId, owner(userId));
+
+        assertEquals(MAX_PAGE_SIZE, response.getBody().size());
+        assertEquals("true", response.getHeaders().getFirst("X-Truncated"));
+        UriComponents next = UriComponentsBuilder.fromUriString(nextLink(response.getHeaders())).build();
+        assertEquals("/api/budget/entries/" + userId + "/page", next.getPath());
+
+        CursorPage<BudgetEntry> rest = page(userId, next);
+        assertEquals(5, rest.getItems().size());
+        assertFalse(rest.isHasMore());
+        assertTrue(rest.getItems().get(0).getEntryDate().isBefore(response.getBody().get(MAX_PAGE_SIZE - 1).getEntryDate()));
+    }
+
+    @Test
+    void typeListLinksToTheTypeFilteredPage() {
+        Long userId = createUser();
+        insertEntries(userId, "income", MAX_PAGE_SIZE + 1);
+        insertEntries(userId, "expense", 3);
+
+        ResponseEntity<List<BudgetEntry>> response = budgetController.getUserEntriesByType(userId, "income", owner(userId));
+
+        assertEquals("true", response.getHeaders().getFirst("X-Truncated"));
+        UriComponents next = UriComponentsBuilder.fromUriString(nextLink(response.getHeaders())).build();
+        assertEquals("income", next.getQueryParams().getFirst("type"));
+        CursorPage<BudgetEntry> rest = page(userId, next);
+        assertEquals(1, rest.getItems().size());
+        assertEquals("income", rest.getItems().get(0).getType());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CursorPage<BudgetEntry> page(Long userId, UriComponents next) {
+        return (CursorPage<BudgetEntry>) budgetController.getUserEntriesPage(userId,
+            next.getQueryParams().getFirst("cursor"),
+            Integer.valueOf(next.getQueryParams().getFirst("limit")),
+            null, null, null, next.getQueryParams().getFirst("type"), owner(userId)).getBody();
+    }
+
+    private static String nextLink(HttpHeaders headers) {
+        for (String link : headers.getOrEmpty(HttpHeaders.LINK)) {
+            if (link.endsWith("rel=\"next\"")) {
+                return link.substring(1, link.indexOf('>'));
+            }
+        }
+        return null;
+    }
+
+    private void insertEntries(Long userId, String type, int count) {
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[] { userId, type, Date.valueOf(start.plusDays(i)) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO budget_entries (user_id, category, amount, type, entry_date) " +
+            "VALUES (?, 'Test', 10.00, ?, ?)", rows);
+    }
+
+    private static AuthenticatedUser owner(Long userId) {
+        return new AuthenticatedUser(userId, "owner@test.local");
+    }
+}
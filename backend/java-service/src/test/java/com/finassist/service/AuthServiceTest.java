@@ -0,0 +1,88 @@
+package com.finassist.service;
+
+import com.finassist.dto.AuthResponse;
+import com.finassist.dto.RegisterRequest;
+import com.finassist.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registration keeps BCrypt threads for hashing: taken emails are turned away before a hash
+ * is paid for, and the insert runs on the task executor
+ */
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final PasswordHashingService passwordHashingService = spy(new PasswordHashingService(4, 1, 4));
+    private final ExecutorService taskExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "task-1"));
+    private final AuthService authService = new AuthService(userRepository, jwtService, passwordHashingService, taskExecutor);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    void takenEmailIsRejectedWithoutHashing() {
+        when(userRepository.findConflictingField("taken@test.local", "new")).thenReturn("email");
+
+        AuthResponse response = authService.register(request("taken@test.local", "new")).join();
+
+        assertEquals("Email already registered", response.getMessage());
+        verify(passwordHashingService, never()).encode(anyString());
+        verify(userRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    void insertRunsOnTheTaskExecutor() {
+        AtomicReference<String> insertThread = new AtomicReference<>();
+        when(userRepository.insertIfAbsent(any())).thenAnswer(call -> {
+            insertThread.set(Thread.currentThread().getName());
+            return Optional.of(42L);
+        });
+        when(jwtService.generateToken(anyLong(), anyString())).thenReturn("token");
+
+        AuthResponse response = authService.register(request("fresh@test.local", "fresh")).join();
+
+        assertEquals("token", response.getToken());
+        assertEquals(42L, response.getUserId());
+        assertEquals("task-1", insertThread.get());
+    }
+
+    @Test
+    void signUpThatRacesPastTheCheckStillGetsTheConflict() {
+        when(userRepository.findConflictingField("race@test.local", "race")).thenReturn(null, "username");
+        when(userRepository.insertIfAbsent(any())).thenReturn(Optional.empty());
+
+        AuthResponse response = authService.register(request("race@test.local", "race")).join();
+
+        assertNull(response.getToken());
+        assertEquals("Username already taken", response.getMessage());
+    }
+
+    private static RegisterRequest request(String email, String username) {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail(email);
+        request.setUsername(username);
+        request.setPassword("secret-password");
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.finassist.service;
+
+import com.finassist.EmbeddedPostgresTest;
+import com.finassist.dto.RebuildReport;
+import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Holdings set, edited or deleted by hand must survive a rebuild with apply: the replay
+ * restarts from the logged adjustment, and a holding opened by hand before adjustments were
+ * logged is left alone as untracked
+ */
+class HoldingRebuildServiceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private HoldingRebuildService holdingRebuildService;
+
+    @Test
+    void handSetHoldingThenTradedIsNotRewritten() {
+        Long userId = createUser();
+        portfolioService.addOrUpdateHolding(holding(userId, "SEEDED", "10", "50.00", "500.00"));
+        portfolioService.addTransaction(trade(userId, "buy", "SEEDED", "5", "60.00"));
+        portfolioService.addTransaction(trade(userId, "sell", "SEEDED", "3", "70.00"));
+
+        RebuildReport report = holdingRebuildService.rebuildUser(userId, true);
+
+        assertEquals(0, report.getHoldingsDrifted(), () -> "drifts " + report.getDrifts().size());
+        PortfolioHolding stored = only(userId);
+        assertEquals(new BigDecimal("12.00000000"), stored.getQuantity());
+        assertEquals(new BigDecimal("640.01"), stored.getTotalInvested());
+        assertEquals(new BigDecimal("53.33"), stored.getAverageBuyPrice());
+    }
+
+    @Test
+    void handEditBetweenTradesReplaysFromTheEdit() {
+        Long userId = createUser();
+        portfolioService.addTransaction(trade(userId, "buy", "EDITED", "4", "100.00"));
+        portfolioService.addOrUpdateHolding(holding(userId, "EDITED", "20", "40.00", "800.00"));
+        portfolioService.addTransaction(trade(userId, "sell", "EDITED", "5", "45.00"));
+
+        RebuildReport report = holdingRebuildService.rebuildUser(userId, true);
+
+        assertEquals(0, report.getHoldingsDrifted());
+        PortfolioHolding stored = only(userId);
+        assertEquals(0, new BigDecimal("15").compareTo(stored.getQuantity()));
+        assertEquals(new BigDecimal("600.00"), stored.getTotalInvested());
+    }
+
+    @Test
+    void handDeletedHoldingIsNotRecreated() {
+        Long userId = createUser();
+        portfolioService.addTransaction(trade(userId, "buy", "DELETED", "4", "100.00"));
+        portfolioService.deleteHolding(only(userId).getId(), userId);
+
+        RebuildReport report = holdingRebuildService.rebuildUser(userId, true);
+
+        assertEquals(0, report.getHoldingsDrifted());
+        assertTrue(portfolioService.getUserHoldings(userId).isEmpty());
+    }
+
+    @Test
+    void holdingOpenedBeforeAdjustmentsWereLoggedIsUntracked() {
+        Long userId = createUser();
+        // As POST /holding wrote it before adjustments existed: a day old and not in the log
+        jdbcTemplate.update("INSERT INTO portfolio_holdings (user_id, asset_type, symbol, name, quantity, " +
+            "average_buy_price, total_invested, created_at) " +
+            "VALUES (?, 'stock', 'LEGACY', 'LEGACY', 10, 50, 500, CURRENT_TIMESTAMP - INTERVAL '1 day')", userId);
+        portfolioService.addTransaction(trade(userId, "buy", "LEGACY", "2", "60.00"));
+
+        RebuildReport report = holdingRebuildService.rebuildUser(userId, true);
+
+        assertEquals(0, report.getHoldingsDrifted());
+        assertEquals(1, report.getHoldingsUntracked());
+        assertEquals(0, new BigDecimal("12").compareTo(only(userId).getQuantity()));
+    }
+
+    private PortfolioHolding only(Long userId) {
+        List<PortfolioHolding> holdings = portfolioService.getUserHoldings(userId);
+        assertEquals(1, holdings.size());
+        return holdings.get(0);
+    }
+
+    private static PortfolioHolding holding(Long userId, String symbol, String quantity, String average,
+                                            String invested) {
+        PortfolioHolding holding = new PortfolioHolding();
+        holding.setUserId(userId);
+        holding.setAssetType("stock");
+        holding.setSymbol(symbol);
+        holding.setName(symbol);
+        holding.setQuantity(new BigDecimal(quantity));
+        holding.setAverageBuyPrice(new BigDecimal(average));
+        holding.setTotalInvested(new BigDecimal(invested));
+        holding.setCurrentPrice(new BigDecimal(average));
+        return holding;
+    }
+
+    private static PortfolioTransaction trade(Long userId, String type, String symbol, String quantity, String price) {
+        PortfolioTransaction trade = new PortfolioTransaction();
+        trade.setUserId(userId);
+        trade.setTransactionType(type);
+        trade.setAssetType("stock");
+        trade.setSymbol(symbol);
+        trade.setQuantity(new BigDecimal(quantity));
+        trade.setPrice(new BigDecimal(price));
+        return trade;
+    }
+}
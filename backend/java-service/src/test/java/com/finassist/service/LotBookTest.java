@@ -0,0 +1,100 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioLot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Matching order of each method, partial consumption and the running open quantity
+ */
+class LotBookTest {
+
+    // Oldest, dearest, newest, cheapest
+    private final PortfolioLot january = lot(1, "2024-01-10", "10", "150");
+    private final PortfolioLot march = lot(2, "2024-03-05", "10", "120");
+    private final PortfolioLot june = lot(3, "2024-06-20", "10", "90");
+
+    @Test
+    void fifoTakesTheOldestLot() {
+        LotBook book = new LotBook(LotBook.Method.FIFO, List.of(march, june, january));
+        assertEquals(List.of(1L, 2L, 3L), drain(book));
+    }
+
+    @Test
+    void lifoTakesTheNewestLot() {
+        LotBook book = new LotBook(LotBook.Method.LIFO, List.of(march, june, january));
+        assertEquals(List.of(3L, 2L, 1L), drain(book));
+    }
+
+    @Test
+    void hifoTakesTheDearestLot() {
+        LotBook book = new LotBook(LotBook.Method.HIFO, List.of(june, january, march));
+        PortfolioLot dearer = lot(4, "2024-07-01", "5", "200");
+        book.add(dearer);
+        assertEquals(List.of(4L, 1L, 2L, 3L), drain(book));
+    }
+
+    @Test
+    void hifoBreaksCostTiesByDate() {
+        PortfolioLot later = lot(5, "2024-08-01", "10", "150");
+        LotBook book = new LotBook(LotBook.Method.HIFO, List.of(later, january));
+        assertEquals(List.of(1L, 5L), drain(book));
+    }
+
+    @Test
+    void backdatedLotIsMatchedInDateOrder() {
+        LotBook book = new LotBook(LotBook.Method.FIFO, List.of(march, june));
+        book.add(january);
+        assertSame(january, book.next());
+    }
+
+    @Test
+    void partialConsumeKeepsTheLotOpen() {
+        LotBook book = new LotBook(LotBook.Method.FIFO, List.of(january, march));
+        assertEquals(0, new BigDecimal("20").compareTo(book.openQuantity()));
+
+        book.consume(january, new BigDecimal("4"));
+        assertSame(january, book.next());
+        assertEquals(0, new BigDecimal("6").compareTo(january.getRemainingQuantity()));
+        assertEquals(0, new BigDecimal("16").compareTo(book.openQuantity()));
+
+        book.consume(january, new BigDecimal("6"));
+        assertSame(march, book.next());
+        assertEquals(0, new BigDecimal("10").compareTo(book.openQuantity()));
+    }
+
+    @Test
+    void emptyBookHasNothingToMatch() {
+        LotBook book = new LotBook(LotBook.Method.LIFO, List.of());
+        assertNull(book.next());
+        assertEquals(0, BigDecimal.ZERO.compareTo(book.openQuantity()));
+    }
+
+    private static List<Long> drain(LotBook book) {
+        List<Long> order = new ArrayList<>();
+        PortfolioLot lot;
+        while ((lot = book.next()) != null) {
+            order.add(lot.getId());
+            book.consume(lot, lot.getRemainingQuantity());
+        }
+        return order;
+    }
+
+    private static PortfolioLot lot(long id, String acquired, String quantity, String unitCost) {
+        PortfolioLot lot = new PortfolioLot();
+        lot.setId(id);
+        lot.setAcquiredDate(LocalDate.parse(acquired));
+        lot.setQuantity(new BigDecimal(quantity));
+        lot.setRemainingQuantity(new BigDecimal(quantity));
+        lot.setUnitCost(new BigDecimal(unitCost));
+        return lot;
+    }
+}
@@ -0,0 +1,200 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioLot;
+import com.finassist.model.PortfolioTransaction;
+import com.finassist.model.RealizedGain;
+import com.finassist.repository.LotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sells matched through a Ledger: which lots a sell draws from, the realised gain per lot,
+ * and short- or long-term classification at the holding-period boundaries
+ */
+class LotEngineTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final LotRepository lotRepository = mock(LotRepository.class);
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong transactionIds = new AtomicLong(1000);
+
+    @BeforeEach
+    void setUp() {
+        when(lotRepository.reserveIds(anyInt())).thenAnswer(call -> LongStream
+            .range(0, call.<Integer>getArgument(0))
+            .mapToObj(n -> ids.incrementAndGet())
+            .collect(Collectors.toList()));
+        when(lotRepository.findOpenLots(any(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    void fifoSellSplitsAcrossLotsAndTerms() {
+        LotEngine.Ledger ledger = engine("FIFO").ledger(USER_ID, 2);
+        ledger.buy(trade("buy", "stock", "2023-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+        ledger.buy(trade("buy", "stock", "2024-03-01", "10", "120"), new BigDecimal("10"), new BigDecimal("100"), null);
+
+        List<RealizedGain> gains = ledger.sell(trade("sell", "stock", "2024-03-15", "15", "150"),
+            new BigDecimal("20"), new BigDecimal("110"), null);
+
+        assertEquals(2, gains.size());
+        assertGain(gains.get(0), 1L, "10", "1000.00", "1500.00", "500.00", LotEngine.LONG_TERM);
+        assertGain(gains.get(1), 2L, "5", "600.00", "750.00", "150.00", LotEngine.SHORT_TERM);
+        assertEquals("2023-24", gains.get(0).getFinancialYear());
+    }
+
+    @Test
+    void lifoSellTakesTheNewestLotFirst() {
+        LotEngine.Ledger ledger = engine("LIFO").ledger(USER_ID, 2);
+        ledger.buy(trade("buy", "stock", "2023-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+        ledger.buy(trade("buy", "stock", "2024-03-01", "10", "120"), new BigDecimal("10"), new BigDecimal("100"), null);
+
+        List<RealizedGain> gains = ledger.sell(trade("sell", "stock", "2024-03-15", "4", "150"),
+            new BigDecimal("20"), new BigDecimal("110"), null);
+
+        assertEquals(1, gains.size());
+        assertGain(gains.get(0), 2L, "4", "480.00", "600.00", "120.00", LotEngine.SHORT_TERM);
+    }
+
+    @Test
+    void hifoSellTakesTheDearestLotFirst() {
+        LotEngine.Ledger ledger = engine("HIFO").ledger(USER_ID, 3);
+        ledger.buy(trade("buy", "stock", "2023-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+        ledger.buy(trade("buy", "stock", "2023-06-01", "10", "140"), new BigDecimal("10"), new BigDecimal("100"), null);
+        ledger.buy(trade("buy", "stock", "2024-03-01", "10", "120"), new BigDecimal("20"), new BigDecimal("120"), null);
+
+        List<RealizedGain> gains = ledger.sell(trade("sell", "stock", "2024-07-01", "12", "130"),
+            new BigDecimal("30"), new BigDecimal("120"), null);
+
+        assertEquals(2, gains.size());
+        assertGain(gains.get(0), 2L, "10", "1400.00", "1300.00", "-100.00", LotEngine.LONG_TERM);
+        assertGain(gains.get(1), 3L, "2", "240.00", "260.00", "20.00", LotEngine.SHORT_TERM);
+        assertEquals("2024-25", gains.get(0).getFinancialYear());
+    }
+
+    @Test
+    void partialSellsDrawDownOneLot() {
+        LotEngine.Ledger ledger = engine("FIFO").ledger(USER_ID, 1);
+        ledger.buy(trade("buy", "stock", "2024-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+
+        ledger.sell(trade("sell", "stock", "2024-02-01", "3", "110"), new BigDecimal("10"), new BigDecimal("100"), null);
+        List<RealizedGain> gains = ledger.sell(trade("sell", "stock", "2024-02-02", "3", "110"),
+            new BigDecimal("7"), new BigDecimal("100"), null);
+
+        assertEquals(1, gains.size());
+        assertGain(gains.get(0), 1L, "3", "300.00", "330.00", "30.00", LotEngine.SHORT_TERM);
+    }
+
+    @Test
+    void sellFeesReduceProceeds() {
+        LotEngine.Ledger ledger = engine("FIFO").ledger(USER_ID, 1);
+        ledger.buy(trade("buy", "stock", "2024-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+        PortfolioTransaction sell = trade("sell", "stock", "2024-02-01", "10", "110");
+        sell.setFees(new BigDecimal("20.00"));
+
+        List<RealizedGain> gains = ledger.sell(sell, new BigDecimal("10"), new BigDecimal("100"), null);
+
+        assertGain(gains.get(0), 1L, "10", "1000.00", "1080.00", "80.00", LotEngine.SHORT_TERM);
+    }
+
+    @Test
+    void invalidateReloadsTheUsersBooksOnly() {
+        LotEngine engine = engine("FIFO");
+        engine.ledger(USER_ID, 1).buy(trade("buy", "stock", "2024-01-10", "10", "100"), BigDecimal.ZERO, null, null);
+        PortfolioTransaction otherBuy = trade("buy", "stock", "2024-01-10", "10", "100");
+        otherBuy.setUserId(77L);
+        engine.ledger(77L, 1).buy(otherBuy, BigDecimal.ZERO, null, null);
+
+        PortfolioLot stored = new PortfolioLot();
+        stored.setId(99L);
+        stored.setAssetType("stock");
+        stored.setSymbol("LOTS");
+        stored.setAcquiredDate(LocalDate.parse("2024-01-05"));
+        stored.setQuantity(new BigDecimal("10"));
+        stored.setRemainingQuantity(new BigDecimal("10"));
+        stored.setUnitCost(new BigDecimal("95"));
+        when(lotRepository.findOpenLots(any(), any(), any())).thenReturn(List.of(stored));
+        engine.invalidate(USER_ID);
+
+        List<RealizedGain> gains = engine.ledger(USER_ID, 0).sell(trade("sell", "stock", "2024-02-01", "10", "100"),
+            new BigDecimal("10"), new BigDecimal("95"), null);
+        assertEquals(99L, gains.get(0).getLotId());
+
+        PortfolioTransaction otherSell = trade("sell", "stock", "2024-02-01", "10", "100");
+        otherSell.setUserId(77L);
+        List<RealizedGain> otherGains = engine.ledger(77L, 0).sell(otherSell, new BigDecimal("10"), new BigDecimal("100"), null);
+        assertEquals(2L, otherGains.get(0).getLotId());
+    }
+
+    @ParameterizedTest(name = "{0} bought {1}, sold {2}: {3}")
+    @CsvSource({
+        "stock,       2023-03-15, 2024-03-15, short",
+        "stock,       2023-03-15, 2024-03-16, long",
+        "mutual_fund, 2023-03-15, 2024-03-16, long",
+        "gold,        2023-03-15, 2024-03-16, short",
+        "gold,        2022-03-15, 2024-03-15, short",
+        "gold,        2022-03-15, 2024-03-16, long"
+    })
+    void termFollowsTheHoldingPeriodOfTheAssetType(String assetType, String bought, String sold, String term) {
+        LotEngine.Ledger ledger = engine("FIFO").ledger(USER_ID, 1);
+        ledger.buy(trade("buy", assetType, bought, "1", "100"), BigDecimal.ZERO, null, null);
+
+        List<RealizedGain> gains = ledger.sell(trade("sell", assetType, sold, "1", "100"),
+            BigDecimal.ONE, new BigDecimal("100"), null);
+
+        assertEquals(term, gains.get(0).getTerm());
+    }
+
+    @ParameterizedTest(name = "{0} is in {1}")
+    @CsvSource({
+        "2024-03-31, 2023-24",
+        "2024-04-01, 2024-25",
+        "2000-01-01, 1999-00"
+    })
+    void financialYearRunsAprilToMarch(String date, String financialYear) {
+        assertEquals(financialYear, LotEngine.financialYear(LocalDate.parse(date)));
+    }
+
+    private LotEngine engine(String method) {
+        return new LotEngine(lotRepository, method, List.of("stock", "mutual_fund"), 12, 24, 100);
+    }
+
+    private PortfolioTransaction trade(String type, String assetType, String date, String quantity, String price) {
+        PortfolioTransaction trade = new PortfolioTransaction();
+        trade.setId(transactionIds.incrementAndGet());
+        trade.setUserId(USER_ID);
+        trade.setTransactionType(type);
+        trade.setAssetType(assetType);
+        trade.setSymbol("LOTS");
+        trade.setQuantity(new BigDecimal(quantity));
+        trade.setPrice(new BigDecimal(price));
+        trade.setTransactionDate(LocalDate.parse(date));
+        PortfolioService.validateTrade(trade);
+        return trade;
+    }
+
+    private static void assertGain(RealizedGain gain, long lotId, String quantity, String costBasis, String proceeds,
+                                   String amount, String term) {
+        assertEquals(lotId, gain.getLotId());
+        assertEquals(0, new BigDecimal(quantity).compareTo(gain.getQuantity()), "quantity");
+        assertEquals(new BigDecimal(costBasis), gain.getCostBasis());
+        assertEquals(new BigDecimal(proceeds), gain.getProceeds());
+        assertEquals(new BigDecimal(amount), gain.getGain());
+        assertEquals(term, gain.getTerm());
+    }
+}
@@ -0,0 +1,104 @@
+package com.finassist.service;
+
+import com.finassist.EmbeddedPostgresTest;
+import com.finassist.model.PortfolioHolding;
+import com.finassist.model.PortfolioTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The same trades recorded one at a time (addTransaction) and in batches (addTransactions)
+ * must leave identical holdings, including the average a sell leaves unchanged
+ */
+class PortfolioBatchTradeTest extends EmbeddedPostgresTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 4, 1);
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private HoldingRebuildService holdingRebuildService;
+
+    @Test
+    void batchAndSingleTradesLeaveTheSameHoldings() {
+        // Three for 100 averages 33.33; after selling one, invested is 66.67 but the average stays 33.33
+        List<List<PortfolioTransaction>> batches = List.of(
+            List.of(trade(0, "buy", "AVG", "3", "33.3333"),
+                    trade(1, "buy", "MIX", "10", "12.34"),
+                    trade(2, "buy", "MIX", "7", "15.55"),
+                    trade(3, "sell", "MIX", "4", "16.00"),
+                    trade(4, "buy", "GONE", "5", "20.00")),
+            List.of(trade(5, "sell", "AVG", "1", "40.00"),
+                    trade(6, "buy", "MIX", "2", "13.01"),
+                    trade(7, "sell", "MIX", "9", "14.20"),
+                    trade(8, "sell", "GONE", "5", "21.00")));
+
+        Long single = createUser();
+        Long batched = createUser();
+        for (List<PortfolioTransaction> batch : batches) {
+            for (PortfolioTransaction trade : batch) {
+                portfolioService.addTransaction(copy(trade, single));
+            }
+            List<PortfolioTransaction> copies = new ArrayList<>();
+            batch.forEach(trade -> copies.add(copy(trade, batched)));
+            portfolioService.addTransactions(batched, copies, (index, reason) -> fail(reason));
+        }
+
+        List<PortfolioHolding> expected = holdings(single);
+        List<PortfolioHolding> actual = holdings(batched);
+        assertEquals(2, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            PortfolioHolding want = expected.get(i);
+            PortfolioHolding got = actual.get(i);
+            String symbol = want.getSymbol();
+            assertEquals(symbol, got.getSymbol());
+            assertEquals(want.getQuantity(), got.getQuantity(), symbol + " quantity");
+            assertEquals(want.getTotalInvested(), got.getTotalInvested(), symbol + " invested");
+            assertEquals(want.getAverageBuyPrice(), got.getAverageBuyPrice(), symbol + " average");
+            assertEquals(want.getCurrentValue(), got.getCurrentValue(), symbol + " value");
+            assertEquals(want.getUnrealizedPnl(), got.getUnrealizedPnl(), symbol + " P&L");
+        }
+        assertEquals(new BigDecimal("33.33"), actual.get(0).getAverageBuyPrice());
+
+        // And the rebuild, which folds with the same rules, finds nothing to repair in either
+        assertEquals(0, holdingRebuildService.rebuildUser(single, false).getHoldingsDrifted());
+        assertEquals(0, holdingRebuildService.rebuildUser(batched, false).getHoldingsDrifted());
+    }
+
+    private List<PortfolioHolding> holdings(Long userId) {
+        List<PortfolioHolding> holdings = new ArrayList<>(portfolioService.getUserHoldings(userId));
+        holdings.sort(Comparator.comparing(PortfolioHolding::getSymbol));
+        return holdings;
+    }
+
+    private static PortfolioTransaction trade(int day, String type, String symbol, String quantity, String price) {
+        PortfolioTransaction trade = new PortfolioTransaction();
+        trade.setTransactionType(type);
+        trade.setAssetType("stock");
+        trade.setSymbol(symbol);
+        trade.setQuantity(new BigDecimal(quantity));
+        trade.setPrice(new BigDecimal(price));
+        trade.setTransactionDate(START.plusDays(day));
+        return trade;
+    }
+
+    private static PortfolioTransaction copy(PortfolioTransaction trade, Long userId) {
+        PortfolioTransaction copy = trade(0, trade.getTransactionType(), trade.getSymbol(),
+            trade.getQuantity().toPlainString(), trade.getPrice().toPlainString());
+        copy.setTransactionDate(trade.getTransactionDate());
+        copy.setUserId(userId);
+        PortfolioService.validateTrade(copy);
+        return copy;
+    }
+}
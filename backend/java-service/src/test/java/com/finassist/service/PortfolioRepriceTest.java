@@ -0,0 +1,80 @@
+package com.finassist.service;
+
+import com.finassist.EmbeddedPostgresTest;
+import com.finassist.model.PortfolioTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Feed prices carry more places than current_price stores: a tick that rounds to the stored
+ * price must not rewrite the holding, in the market-wide or the per-user repricing path
+ */
+class PortfolioRepriceTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Autowired
+    private MarketPriceService marketPriceService;
+
+    @Test
+    void marketRepriceSkipsPricesThatRoundToTheStoredPrice() {
+        Long userId = createUser();
+        String symbol = symbol();
+        portfolioService.addTransaction(buy(userId, symbol, "100.00"));
+
+        assertEquals(0, portfolioService.updateMarketPrices(Map.of(symbol, new BigDecimal("100.004"))));
+        assertEquals(1, portfolioService.updateMarketPrices(Map.of(symbol, new BigDecimal("100.006"))));
+        assertEquals(new BigDecimal("100.01"), currentPrice(userId));
+        assertEquals(new BigDecimal("300.03"), queryDecimal(
+            "SELECT current_value FROM portfolio_holdings WHERE user_id = ?", userId));
+    }
+
+    @Test
+    void userRepriceSkipsPricesThatRoundToTheStoredPrice() {
+        Long userId = createUser();
+        String symbol = symbol();
+        portfolioService.addTransaction(buy(userId, symbol, "100.00"));
+
+        assertEquals(0, portfolioService.updateAllHoldingPrices(userId, Map.of(symbol, new BigDecimal("99.995"))));
+        assertEquals(1, portfolioService.updateAllHoldingPrices(userId, Map.of(symbol, new BigDecimal("99.994"))));
+        assertEquals(new BigDecimal("99.99"), currentPrice(userId));
+    }
+
+    @Test
+    void publishedTicksAreDedupedAtTwoPlaces() {
+        String symbol = symbol();
+        marketPriceService.publish(symbol, new BigDecimal("250.10"));
+        marketPriceService.flush();
+
+        marketPriceService.publish(symbol, new BigDecimal("250.1012"));
+        marketPriceService.flush();
+
+        assertEquals(new BigDecimal("250.10"), marketPriceService.getLastPrice(symbol));
+    }
+
+    private BigDecimal currentPrice(Long userId) {
+        return queryDecimal("SELECT current_price FROM portfolio_holdings WHERE user_id = ?", userId);
+    }
+
+    private static String symbol() {
+        return "P" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private static PortfolioTransaction buy(Long userId, String symbol, String price) {
+        PortfolioTransaction trade = new PortfolioTransaction();
+        trade.setUserId(userId);
+        trade.setTransactionType("buy");
+        trade.setAssetType("stock");
+        trade.setSymbol(symbol);
+        trade.setQuantity(new BigDecimal("3"));
+        trade.setPrice(new BigDecimal(price));
+        return trade;
+    }
+}
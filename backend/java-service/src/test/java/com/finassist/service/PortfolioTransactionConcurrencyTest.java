@@ -0,0 +1,105 @@
+package com.finassist.service;
+
+import com.finassist.EmbeddedPostgresTest;
+import com.finassist.model.PortfolioTransaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Concurrent buys and sells on one holding must not lose updates: the holding, the trade
+ * ledger and the open tax lots all have to agree with the trades addTransaction accepted.
+ * The automated counterpart of the load test's trade-stress scenario, on an embedded PostgreSQL
+ * because the row locks are what is under test.
+ */
+class PortfolioTransactionConcurrencyTest extends EmbeddedPostgresTest {
+
+    private static final String SYMBOL = "CONC_TEST";
+    private static final String ASSET_TYPE = "stock";
+    private static final BigDecimal PRICE = new BigDecimal("100.00");
+    private static final int THREADS = 8;
+    private static final int TRADES_PER_THREAD = 50;
+
+    @Autowired
+    private PortfolioService portfolioService;
+
+    @Test
+    void concurrentTradesOnOneHoldingKeepEveryUpdate() throws Exception {
+        Long userId = createUser();
+
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong acceptedTrades = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                results.add(workers.submit(() -> {
+                    start.await();
+                    for (int n = 0; n < TRADES_PER_THREAD; n++) {
+                        // Lean towards buys so sells usually have something to sell
+                        boolean buy = random.nextInt(10) < 6;
+                        int quantity = 1 + random.nextInt(3);
+                        try {
+                            portfolioService.addTransaction(trade(userId, buy, quantity));
+                            accepted.addAndGet(buy ? quantity : -quantity);
+                            acceptedTrades.incrementAndGet();
+                        } catch (IllegalArgumentException e) {
+                            // An oversell the service refused; it must not have touched the holding
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        BigDecimal holding = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(quantity), 0) FROM portfolio_holdings WHERE user_id = ? AND symbol = ?",
+            BigDecimal.class, userId, SYMBOL);
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(CASE WHEN transaction_type = 'buy' THEN quantity ELSE -quantity END), 0) " +
+            "FROM portfolio_transactions WHERE user_id = ? AND symbol = ?",
+            BigDecimal.class, userId, SYMBOL);
+        Long ledgerTrades = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM portfolio_transactions WHERE user_id = ? AND symbol = ?",
+            Long.class, userId, SYMBOL);
+        BigDecimal lots = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(remaining_quantity), 0) FROM portfolio_lots WHERE user_id = ? AND symbol = ?",
+            BigDecimal.class, userId, SYMBOL);
+
+        BigDecimal expected = BigDecimal.valueOf(accepted.get());
+        assertEquals(0, expected.compareTo(holding), "holding " + holding + " vs accepted " + expected);
+        assertEquals(0, expected.compareTo(ledger), "ledger " + ledger + " vs accepted " + expected);
+        assertEquals(acceptedTrades.get(), ledgerTrades);
+        assertEquals(0, expected.compareTo(lots), "open lots " + lots + " vs accepted " + expected);
+    }
+
+    private static PortfolioTransaction trade(Long userId, boolean buy, int quantity) {
+        PortfolioTransaction trade = new PortfolioTransaction();
+        trade.setUserId(userId);
+        trade.setTransactionType(buy ? "buy" : "sell");
+        trade.setAssetType(ASSET_TYPE);
+        trade.setSymbol(SYMBOL);
+        trade.setQuantity(BigDecimal.valueOf(quantity));
+        trade.setPrice(PRICE);
+        return trade;
+    }
+}
@@ -0,0 +1,40 @@
+package com.finassist.service;
+
+import com.finassist.model.PortfolioHolding;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * applyPrice on the fixed-point path and on the BigDecimal fallback (quantities past the
+ * fixed-point range): both round value, P&L and P&L % HALF_UP to 2 places from the exact value
+ */
+class PortfolioValuationTest {
+
+    @ParameterizedTest(name = "{0} @ {1} on {2} invested")
+    @CsvSource({
+        // Fixed point
+        "3,                      33.34, 100.00,           100.02,            0.02,             0.02",
+        "0.5,                    10.05, 4.00,             5.03,              1.03,             25.63",
+        "7,                      10.00, 0.00,             70.00,             70.00,            0.00",
+        // Fallback: 1e12 shares do not fit in 1e-8 units
+        "1000000000000.5,        10.05, 9000000000000.00, 10050000000005.03, 1050000000005.03, 11.67",
+        "1000000000000,          7.00,  7000000000000.00, 7000000000000.00,  0.00,             0.00",
+        "1000000000000.00000001, 1.00,  0.00,             1000000000000.00,  1000000000000.00, 0.00"
+    })
+    void roundsEachFigureToTwoPlaces(String quantity, String price, String invested,
+                                     String value, String pnl, String percentage) {
+        PortfolioHolding holding = new PortfolioHolding();
+        holding.setQuantity(new BigDecimal(quantity));
+        holding.setTotalInvested(new BigDecimal(invested));
+
+        PortfolioService.applyPrice(holding, new BigDecimal(price));
+
+        assertEquals(new BigDecimal(value), holding.getCurrentValue());
+        assertEquals(new BigDecimal(pnl), holding.getUnrealizedPnl());
+        assertEquals(new BigDecimal(percentage), holding.getUnrealizedPnlPercentage());
+    }
+}
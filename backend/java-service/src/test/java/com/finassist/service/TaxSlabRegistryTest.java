@@ -0,0 +1,88 @@
+package com.finassist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tax at and just past each slab, rebate and surcharge boundary of tax-slabs.json,
+ * worked by hand (cess 4% throughout)
+ */
+class TaxSlabRegistryTest {
+
+    private final TaxSlabRegistry registry = new TaxSlabRegistry(new ObjectMapper());
+
+    @ParameterizedTest(name = "{0} old regime on {1}")
+    @CsvSource({
+        "2023-24, 250000, 0.00",
+        "2023-24, 500000, 0.00",
+        "2023-24, 500001, 13000.21",
+        "2023-24, 1000000, 117000.00",
+        "2023-24, 1000001, 117000.31",
+        "2023-24, 5000000, 1365000.00",
+        "2023-24, 5000001, 1501500.34",
+        "2024-25, 250000, 0.00",
+        "2024-25, 500000, 0.00",
+        "2024-25, 500001, 13000.21",
+        "2024-25, 1000000, 117000.00",
+        "2024-25, 1000001, 117000.31",
+        "2024-25, 5000000, 1365000.00",
+        "2024-25, 5000001, 1501500.34",
+        "2025-26, 250000, 0.00",
+        "2025-26, 500000, 0.00",
+        "2025-26, 500001, 13000.21",
+        "2025-26, 1000000, 117000.00",
+        "2025-26, 1000001, 117000.31",
+        "2025-26, 5000000, 1365000.00",
+        "2025-26, 5000001, 1501500.34"
+    })
+    void oldRegimeBoundaries(String year, String income, String tax) {
+        assertEquals(new BigDecimal(tax), registry.oldRegime(year).tax(new BigDecimal(income)));
+    }
+
+    @ParameterizedTest(name = "{0} new regime on {1}")
+    @CsvSource({
+        "2023-24, 300000, 0.00",
+        "2023-24, 700000, 0.00",
+        "2023-24, 700001, 26000.10",
+        "2023-24, 900000, 46800.00",
+        "2023-24, 1500000, 156000.00",
+        "2024-25, 300000, 0.00",
+        "2024-25, 700000, 0.00",
+        "2024-25, 700001, 20800.10",
+        "2024-25, 1000000, 52000.00",
+        "2024-25, 1500000, 145600.00",
+        "2025-26, 400000, 0.00",
+        "2025-26, 1200000, 0.00",
+        "2025-26, 1200001, 62400.16",
+        "2025-26, 1600000, 124800.00",
+        "2025-26, 2400000, 312000.00",
+        "2025-26, 2400001, 312000.31"
+    })
+    void newRegimeBoundaries(String year, String income, String tax) {
+        assertEquals(new BigDecimal(tax), registry.newRegime(year).tax(new BigDecimal(income)));
+    }
+
+    @Test
+    void missingYearUsesDefault() {
+        assertEquals("2024-25", registry.resolveYear(null));
+        assertEquals("2024-25", registry.resolveYear(" "));
+        assertEquals(Set.of("2023-24", "2024-25", "2025-26"), registry.supportedYears());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2019-20", "2030-31", "2024"})
+    void unknownYearIsRefused(String year) {
+        assertThrows(IllegalArgumentException.class, () -> registry.resolveYear(year));
+        assertThrows(IllegalArgumentException.class, () -> registry.oldRegime(year));
+        assertThrows(IllegalArgumentException.class, () -> registry.newRegime(year));
+    }
+}
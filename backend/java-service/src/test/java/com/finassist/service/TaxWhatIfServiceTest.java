@@ -0,0 +1,87 @@
+package com.finassist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finassist.dto.TaxWhatIfRequest;
+import com.finassist.dto.TaxWhatIfResponse;
+import com.finassist.model.TaxCalculation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The sweep's base is filled and guarded like calculateTax: blank capital gains come from
+ * realised gains, and amounts past the fixed-point range are a bad request, not a 500
+ */
+class TaxWhatIfServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    private final TaxSlabRegistry registry = new TaxSlabRegistry(new ObjectMapper());
+    private final LotEngine lotEngine = mock(LotEngine.class);
+    private final TaxWhatIfService taxWhatIfService =
+        new TaxWhatIfService(registry, new TaxService(null, registry, null, lotEngine), 1000);
+
+    @Test
+    void blankCapitalGainsComeFromRealisedGains() {
+        when(lotEngine.getRealizedTotals(USER_ID, "2024-25")).thenReturn(Map.of(
+            LotEngine.SHORT_TERM, new BigDecimal("40000.00"),
+            LotEngine.LONG_TERM, new BigDecimal("-5000.00")));
+        TaxCalculation base = base("1000000");
+        base.setCapitalGainsLong(null);
+        base.setCapitalGainsShort(null);
+
+        TaxWhatIfResponse.Scenario scenario = taxWhatIfService.sweep(request(base)).getScenarios().get(0);
+
+        // 10,00,000 salary + 40,000 short-term gains; the long-term loss counts as zero
+        assertEquals(new BigDecimal("1040000.00"), scenario.getTaxableIncome());
+        assertEquals(registry.oldRegime("2024-25").tax(new BigDecimal("1040000")), scenario.getTaxOldRegime());
+    }
+
+    @Test
+    void statedCapitalGainsAreKept() {
+        TaxCalculation base = base("1000000");
+        base.setCapitalGainsShort(new BigDecimal("1000"));
+
+        TaxWhatIfResponse.Scenario scenario = taxWhatIfService.sweep(request(base)).getScenarios().get(0);
+
+        assertEquals(new BigDecimal("1001000.00"), scenario.getTaxableIncome());
+    }
+
+    @Test
+    void amountsPastTheFixedPointRangeAreRejected() {
+        TaxCalculation base = base("60000000000000000");
+        base.setOtherIncome(new BigDecimal("60000000000000000"));
+        TaxWhatIfRequest request = request(base);
+        TaxWhatIfRequest.Range salaries = new TaxWhatIfRequest.Range();
+        salaries.setFrom(new BigDecimal("60000000000000000"));
+        salaries.setTo(new BigDecimal("60000000000001000"));
+        salaries.setStep(new BigDecimal("100"));
+        request.setSalaryIncome(salaries);
+
+        assertThrows(IllegalArgumentException.class, () -> taxWhatIfService.sweep(request));
+    }
+
+    private static TaxWhatIfRequest request(TaxCalculation base) {
+        TaxWhatIfRequest request = new TaxWhatIfRequest();
+        request.setBase(base);
+        request.setNps(List.of(false));
+        return request;
+    }
+
+    private static TaxCalculation base(String salary) {
+        TaxCalculation base = new TaxCalculation();
+        base.setUserId(USER_ID);
+        base.setFinancialYear("2024-25");
+        base.setSalaryIncome(new BigDecimal(salary));
+        base.setCapitalGainsShort(BigDecimal.ZERO);
+        base.setCapitalGainsLong(BigDecimal.ZERO);
+        return base;
+    }
+}
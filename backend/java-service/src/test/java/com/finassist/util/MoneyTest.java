@@ -0,0 +1,115 @@
+package com.finassist.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Fixed-point results must match the BigDecimal HALF_UP arithmetic they replace
+ */
+class MoneyTest {
+
+    @Test
+    void divideHalfUpRoundsTiesAwayFromZero() {
+        assertEquals(3, Money.divideHalfUp(5, 2));
+        assertEquals(-3, Money.divideHalfUp(-5, 2));
+        assertEquals(2, Money.divideHalfUp(7, 4));
+        assertEquals(-2, Money.divideHalfUp(-7, 4));
+        assertEquals(1, Money.divideHalfUp(5, 4));
+        assertEquals(-1, Money.divideHalfUp(-5, 4));
+        assertEquals(0, Money.divideHalfUp(0, 7));
+    }
+
+    @Test
+    void divideHalfUpMatchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long dividend = random.nextLong() >> random.nextInt(64);
+            long divisor = 1 + (random.nextLong() >>> (1 + random.nextInt(63)));
+            assertEquals(bigHalfUp(BigDecimal.valueOf(dividend), BigDecimal.valueOf(divisor), 0).longValueExact(),
+                    Money.divideHalfUp(dividend, divisor), dividend + " / " + divisor);
+        }
+    }
+
+    @Test
+    void divideHalfUpAtLongLimits() {
+        assertEquals(Long.MAX_VALUE, Money.divideHalfUp(Long.MAX_VALUE, 1));
+        assertEquals(Long.MIN_VALUE, Money.divideHalfUp(Long.MIN_VALUE, 1));
+        assertEquals(bigHalfUp(BigDecimal.valueOf(Long.MIN_VALUE), BigDecimal.valueOf(3), 0).longValueExact(),
+                Money.divideHalfUp(Long.MIN_VALUE, 3));
+    }
+
+    @Test
+    void valueRoundsHalfPaiseUp() {
+        // 0.5 x 0.01 = 0.005 -> 0.01, and a short position the other way
+        assertEquals(1, Money.value(units("0.5"), 1));
+        assertEquals(-1, Money.value(units("-0.5"), 1));
+        assertEquals(0, Money.value(units("0.49999999"), 1));
+        assertEquals(12347, Money.value(units("1.5"), 8231));
+        assertEquals(-12347, Money.value(units("-1.5"), 8231));
+    }
+
+    @Test
+    void valuationMatchesBigDecimal() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            // Up to 10,000 units at up to 10,000.00 keeps the unscaled product inside a long
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(200_000_000) - 100_000_000L, 4 + random.nextInt(5));
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+            BigDecimal invested = BigDecimal.valueOf(1 + random.nextInt(1_000_000_000), 2);
+
+            BigDecimal exactValue = quantity.multiply(price);
+            BigDecimal exactPnl = exactValue.subtract(invested);
+            long q = Money.toQuantityUnits(quantity);
+            long p = Money.toPaise(price);
+            long v = Money.toPaise(invested);
+
+            String input = quantity + " x " + price + " on " + invested;
+            assertEquals(exactValue.setScale(2, RoundingMode.HALF_UP), Money.fromPaise(Money.value(q, p)), input);
+            assertEquals(exactPnl.setScale(2, RoundingMode.HALF_UP), Money.fromPaise(Money.pnl(q, p, v)), input);
+            assertEquals(bigHalfUp(exactPnl, invested, 4).movePointRight(2),
+                    Money.fromBasisPoints(Money.pnlBasisPoints(q, p, v)), input);
+        }
+    }
+
+    @Test
+    void pnlBasisPointsTiesAndNoInvestment() {
+        // 1.5 x 100.01 - 100.00 = 50.015 -> 0.50015 of invested -> 0.5002 (HALF_UP)
+        assertEquals(5002, Money.pnlBasisPoints(units("1.5"), 10001, 10000));
+        // 0.5 x 99.99 - 100.00 = -50.005 -> -0.50005 of invested -> -0.5001, away from zero
+        assertEquals(-5001, Money.pnlBasisPoints(units("0.5"), 9999, 10000));
+        assertEquals(0, Money.pnlBasisPoints(units("10"), 10000, 0));
+    }
+
+    @Test
+    void conversionsRejectValuesOffTheFixedScale() {
+        assertThrows(ArithmeticException.class, () -> Money.toPaise(new BigDecimal("1.005")));
+        assertThrows(ArithmeticException.class, () -> Money.toQuantityUnits(new BigDecimal("0.000000001")));
+        assertThrows(ArithmeticException.class, () -> Money.toPaise(new BigDecimal("1e20")));
+        assertEquals(-150, Money.toPaise(new BigDecimal("-1.50")));
+        assertEquals(new BigDecimal("-1.50"), Money.fromPaise(-150));
+    }
+
+    @Test
+    void arithmeticThrowsOnOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+        // 100000 at 1e9 rupees: 1e13 quantity units x 1e11 paise does not fit a long
+        assertThrows(ArithmeticException.class, () -> Money.value(units("100000"), 100_000_000_000L));
+        assertThrows(ArithmeticException.class, () -> Money.pnl(units("1"), 1, Long.MAX_VALUE / 1000));
+        assertThrows(ArithmeticException.class, () -> Money.pnlBasisPoints(units("1"), 1, Long.MAX_VALUE / 1000));
+    }
+
+    private static long units(String quantity) {
+        return Money.toQuantityUnits(new BigDecimal(quantity));
+    }
+
+    private static BigDecimal bigHalfUp(BigDecimal dividend, BigDecimal divisor, int scale) {
+        return dividend.divide(divisor, scale, RoundingMode.HALF_UP);
+    }
+}
@@ -4,10 +4,14 @@
 
 -- Drop existing tables if recreating
 DROP TABLE IF EXISTS financial_goals CASCADE;
+DROP TABLE IF EXISTS portfolio_daily_snapshots CASCADE;
+DROP TABLE IF EXISTS portfolio_realized_gains CASCADE;
+DROP TABLE IF EXISTS portfolio_lots CASCADE;
 DROP TABLE IF EXISTS portfolio_transactions CASCADE;
 DROP TABLE IF EXISTS portfolio_holdings CASCADE;
 DROP TABLE IF EXISTS tax_calculations CASCADE;
 DROP TABLE IF EXISTS documents CASCADE;
+DROP TABLE IF EXISTS budget_monthly_rollups CASCADE;
 DROP TABLE IF EXISTS budget_entries CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 
@@ -55,6 +59,18 @@ CREATE INDEX idx_budget_date ON budget_entries(entry_date);
 CREATE INDEX idx_budget_type ON budget_entries(type);
 CREATE INDEX idx_budget_category ON budget_entries(category);
 
+-- Per-user, per-month, per-category totals maintained by BudgetService on every insert/delete
+CREATE TABLE budget_monthly_rollups (
+    user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
+    month DATE NOT NULL, -- first day of the month
+    category VARCHAR(50) NOT NULL,
+    type VARCHAR(10) NOT NULL,
+    total_amount DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    entry_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, month, category, type)
+);
+
 -- ================================================
 -- 3. DOCUMENTS TABLE (Enhanced)
 -- ================================================
@@ -165,9 +181,9 @@ CREATE INDEX idx_portfolio_symbol ON portfolio_holdings(symbol);
 CREATE TABLE portfolio_transactions (
     id SERIAL PRIMARY KEY,
     user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
-    holding_id INTEGER REFERENCES portfolio_holdings(id) ON DELETE CASCADE,
+    holding_id INTEGER REFERENCES portfolio_holdings(id) ON DELETE SET NULL, -- trades outlive a closed position
     
-    transaction_type VARCHAR(10) NOT NULL, -- 'buy', 'sell'
+    transaction_type VARCHAR(10) NOT NULL, -- 'buy', 'sell', 'adjust' (position set or deleted by hand)
     asset_type VARCHAR(20) NOT NULL,
     symbol VARCHAR(50) NOT NULL,
     
@@ -187,6 +203,57 @@ CREATE INDEX idx_transactions_user_id ON portfolio_transactions(user_id);
 CREATE INDEX idx_transactions_holding ON portfolio_transactions(holding_id);
 CREATE INDEX idx_transactions_date ON portfolio_transactions(transaction_date);
 
+-- Tax lots: one row per buy (or opening balance), matched by sells per portfolio.lots.method
+CREATE TABLE portfolio_lots (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
+    transaction_id INTEGER REFERENCES portfolio_transactions(id) ON DELETE SET NULL, -- NULL for an opening lot
+    asset_type VARCHAR(20) NOT NULL,
+    symbol VARCHAR(50) NOT NULL,
+    acquired_date DATE NOT NULL,
+    quantity DECIMAL(18, 8) NOT NULL,
+    remaining_quantity DECIMAL(18, 8) NOT NULL,
+    unit_cost DECIMAL(18, 6) NOT NULL, -- price plus fees per unit
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_lots_open ON portfolio_lots(user_id, symbol, asset_type, acquired_date, id)
+    WHERE remaining_quantity > 0;
+
+-- Realised gain per (sell, lot) match
+CREATE TABLE portfolio_realized_gains (
+    id SERIAL PRIMARY KEY,
+    user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
+    lot_id INTEGER REFERENCES portfolio_lots(id) ON DELETE CASCADE,
+    transaction_id INTEGER REFERENCES portfolio_transactions(id) ON DELETE SET NULL, -- the sell
+    asset_type VARCHAR(20) NOT NULL,
+    symbol VARCHAR(50) NOT NULL,
+    quantity DECIMAL(18, 8) NOT NULL,
+    acquired_date DATE NOT NULL,
+    sold_date DATE NOT NULL,
+    cost_basis DECIMAL(14, 2) NOT NULL,
+    proceeds DECIMAL(14, 2) NOT NULL,
+    gain DECIMAL(14, 2) NOT NULL,
+    term VARCHAR(5) NOT NULL, -- 'short', 'long'
+    financial_year VARCHAR(10) NOT NULL, -- '2024-25'
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_realized_gains_user_year ON portfolio_realized_gains(user_id, financial_year);
+
+-- End-of-day valuation per user and asset type, written by the snapshot job
+-- (the primary key serves history range reads: WHERE user_id = ? AND snapshot_date BETWEEN ...)
+CREATE TABLE portfolio_daily_snapshots (
+    user_id INTEGER REFERENCES users(id) ON DELETE CASCADE,
+    snapshot_date DATE NOT NULL,
+    asset_type VARCHAR(20) NOT NULL,
+    holdings_count INTEGER NOT NULL,
+    total_invested DECIMAL(16, 2) NOT NULL,
+    current_value DECIMAL(16, 2) NOT NULL,
+    unrealized_pnl DECIMAL(16, 2) NOT NULL,
+    PRIMARY KEY (user_id, snapshot_date, asset_type)
+);
+
 -- ================================================
 -- 7. FINANCIAL GOALS TABLE
 -- ================================================
@@ -237,16 +304,16 @@ CREATE INDEX idx_goals_target_date ON financial_goals(target_date);
 -- VIEWS FOR ANALYTICS
 -- ================================================
 
--- Budget Summary View
+-- Budget Summary View (reads the maintained rollups, not every entry)
 CREATE OR REPLACE VIEW budget_summary AS
 SELECT 
     user_id,
-    DATE_TRUNC('month', entry_date) AS month,
+    month,
     type,
-    SUM(amount) AS total_amount,
-    COUNT(*) AS transaction_count
-FROM budget_entries
-GROUP BY user_id, DATE_TRUNC('month', entry_date), type;
+    SUM(total_amount) AS total_amount,
+    SUM(entry_count) AS transaction_count
+FROM budget_monthly_rollups
+GROUP BY user_id, month, type;
 
 -- Portfolio Summary View
 CREATE OR REPLACE VIEW portfolio_summary AS
@@ -287,6 +354,12 @@ INSERT INTO budget_entries (user_id, category, amount, type, entry_date, descrip
 (1, 'Transport', 3000, 'expense', CURRENT_DATE, 'Fuel and metro'),
 (1, 'Entertainment', 2000, 'expense', CURRENT_DATE, 'Movies and outings');
 
+-- Backfill rollups for the sample entries
+INSERT INTO budget_monthly_rollups (user_id, month, category, type, total_amount, entry_count)
+SELECT user_id, DATE_TRUNC('month', entry_date)::date, category, type, SUM(amount), COUNT(*)
+FROM budget_entries
+GROUP BY user_id, DATE_TRUNC('month', entry_date)::date, category, type;
+
 -- Insert sample goal
 INSERT INTO financial_goals (user_id, goal_name, goal_type, target_amount, current_amount, target_date) VALUES
 (1, 'House Down Payment', 'house', 2000000, 500000, '2027-12-31');
@@ -322,9 +395,12 @@ CREATE TRIGGER update_goals_updated_at BEFORE UPDATE ON financial_goals
 -- ================================================
 
 -- Composite indexes for common queries
-CREATE INDEX idx_budget_user_date ON budget_entries(user_id, entry_date DESC);
+-- (user_id, date, id) backs keyset pagination: WHERE (date, id) < cursor ORDER BY date DESC, id DESC
+CREATE INDEX idx_budget_user_date_id ON budget_entries(user_id, entry_date DESC, id DESC);
 CREATE INDEX idx_portfolio_user_asset ON portfolio_holdings(user_id, asset_type);
-CREATE INDEX idx_transactions_user_date ON portfolio_transactions(user_id, transaction_date DESC);
+CREATE INDEX idx_transactions_user_date_id ON portfolio_transactions(user_id, transaction_date DESC, id DESC);
+-- (user_id, symbol, asset_type, id) feeds holding rebuilds in replay order without a sort
+CREATE INDEX idx_transactions_user_holding_id ON portfolio_transactions(user_id, symbol, asset_type, id);
 
 -- ================================================
 -- GRANTS (Optional - for production)